@@ -0,0 +1,50 @@
+package jmath.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Random;
+
+/**
+ * Generates random operands. Every generator is seeded, so all runs measure
+ * the same data.
+ */
+final class Data {
+
+	private static final long SEED = 0x6A6D617468L;
+
+	// Do not create any instances
+	private Data() {
+	}
+
+	static Random random() {
+		return new Random(SEED);
+	}
+
+	/**
+	 * Returns {@code count} normally distributed numbers.
+	 */
+	static double[] doubles(final Random random, final int count) {
+		final double[] result = new double[count];
+		for (int i = 0; i < count; i++)
+			result[i] = random.nextGaussian();
+		return result;
+	}
+
+	/**
+	 * Returns a number from [0; 10) with {@code precision} random digits.
+	 */
+	static BigDecimal decimal(final Random random, final int precision) {
+		final BigInteger unscaled = new BigInteger((int) Math.ceil(precision * Math.log(10) / Math.log(2)), random);
+		return new BigDecimal(unscaled, precision - 1);
+	}
+
+	/**
+	 * Returns {@code count} numbers with {@code precision} random digits.
+	 */
+	static BigDecimal[] decimals(final Random random, final int count, final int precision) {
+		final BigDecimal[] result = new BigDecimal[count];
+		for (int i = 0; i < count; i++)
+			result[i] = Data.decimal(random, precision);
+		return result;
+	}
+}
@@ -0,0 +1,106 @@
+package jmath.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.geom3d.LineSegment3D;
+import jmath.geom3d.Point3D;
+
+/**
+ * Distances in 3D, which use fused multiply-add. The plain variants compute
+ * the same formulas with separate multiplications and additions as a baseline.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GeometryBenchmark {
+
+	private static final int COUNT = 1024;
+
+	Point3D.Double[] points;
+	LineSegment3D.Double[] segments;
+
+	@Setup
+	public void setUp() {
+		final Random random = Data.random();
+		this.points = new Point3D.Double[COUNT];
+		for (int i = 0; i < COUNT; i++)
+			this.points[i] = new Point3D.Double(random.nextGaussian(), random.nextGaussian(), random.nextGaussian());
+		this.segments = new LineSegment3D.Double[COUNT];
+		for (int i = 0; i < COUNT; i++)
+			this.segments[i] = new LineSegment3D.Double(this.points[i], this.points[(i + 1) % COUNT]);
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public double pointDistance() {
+		double sum = .0;
+		for (int i = 0; i < COUNT; i++)
+			sum += this.points[i].distance(this.points[COUNT - 1 - i]);
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public double pointDistancePlain() {
+		double sum = .0;
+		for (int i = 0; i < COUNT; i++) {
+			final Point3D.Double p = this.points[i];
+			final Point3D.Double q = this.points[COUNT - 1 - i];
+			final double dx = q.getX() - p.getX();
+			final double dy = q.getY() - p.getY();
+			final double dz = q.getZ() - p.getZ();
+			sum += Math.sqrt(dx * dx + dy * dy + dz * dz);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public double segmentDistance() {
+		double sum = .0;
+		for (int i = 0; i < COUNT; i++)
+			sum += this.segments[i].distance(this.points[COUNT - 1 - i]);
+		return sum;
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(COUNT)
+	public double segmentDistancePlain() {
+		double sum = .0;
+		for (int i = 0; i < COUNT; i++) {
+			final Point3D.Double a = this.segments[i].getPointFrom();
+			final Point3D.Double b = this.segments[i].getPointTo();
+			final Point3D.Double p = this.points[COUNT - 1 - i];
+			final double dx = b.getX() - a.getX();
+			final double dy = b.getY() - a.getY();
+			final double dz = b.getZ() - a.getZ();
+			final double px = p.getX() - a.getX();
+			final double py = p.getY() - a.getY();
+			final double pz = p.getZ() - a.getZ();
+			final double lengthSquared = dx * dx + dy * dy + dz * dz;
+			double t = lengthSquared == .0 ? .0 : (px * dx + py * dy + pz * dz) / lengthSquared;
+			t = Math.max(.0, Math.min(1.0, t));
+			final double ex = px - t * dx;
+			final double ey = py - t * dy;
+			final double ez = pz - t * dz;
+			sum += Math.sqrt(ex * ex + ey * ey + ez * ez);
+		}
+		return sum;
+	}
+}
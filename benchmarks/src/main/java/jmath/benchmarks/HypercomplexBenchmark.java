@@ -0,0 +1,99 @@
+package jmath.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.Hypercomplex;
+
+/**
+ * Arithmetic of complex numbers, quaternions, octonions and sedenions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class HypercomplexBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DoubleOperands {
+
+		@Param({ "2", "4", "8", "16" })
+		int dimension;
+
+		Hypercomplex.Double x;
+		Hypercomplex.Double y;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.x = DoubleOperands.number(Data.doubles(random, this.dimension));
+			this.y = DoubleOperands.number(Data.doubles(random, this.dimension));
+		}
+
+		private static Hypercomplex.Double number(final double[] components) {
+			return new Hypercomplex.Double(components[0], Arrays.copyOfRange(components, 1, components.length));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class DecimalOperands {
+
+		@Param({ "2", "4", "8", "16" })
+		int dimension;
+
+		@Param({ "16", "34", "100", "1000" })
+		int precision;
+
+		MathContext mc;
+		Hypercomplex x;
+		Hypercomplex y;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.mc = new MathContext(this.precision);
+			this.x = DecimalOperands.number(Data.decimals(random, this.dimension, this.precision));
+			this.y = DecimalOperands.number(Data.decimals(random, this.dimension, this.precision));
+		}
+
+		private static Hypercomplex number(final BigDecimal[] components) {
+			return new Hypercomplex(components[0], Arrays.copyOfRange(components, 1, components.length));
+		}
+	}
+
+	@Benchmark
+	public Hypercomplex.Double addDouble(final DoubleOperands operands) {
+		return operands.x.add(operands.y);
+	}
+
+	@Benchmark
+	public Hypercomplex.Double multiplyDouble(final DoubleOperands operands) {
+		return operands.x.multiply(operands.y);
+	}
+
+	@Benchmark
+	public Hypercomplex addDecimal(final DecimalOperands operands) {
+		return operands.x.add(operands.y, operands.mc);
+	}
+
+	@Benchmark
+	public Hypercomplex multiplyDecimal(final DecimalOperands operands) {
+		return operands.x.multiply(operands.y, operands.mc);
+	}
+}
@@ -0,0 +1,74 @@
+package jmath.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.MathUtilities;
+
+/**
+ * Roots and elementary functions of {@link BigDecimal}s. Arguments have as
+ * many digits as the requested precision.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MathUtilitiesBenchmark {
+
+	@Param({ "16", "34", "100", "1000" })
+	int precision;
+
+	MathContext mc;
+	BigDecimal x;
+
+	@Setup
+	public void setUp() {
+		this.mc = new MathContext(this.precision);
+		this.x = Data.decimal(Data.random(), this.precision);
+	}
+
+	@Benchmark
+	public BigDecimal sqrt() {
+		return MathUtilities.realRoot(this.x, 2, this.mc);
+	}
+
+	@Benchmark
+	public BigDecimal cbrt() {
+		return MathUtilities.realRoot(this.x, 3, this.mc);
+	}
+
+	@Benchmark
+	public BigDecimal exp() {
+		return MathUtilities.exp(this.x, this.mc);
+	}
+
+	@Benchmark
+	public BigDecimal ln() {
+		return MathUtilities.ln(this.x, this.mc);
+	}
+
+	@Benchmark
+	public BigDecimal sin() {
+		return MathUtilities.sin(this.x, this.mc);
+	}
+
+	@Benchmark
+	public BigDecimal atan() {
+		return MathUtilities.atan(this.x, this.mc);
+	}
+}
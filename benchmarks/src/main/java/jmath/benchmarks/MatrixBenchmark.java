@@ -0,0 +1,105 @@
+package jmath.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.Matrix;
+import jmath.Summation;
+
+/**
+ * Arithmetic of square matrices. BigDecimal matrices are limited to smaller
+ * sizes, their multiplication is cubic in the size and superlinear in the
+ * precision.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class MatrixBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DoubleOperands {
+
+		@Param({ "4", "16", "64", "256", "1024", "4096" })
+		int size;
+
+		Matrix.Double a;
+		Matrix.Double b;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.a = new Matrix.Double(this.size, this.size, Data.doubles(random, this.size * this.size));
+			this.b = new Matrix.Double(this.size, this.size, Data.doubles(random, this.size * this.size));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class DecimalOperands {
+
+		@Param({ "4", "16", "64" })
+		int size;
+
+		@Param({ "16", "34", "100", "1000" })
+		int precision;
+
+		MathContext mc;
+		Matrix a;
+		Matrix b;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.mc = new MathContext(this.precision);
+			this.a = new Matrix(DecimalOperands.square(random, this.size, this.precision));
+			this.b = new Matrix(DecimalOperands.square(random, this.size, this.precision));
+		}
+
+		private static BigDecimal[][] square(final Random random, final int size, final int precision) {
+			final BigDecimal[][] data = new BigDecimal[size][];
+			for (int row = 0; row < size; row++)
+				data[row] = Data.decimals(random, size, precision);
+			return data;
+		}
+	}
+
+	@Benchmark
+	public Matrix.Double multiplyDouble(final DoubleOperands operands) {
+		return operands.a.multiply(operands.b);
+	}
+
+	@Benchmark
+	public Matrix.Double multiplyDoubleFused(final DoubleOperands operands) {
+		return operands.a.multiply(operands.b, Summation.FMA);
+	}
+
+	@Benchmark
+	public Matrix.Double addDouble(final DoubleOperands operands) {
+		return operands.a.add(operands.b);
+	}
+
+	@Benchmark
+	public Matrix multiplyDecimal(final DecimalOperands operands) {
+		return operands.a.multiply(operands.b, operands.mc);
+	}
+
+	@Benchmark
+	public Matrix addDecimal(final DecimalOperands operands) {
+		return operands.a.add(operands.b, operands.mc);
+	}
+}
@@ -0,0 +1,125 @@
+package jmath.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.Hypercomplex;
+import jmath.MathEntity;
+import jmath.Matrix;
+import jmath.Vector;
+
+/**
+ * Java serialization of single entities, every one in its own stream like a
+ * message. The {@code bytes} counter reports the size of the stream. Run the
+ * benchmark against two builds of the library to compare their formats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class SerializationBenchmark {
+
+	public enum Kind {
+		HYPERCOMPLEX_DOUBLE, HYPERCOMPLEX, VECTOR_DOUBLE, VECTOR, MATRIX_DOUBLE, MATRIX
+	}
+
+	@State(Scope.Benchmark)
+	public static class Entity {
+
+		@Param({ "HYPERCOMPLEX_DOUBLE", "HYPERCOMPLEX", "VECTOR_DOUBLE", "VECTOR", "MATRIX_DOUBLE", "MATRIX" })
+		Kind kind;
+
+		/**
+		 * Count of components of numbers and vectors, count of rows and columns
+		 * of matrices.
+		 */
+		@Param({ "4", "8", "64" })
+		int dimension;
+
+		MathEntity entity;
+		byte[] serialized;
+
+		@Setup
+		public void setUp() throws IOException {
+			final Random random = Data.random();
+			final int count = this.kind == Kind.MATRIX_DOUBLE || this.kind == Kind.MATRIX
+					? this.dimension * this.dimension
+					: this.dimension;
+			final double[] doubles = Data.doubles(random, count);
+			final BigDecimal[] decimals = Data.decimals(random, count, 34);
+			switch (this.kind) {
+			case HYPERCOMPLEX_DOUBLE:
+				this.entity = new Hypercomplex.Double(doubles[0], Arrays.copyOfRange(doubles, 1, count));
+				break;
+			case HYPERCOMPLEX:
+				this.entity = new Hypercomplex(decimals[0], Arrays.copyOfRange(decimals, 1, count));
+				break;
+			case VECTOR_DOUBLE:
+				this.entity = new Vector.Double(doubles);
+				break;
+			case VECTOR:
+				this.entity = new Vector(decimals);
+				break;
+			case MATRIX_DOUBLE:
+				this.entity = new Matrix.Double(this.dimension, this.dimension, doubles);
+				break;
+			default:
+				final BigDecimal[][] rows = new BigDecimal[this.dimension][];
+				for (int row = 0; row < this.dimension; row++)
+					rows[row] = Arrays.copyOfRange(decimals, row * this.dimension, (row + 1) * this.dimension);
+				this.entity = new Matrix(rows);
+			}
+			this.serialized = SerializationBenchmark.serialize(this.entity);
+		}
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Size {
+
+		public long bytes;
+	}
+
+	@Benchmark
+	public byte[] serialize(final Entity entity, final Size size) throws IOException {
+		final byte[] bytes = SerializationBenchmark.serialize(entity.entity);
+		size.bytes = bytes.length;
+		return bytes;
+	}
+
+	@Benchmark
+	public Object deserialize(final Entity entity) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(entity.serialized))) {
+			return in.readObject();
+		}
+	}
+
+	private static byte[] serialize(final Object object) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+}
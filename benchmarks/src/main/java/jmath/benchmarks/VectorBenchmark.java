@@ -0,0 +1,99 @@
+package jmath.benchmarks;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jmath.Summation;
+import jmath.Vector;
+
+/**
+ * Dot products and sums of vectors. The longest double vectors are long
+ * enough to be reduced in parallel.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class VectorBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class DoubleOperands {
+
+		@Param({ "4", "16", "64", "256", "1024", "4096", "1048576" })
+		int size;
+
+		Vector.Double v;
+		Vector.Double w;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.v = new Vector.Double(Data.doubles(random, this.size));
+			this.w = new Vector.Double(Data.doubles(random, this.size));
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Algorithm {
+
+		@Param({ "FAST", "PAIRWISE", "KAHAN", "FMA", "REPRODUCIBLE" })
+		Summation summation;
+	}
+
+	@State(Scope.Benchmark)
+	public static class DecimalOperands {
+
+		@Param({ "4", "64", "1024", "4096" })
+		int size;
+
+		@Param({ "16", "34", "100", "1000" })
+		int precision;
+
+		MathContext mc;
+		Vector v;
+		Vector w;
+
+		@Setup
+		public void setUp() {
+			final Random random = Data.random();
+			this.mc = new MathContext(this.precision);
+			this.v = new Vector(Data.decimals(random, this.size, this.precision));
+			this.w = new Vector(Data.decimals(random, this.size, this.precision));
+		}
+	}
+
+	@Benchmark
+	public double dotProductDouble(final DoubleOperands operands, final Algorithm algorithm) {
+		return operands.v.dotProduct(operands.w, algorithm.summation);
+	}
+
+	@Benchmark
+	public Vector.Double addDouble(final DoubleOperands operands) {
+		return operands.v.add(operands.w);
+	}
+
+	@Benchmark
+	public BigDecimal dotProductDecimal(final DecimalOperands operands) {
+		return operands.v.dotProduct(operands.w, operands.mc);
+	}
+
+	@Benchmark
+	public Vector addDecimal(final DecimalOperands operands) {
+		return operands.v.add(operands.w, operands.mc);
+	}
+}
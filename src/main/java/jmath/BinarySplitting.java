@@ -0,0 +1,217 @@
+package jmath;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * <p>
+ * Evaluates hypergeometric-like series
+ * </p>
+ *
+ * <blockquote style="text-align: center;"><var>S</var> =
+ * &sum;<sub><var>n</var>=0</sub><sup><var>N</var>&minus;1</sup>
+ * <var>a</var>(<var>n</var>) / <var>b</var>(<var>n</var>) &middot;
+ * <var>p</var>(0) &hellip; <var>p</var>(<var>n</var>) /
+ * (<var>q</var>(0) &hellip; <var>q</var>(<var>n</var>))</blockquote>
+ *
+ * <p>
+ * with integer <var>a</var>, <var>b</var>, <var>p</var> and <var>q</var>
+ * using binary splitting. The range of terms is recursively split in halves
+ * and partial sums are kept as exact fractions of {@link BigInteger}s, so only
+ * the final division is rounded. Since both halves are of the same size, most
+ * of the work is done by multiplications of large numbers of similar size,
+ * which are subquadratic.
+ * </p>
+ * <p>
+ * Long series are evaluated in parallel. Both halves of every large enough
+ * range are evaluated as separate tasks and the independent multiplications
+ * merging them are done concurrently too. On Java 21 and newer, the largest
+ * multiplications are split into tasks as well. The tasks run in the
+ * {@link ForkJoinPool} of the calling thread, or in the
+ * {@link ForkJoinPool#commonPool() common pool} if the caller is not a
+ * {@link ForkJoinTask}. Submit the computation to a dedicated pool to control
+ * its parallelism.
+ * </p>
+ * <p>
+ * For example, the Euler number is the sum of the series with
+ * <var>p</var>(<var>n</var>) = 1, <var>q</var>(0) = 1 and
+ * <var>q</var>(<var>n</var>) = <var>n</var>:
+ * </p>
+ *
+ * <pre>
+ * BinarySplitting.sum(new BinarySplitting.Series() {
+ *     public BigInteger p(long n) {
+ *         return BigInteger.ONE;
+ *     }
+ *
+ *     public BigInteger q(long n) {
+ *         return n == 0 ? BigInteger.ONE : BigInteger.valueOf(n);
+ *     }
+ * }, terms, mc);
+ * </pre>
+ *
+ * @see MathConstants#pi(MathContext)
+ * @see MathConstants#euler(MathContext)
+ */
+public final class BinarySplitting {
+
+	/**
+	 * Ranges with fewer terms are evaluated by the current thread.
+	 */
+	private static final long MIN_TASK_TERMS = 1 << 9;
+
+	/**
+	 * Products of numbers with fewer bits are computed by the current thread.
+	 */
+	private static final int MIN_TASK_BITS = 1 << 16;
+
+	/**
+	 * Terms of a series. By default, <var>a</var> and <var>b</var> are 1.
+	 * Implementations must be thread-safe, terms are requested concurrently and
+	 * in no particular order.
+	 */
+	public interface Series {
+
+		/**
+		 * Returns the numerator of the factor of the {@code n}-th term.
+		 *
+		 * @param n index of the term
+		 * @return <var>a</var>(<var>n</var>)
+		 */
+		default BigInteger a(final long n) {
+			return BigInteger.ONE;
+		}
+
+		/**
+		 * Returns the denominator of the factor of the {@code n}-th term.
+		 *
+		 * @param n index of the term
+		 * @return <var>b</var>(<var>n</var>), not zero
+		 */
+		default BigInteger b(final long n) {
+			return BigInteger.ONE;
+		}
+
+		/**
+		 * Returns the numerator of ratio of the {@code n}-th and the previous
+		 * term.
+		 *
+		 * @param n index of the term
+		 * @return <var>p</var>(<var>n</var>)
+		 */
+		BigInteger p(long n);
+
+		/**
+		 * Returns the denominator of ratio of the {@code n}-th and the previous
+		 * term.
+		 *
+		 * @param n index of the term
+		 * @return <var>q</var>(<var>n</var>), not zero
+		 */
+		BigInteger q(long n);
+	}
+
+	// Do not create any instances
+	private BinarySplitting() {
+	}
+
+	/**
+	 * Sums first {@code terms} terms of the series.
+	 *
+	 * @param series the series
+	 * @param terms  count of terms to sum
+	 * @param mc     the {@link MathContext} used to round the result
+	 * @return the sum
+	 * @throws IllegalArgumentException if {@code terms} is not positive
+	 * @throws ArithmeticException      if {@code mc} has unlimited precision
+	 *                                  and the sum has no finite decimal
+	 *                                  expansion
+	 */
+	public static BigDecimal sum(final Series series, final long terms, final MathContext mc) {
+		if (terms <= 0)
+			throw new IllegalArgumentException("Count of terms must be positive");
+		final BigInteger[] result;
+		if (terms < 2 * MIN_TASK_TERMS)
+			result = BinarySplitting.split(series, 0, terms);
+		else {
+			final SplitTask task = new SplitTask(series, 0, terms);
+			result = ForkJoinTask.inForkJoinPool() ? task.invoke() : ForkJoinPool.commonPool().invoke(task);
+		}
+		// S = T / (B Q)
+		return new BigDecimal(result[3]).divide(new BigDecimal(result[2].multiply(result[1])), mc);
+	}
+
+	/**
+	 * Returns {P, Q, B, T} for terms [{@code from}; {@code to}).
+	 */
+	private static BigInteger[] split(final Series series, final long from, final long to) {
+		if (to - from == 1) {
+			final BigInteger p = series.p(from);
+			return new BigInteger[] { p, series.q(from), series.b(from), series.a(from).multiply(p) };
+		}
+		final long middle = (from + to) >>> 1;
+		return BinarySplitting.merge(BinarySplitting.split(series, from, middle),
+				BinarySplitting.split(series, middle, to));
+	}
+
+	/**
+	 * Merges results of two adjacent ranges.
+	 */
+	private static BigInteger[] merge(final BigInteger[] left, final BigInteger[] right) {
+		if (left[1].bitLength() >= MIN_TASK_BITS && ForkJoinTask.inForkJoinPool())
+			return BinarySplitting.mergeParallel(left, right);
+		final BigInteger p = left[0].multiply(right[0]);
+		final BigInteger q = left[1].multiply(right[1]);
+		final BigInteger b = left[2].multiply(right[2]);
+		// T = Br Qr Tl + Bl Pl Tr
+		final BigInteger t = right[2].multiply(right[1]).multiply(left[3])
+				.add(left[2].multiply(left[0]).multiply(right[3]));
+		return new BigInteger[] { p, q, b, t };
+	}
+
+	private static BigInteger[] mergeParallel(final BigInteger[] left, final BigInteger[] right) {
+		final ForkJoinTask<BigInteger> p = ForkJoinTask.adapt(() -> Platform.multiply(left[0], right[0]));
+		final ForkJoinTask<BigInteger> q = ForkJoinTask.adapt(() -> Platform.multiply(left[1], right[1]));
+		final ForkJoinTask<BigInteger> b = ForkJoinTask.adapt(() -> Platform.multiply(left[2], right[2]));
+		final ForkJoinTask<BigInteger> tl = ForkJoinTask.adapt(
+				() -> Platform.multiply(right[2].multiply(right[1]), left[3]));
+		final ForkJoinTask<BigInteger> tr = ForkJoinTask.adapt(
+				() -> Platform.multiply(left[2].multiply(left[0]), right[3]));
+		ForkJoinTask.invokeAll(p, q, b, tl, tr);
+		return new BigInteger[] { p.join(), q.join(), b.join(), tl.join().add(tr.join()) };
+	}
+
+	/**
+	 * Evaluates terms [{@code from}; {@code to}), splitting itself if there are
+	 * too many terms.
+	 */
+	private static final class SplitTask extends RecursiveTask<BigInteger[]> {
+
+		private static final long serialVersionUID = 0x0100L;
+
+		private final Series series;
+		private final long from;
+		private final long to;
+
+		SplitTask(final Series series, final long from, final long to) {
+			this.series = series;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected BigInteger[] compute() {
+			if (this.to - this.from < 2 * MIN_TASK_TERMS)
+				return BinarySplitting.split(this.series, this.from, this.to);
+			final long middle = (this.from + this.to) >>> 1;
+			final SplitTask right = new SplitTask(this.series, middle, this.to);
+			right.fork();
+			final BigInteger[] left = new SplitTask(this.series, this.from, middle).compute();
+			return BinarySplitting.merge(left, right.join());
+		}
+	}
+}
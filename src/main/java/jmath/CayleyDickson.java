@@ -0,0 +1,80 @@
+package jmath;
+
+/**
+ * Multiplication table of hypercomplex units given by the Cayley&ndash;Dickson
+ * construction (<var>a</var>, <var>b</var>)(<var>c</var>, <var>d</var>) =
+ * (<var>a</var><var>c</var> &minus; <var>d</var><sup>*</sup><var>b</var>,
+ * <var>d</var><var>a</var> + <var>b</var><var>c</var><sup>*</sup>). Product of
+ * units <var>e</var><sub><var>p</var></sub> and
+ * <var>e</var><sub><var>q</var></sub> (<var>e</var><sub>0</sub> = 1) is always
+ * &plusmn;<var>e</var><sub><var>p</var> xor <var>q</var></sub>.
+ */
+final class CayleyDickson {
+
+	/**
+	 * Cached tables of signs, indexed by binary logarithm of the dimension.
+	 */
+	private static final byte[][] TABLES = new byte[31][];
+
+	// Do not create any instances
+	private CayleyDickson() {
+	}
+
+	/**
+	 * Returns signs of all products of units of algebra of given dimension. Sign
+	 * of <var>e</var><sub><var>p</var></sub> &middot;
+	 * <var>e</var><sub><var>q</var></sub> is stored at index <var>p</var>
+	 * &middot; {@code dimension} + <var>q</var>. Tables are computed only once,
+	 * the returned array must not be modified.
+	 *
+	 * @param dimension count of units of the algebra, a power of two
+	 * @return the table of signs
+	 */
+	static synchronized byte[] signs(final int dimension) {
+		final int level = Integer.numberOfTrailingZeros(dimension);
+		byte[] table = TABLES[level];
+		if (table == null) {
+			table = new byte[dimension * dimension];
+			for (int p = 0; p < dimension; p++)
+				for (int q = 0; q < dimension; q++)
+					table[p * dimension + q] = (byte) CayleyDickson.sign(p, q, dimension);
+			TABLES[level] = table;
+		}
+		return table;
+	}
+
+	/**
+	 * Returns the sign of product of units <var>e</var><sub><var>p</var></sub>
+	 * &middot; <var>e</var><sub><var>q</var></sub> in algebra of given
+	 * dimension.
+	 *
+	 * @param p         index of the left unit
+	 * @param q         index of the right unit
+	 * @param dimension count of units of the algebra, a power of two greater
+	 *                  than both {@code p} and {@code q}
+	 * @return {@code 1} or {@code -1}
+	 */
+	static int sign(final int p, final int q, final int dimension) {
+		if (dimension == 1)
+			return 1;
+		final int half = dimension >>> 1;
+		if (p < half && q < half)
+			return CayleyDickson.sign(p, q, half);
+		if (p < half)
+			return CayleyDickson.sign(q - half, p, half);
+		if (q < half)
+			return q == 0 ? CayleyDickson.sign(p - half, q, half) : -CayleyDickson.sign(p - half, q, half);
+		return q == half
+				? -CayleyDickson.sign(q - half, p - half, half)
+				: CayleyDickson.sign(q - half, p - half, half);
+	}
+
+	/**
+	 * Returns the smallest dimension of a Cayley&ndash;Dickson algebra with at
+	 * least given count of units, i.e. the smallest power of two not less than
+	 * {@code units}.
+	 */
+	static int dimension(final int units) {
+		return units <= 1 ? 1 : Integer.highestOneBit(units - 1) << 1;
+	}
+}
@@ -0,0 +1,239 @@
+package jmath;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Cholesky decomposition <var>A</var> = <var>L</var><var>L</var><sup>T</sup> of
+ * a symmetric positive definite matrix of {@link BigDecimal}s, where
+ * <var>L</var> is a lower triangular matrix. It needs about half of the
+ * operations of {@link LUDecomposition} and does not need any pivoting.
+ * </p>
+ *
+ * @see CholeskyDecomposition.Double
+ */
+public final class CholeskyDecomposition implements Solver {
+
+	private final BigDecimal[][] lower;
+	private final MathContext mc;
+
+	/**
+	 * Computes Cholesky decomposition of given matrix.
+	 *
+	 * @param matrix the matrix to decompose
+	 * @param mc     the {@link MathContext} used for rounding
+	 * @throws NullPointerException     if {@code matrix} or {@code mc} is
+	 *                                  {@code null}
+	 * @throws IllegalStateException    if the matrix is not a square matrix
+	 * @throws IllegalArgumentException if the matrix is not symmetric or not
+	 *                                  positive definite
+	 */
+	public CholeskyDecomposition(final Matrix matrix, final MathContext mc) {
+		Objects.requireNonNull(matrix, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (!matrix.isSquareMatrix())
+			throw new IllegalStateException("Matrix is not a square matrix");
+
+		final int n = matrix.rows();
+		for (int i = 0; i < n; i++)
+			for (int j = i + 1; j < n; j++)
+				if (matrix.get(i, j).compareTo(matrix.get(j, i)) != 0)
+					throw new IllegalArgumentException("Matrix is not symmetric");
+
+		final BigDecimal[][] l = new BigDecimal[n][n];
+		for (int i = 0; i < n; i++) {
+			for (int j = 0; j <= i; j++) {
+				BigDecimal sum = matrix.get(i, j);
+				for (int k = 0; k < j; k++)
+					sum = sum.subtract(l[i][k].multiply(l[j][k]), mc);
+				if (i == j) {
+					if (sum.signum() <= 0)
+						throw new IllegalArgumentException("Matrix is not positive definite");
+					l[i][i] = MathUtilities.realRoot(sum, 2, mc);
+				} else
+					l[i][j] = sum.divide(l[j][j], mc);
+			}
+			for (int j = i + 1; j < n; j++)
+				l[i][j] = BigDecimal.ZERO;
+		}
+		this.lower = l;
+		this.mc = mc;
+	}
+
+	/**
+	 * Returns determinant of the decomposed matrix.
+	 *
+	 * @return det <var>A</var>
+	 */
+	public BigDecimal determinant() {
+		BigDecimal det = BigDecimal.ONE;
+		for (int i = 0; i < this.lower.length; i++)
+			det = det.multiply(this.lower[i][i], this.mc);
+		return det.multiply(det, this.mc);
+	}
+
+	@Override
+	public Vector solve(final Vector b) {
+		final int n = this.lower.length;
+		if (b.size() != n)
+			throw new IllegalArgumentException("Vector size does not match the matrix size");
+		final BigDecimal[][] x = new BigDecimal[n][1];
+		for (int i = 0; i < n; i++)
+			x[i][0] = b.get(i);
+		this.solveInPlace(x);
+		final BigDecimal[] result = new BigDecimal[n];
+		for (int i = 0; i < n; i++)
+			result[i] = x[i][0];
+		return new Vector(result);
+	}
+
+	@Override
+	public Matrix solve(final Matrix b) {
+		final int n = this.lower.length;
+		if (b.rows() != n)
+			throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+		final BigDecimal[][] x = new BigDecimal[n][b.columns()];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < b.columns(); j++)
+				x[i][j] = b.get(i, j);
+		this.solveInPlace(x);
+		return new Matrix(x);
+	}
+
+	private void solveInPlace(final BigDecimal[][] x) {
+		final BigDecimal[][] l = this.lower;
+		final int n = l.length;
+		final int m = x[0].length;
+
+		// L y = b
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < m; j++) {
+				BigDecimal sum = x[i][j];
+				for (int k = 0; k < i; k++)
+					sum = sum.subtract(l[i][k].multiply(x[k][j]), this.mc);
+				x[i][j] = sum.divide(l[i][i], this.mc);
+			}
+
+		// L^T x = y
+		for (int i = n - 1; i >= 0; i--)
+			for (int j = 0; j < m; j++) {
+				BigDecimal sum = x[i][j];
+				for (int k = i + 1; k < n; k++)
+					sum = sum.subtract(l[k][i].multiply(x[k][j]), this.mc);
+				x[i][j] = sum.divide(l[i][i], this.mc);
+			}
+	}
+
+	// Double class ----------------------------------------------------------------
+
+	/**
+	 * <p>
+	 * Cholesky decomposition <var>A</var> = <var>L</var><var>L</var><sup>T</sup>
+	 * of a symmetric positive definite matrix of {@code double}s, where
+	 * <var>L</var> is a lower triangular matrix. It needs about half of the
+	 * operations of {@link LUDecomposition.Double} and does not need any
+	 * pivoting.
+	 * </p>
+	 *
+	 * @see CholeskyDecomposition
+	 */
+	public static final class Double implements Solver.Double {
+
+		private final double[] lower;
+		private final int n;
+
+		/**
+		 * Computes Cholesky decomposition of given matrix.
+		 *
+		 * @param matrix the matrix to decompose
+		 * @throws NullPointerException     if {@code matrix} is {@code null}
+		 * @throws IllegalStateException    if the matrix is not a square matrix
+		 * @throws IllegalArgumentException if the matrix is not symmetric or not
+		 *                                  positive definite
+		 */
+		public Double(final Matrix.Double matrix) {
+			Objects.requireNonNull(matrix, "Cannot pass null as argument");
+			if (!matrix.isSquareMatrix())
+				throw new IllegalStateException("Matrix is not a square matrix");
+			if (!matrix.isSymmetric())
+				throw new IllegalArgumentException("Matrix is not symmetric");
+
+			final int n = matrix.rows();
+			final double[] l = new double[n * n];
+			for (int i = 0; i < n; i++)
+				for (int j = 0; j <= i; j++) {
+					final double sum = matrix.get(i, j) - DoubleKernels.PREFERRED.dot(l, i * n, l, j * n, j);
+					if (i == j) {
+						if (!(sum > 0))
+							throw new IllegalArgumentException("Matrix is not positive definite");
+						l[i * n + i] = Math.sqrt(sum);
+					} else
+						l[i * n + j] = sum / l[j * n + j];
+				}
+			this.lower = l;
+			this.n = n;
+		}
+
+		/**
+		 * Returns determinant of the decomposed matrix.
+		 *
+		 * @return det <var>A</var>
+		 */
+		public double determinant() {
+			double det = 1.0;
+			for (int i = 0; i < this.n; i++)
+				det *= this.lower[i * this.n + i];
+			return det * det;
+		}
+
+		@Override
+		public Vector.Double solve(final Vector.Double b) {
+			if (b.coordinates() != this.n)
+				throw new IllegalArgumentException("Vector size does not match the matrix size");
+			final double[] x = new double[this.n];
+			for (int i = 0; i < this.n; i++)
+				x[i] = b.get(i);
+			this.solveInPlace(x, 1);
+			return new Vector.Double(x);
+		}
+
+		@Override
+		public Matrix.Double solve(final Matrix.Double b) {
+			if (b.rows() != this.n)
+				throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+			final int m = b.columns();
+			final double[] x = b.toRowMajorArray();
+			this.solveInPlace(x, m);
+			return new Matrix.Double(this.n, m, x);
+		}
+
+		/**
+		 * Solves the system for row-major <var>B</var> with {@code m} columns,
+		 * updating whole rows of <var>B</var> at once.
+		 */
+		private void solveInPlace(final double[] x, final int m) {
+			final double[] l = this.lower;
+			final int n = this.n;
+
+			// L y = b
+			for (int i = 0; i < n; i++) {
+				for (int k = 0; k < i; k++)
+					DoubleKernels.PREFERRED.axpy(-l[i * n + k], x, k * m, x, i * m, m);
+				final double diagonal = l[i * n + i];
+				for (int j = 0; j < m; j++)
+					x[i * m + j] /= diagonal;
+			}
+
+			// L^T x = y
+			for (int i = n - 1; i >= 0; i--) {
+				for (int k = i + 1; k < n; k++)
+					DoubleKernels.PREFERRED.axpy(-l[k * n + i], x, k * m, x, i * m, m);
+				final double diagonal = l[i * n + i];
+				for (int j = 0; j < m; j++)
+					x[i * m + j] /= diagonal;
+			}
+		}
+	}
+}
@@ -0,0 +1,161 @@
+package jmath;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Dot products of {@code double} arrays using given {@link Summation}. Long
+ * arrays are split into blocks of fixed size summed in parallel in the
+ * {@link ForkJoinPool} of the calling thread or in the
+ * {@link ForkJoinPool#commonPool() common pool}. Partial sums are kept as
+ * unevaluated sums of two {@code double}s, so that {@link Summation#KAHAN}
+ * does not lose the compensation when merging them.
+ */
+final class DotProduct {
+
+	/**
+	 * Shorter products are computed by the current thread.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	/**
+	 * Length of the shortest block summed by a single task.
+	 */
+	private static final int MIN_TASK_LENGTH = 1 << 14;
+
+	/**
+	 * Length of blocks summed directly by {@link Summation#PAIRWISE}.
+	 */
+	private static final int PAIRWISE_BLOCK = 128;
+
+	// Do not create any instances
+	private DotProduct() {
+	}
+
+	/**
+	 * Computes sum of {@code a[aOffset + i] * b[bOffset + i]} for all {@code i}
+	 * in {@code [0; length)}.
+	 */
+	static double dot(final Summation summation, final double[] a, final int aOffset, final double[] b,
+			final int bOffset, final int length) {
+		final double[] sum;
+		if (length < PARALLEL_THRESHOLD)
+			sum = DotProduct.block(summation, a, aOffset, b, bOffset, length);
+		else {
+			final DotTask task = new DotTask(summation, a, aOffset, b, bOffset, length);
+			sum = ForkJoinTask.inForkJoinPool() ? task.invoke() : ForkJoinPool.commonPool().invoke(task);
+		}
+		return sum[0] + sum[1];
+	}
+
+	/**
+	 * Returns the sum of the block as {sum, compensation}.
+	 */
+	private static double[] block(final Summation summation, final double[] a, final int aOffset,
+			final double[] b, final int bOffset, final int length) {
+		switch (summation) {
+		case FAST:
+			return new double[] { DoubleKernels.PREFERRED.dot(a, aOffset, b, bOffset, length), .0 };
+		case PAIRWISE:
+			return new double[] { DotProduct.pairwise(a, aOffset, b, bOffset, length), .0 };
+		case KAHAN:
+			return DotProduct.kahan(a, aOffset, b, bOffset, length);
+		case FMA:
+			return new double[] { DoubleKernels.PREFERRED.dotFused(a, aOffset, b, bOffset, length), .0 };
+		case REPRODUCIBLE:
+			// Order of the scalar kernel is fixed by the language
+			return new double[] { DoubleKernels.SCALAR.dot(a, aOffset, b, bOffset, length), .0 };
+		default:
+			throw new IllegalArgumentException("Unknown summation " + summation);
+		}
+	}
+
+	private static double pairwise(final double[] a, final int aOffset, final double[] b, final int bOffset,
+			final int length) {
+		if (length <= PAIRWISE_BLOCK)
+			return DoubleKernels.PREFERRED.dot(a, aOffset, b, bOffset, length);
+		final int half = length >>> 1;
+		return DotProduct.pairwise(a, aOffset, b, bOffset, half)
+				+ DotProduct.pairwise(a, aOffset + half, b, bOffset + half, length - half);
+	}
+
+	/**
+	 * Compensated summation in two interleaved accumulators, which hides
+	 * latency of the dependent additions.
+	 */
+	private static double[] kahan(final double[] a, final int aOffset, final double[] b, final int bOffset,
+			final int length) {
+		double sum0 = .0, compensation0 = .0;
+		double sum1 = .0, compensation1 = .0;
+		int i = 0;
+		for (; i + 1 < length; i += 2) {
+			final double p0 = a[aOffset + i] * b[bOffset + i];
+			final double t0 = sum0 + p0;
+			compensation0 += Math.abs(sum0) >= Math.abs(p0) ? (sum0 - t0) + p0 : (p0 - t0) + sum0;
+			sum0 = t0;
+			final double p1 = a[aOffset + i + 1] * b[bOffset + i + 1];
+			final double t1 = sum1 + p1;
+			compensation1 += Math.abs(sum1) >= Math.abs(p1) ? (sum1 - t1) + p1 : (p1 - t1) + sum1;
+			sum1 = t1;
+		}
+		if (i < length) {
+			final double p0 = a[aOffset + i] * b[bOffset + i];
+			final double t0 = sum0 + p0;
+			compensation0 += Math.abs(sum0) >= Math.abs(p0) ? (sum0 - t0) + p0 : (p0 - t0) + sum0;
+			sum0 = t0;
+		}
+		return DotProduct.merge(new double[] { sum0, compensation0 }, new double[] { sum1, compensation1 });
+	}
+
+	/**
+	 * Adds two partial sums, keeping the rounding error of the addition.
+	 */
+	private static double[] merge(final double[] left, final double[] right) {
+		final double sum = left[0] + right[0];
+		// Knuth's TwoSum, exact for any magnitudes
+		final double virtual = sum - left[0];
+		final double error = (left[0] - (sum - virtual)) + (right[0] - virtual);
+		return new double[] { sum, error + left[1] + right[1] };
+	}
+
+	/**
+	 * Sums {@code length} products, splitting itself into halves if there are
+	 * too many of them. Blocks depend only on {@code length}, not on the count
+	 * of threads.
+	 */
+	private static final class DotTask extends RecursiveTask<double[]> {
+
+		private static final long serialVersionUID = 0x0100L;
+
+		private final Summation summation;
+		private final double[] a;
+		private final int aOffset;
+		private final double[] b;
+		private final int bOffset;
+		private final int length;
+
+		DotTask(final Summation summation, final double[] a, final int aOffset, final double[] b,
+				final int bOffset, final int length) {
+			this.summation = summation;
+			this.a = a;
+			this.aOffset = aOffset;
+			this.b = b;
+			this.bOffset = bOffset;
+			this.length = length;
+		}
+
+		@Override
+		protected double[] compute() {
+			if (this.length < 2 * MIN_TASK_LENGTH)
+				return DotProduct.block(this.summation, this.a, this.aOffset, this.b, this.bOffset, this.length);
+			final int half = this.length >>> 1;
+			final DotTask right = new DotTask(this.summation, this.a, this.aOffset + half, this.b,
+					this.bOffset + half, this.length - half);
+			right.fork();
+			final double[] left = new DotTask(this.summation, this.a, this.aOffset, this.b, this.bOffset, half)
+					.compute();
+			return DotProduct.merge(left, right.join());
+		}
+	}
+}
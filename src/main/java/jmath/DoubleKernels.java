@@ -0,0 +1,149 @@
+package jmath;
+
+/**
+ * Element-wise and dot-product loops over {@code double} arrays used by
+ * {@link Vector.Double} and {@link Matrix.Double}.
+ * <p>
+ * Two implementations exist: a portable scalar one and one based on the
+ * incubating Vector API ({@code jdk.incubator.vector}), which processes
+ * several elements at once using SIMD instructions. The latter is selected at
+ * startup when the {@code jdk.incubator.vector} module is present in the boot
+ * layer (e.g. when running with {@code --add-modules jdk.incubator.vector}) and
+ * the system property {@code jmath.simd} is not set to {@code false}.
+ * </p>
+ */
+abstract class DoubleKernels {
+
+	/**
+	 * Portable implementation which works everywhere.
+	 */
+	static final DoubleKernels SCALAR = new Scalar();
+
+	/**
+	 * The fastest implementation available in the running JVM.
+	 */
+	static final DoubleKernels PREFERRED = DoubleKernels.selectPreferred();
+
+	DoubleKernels() {
+	}
+
+	/**
+	 * Computes {@code out[outOffset + i] = a[aOffset + i] + b[bOffset + i]} for
+	 * all {@code i} in {@code [0; length)}.
+	 */
+	abstract void add(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset, int length);
+
+	/**
+	 * Computes {@code out[outOffset + i] = a[aOffset + i] - b[bOffset + i]} for
+	 * all {@code i} in {@code [0; length)}.
+	 */
+	abstract void subtract(double[] a, int aOffset, double[] b, int bOffset, double[] out, int outOffset,
+			int length);
+
+	/**
+	 * Computes {@code y[yOffset + i] += alpha * x[xOffset + i]} for all {@code i}
+	 * in {@code [0; length)}.
+	 */
+	abstract void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+	/**
+	 * Computes {@code y[yOffset + i] = fma(alpha, x[xOffset + i], y[yOffset + i])}
+	 * for all {@code i} in {@code [0; length)}.
+	 *
+	 * @see Math#fma(double, double, double)
+	 */
+	abstract void axpyFused(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+
+	/**
+	 * Computes sum of {@code a[aOffset + i] * b[bOffset + i]} for all {@code i}
+	 * in {@code [0; length)}.
+	 */
+	abstract double dot(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+	/**
+	 * Computes sum of {@code a[aOffset + i] * b[bOffset + i]} for all {@code i}
+	 * in {@code [0; length)} using fused multiply-add, so that every step is
+	 * rounded only once.
+	 *
+	 * @see Math#fma(double, double, double)
+	 */
+	abstract double dotFused(double[] a, int aOffset, double[] b, int bOffset, int length);
+
+	private static DoubleKernels selectPreferred() {
+		if (!Boolean.parseBoolean(System.getProperty("jmath.simd", "true")))
+			return SCALAR;
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty())
+			return SCALAR;
+		try {
+			// Loaded reflectively, so this class links even without the incubator module
+			return (DoubleKernels) Class.forName("jmath.VectorApiDoubleKernels")
+					.getDeclaredConstructor()
+					.newInstance();
+		} catch (final ReflectiveOperationException | LinkageError exc) {
+			return SCALAR;
+		}
+	}
+
+	private static final class Scalar extends DoubleKernels {
+
+		@Override
+		void add(final double[] a, final int aOffset, final double[] b, final int bOffset, final double[] out,
+				final int outOffset, final int length) {
+			for (int i = 0; i < length; i++)
+				out[outOffset + i] = a[aOffset + i] + b[bOffset + i];
+		}
+
+		@Override
+		void subtract(final double[] a, final int aOffset, final double[] b, final int bOffset, final double[] out,
+				final int outOffset, final int length) {
+			for (int i = 0; i < length; i++)
+				out[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+		}
+
+		@Override
+		void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset,
+				final int length) {
+			for (int i = 0; i < length; i++)
+				y[yOffset + i] += alpha * x[xOffset + i];
+		}
+
+		@Override
+		void axpyFused(final double alpha, final double[] x, final int xOffset, final double[] y,
+				final int yOffset, final int length) {
+			for (int i = 0; i < length; i++)
+				y[yOffset + i] = Math.fma(alpha, x[xOffset + i], y[yOffset + i]);
+		}
+
+		@Override
+		double dot(final double[] a, final int aOffset, final double[] b, final int bOffset, final int length) {
+			// Independent accumulators let the additions overlap in the pipeline
+			double sum0 = .0, sum1 = .0, sum2 = .0, sum3 = .0;
+			int i = 0;
+			for (; i + 3 < length; i += 4) {
+				sum0 += a[aOffset + i] * b[bOffset + i];
+				sum1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+				sum2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+				sum3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+			}
+			for (; i < length; i++)
+				sum0 += a[aOffset + i] * b[bOffset + i];
+			return (sum0 + sum1) + (sum2 + sum3);
+		}
+
+		@Override
+		double dotFused(final double[] a, final int aOffset, final double[] b, final int bOffset,
+				final int length) {
+			double sum0 = .0, sum1 = .0, sum2 = .0, sum3 = .0;
+			int i = 0;
+			for (; i + 3 < length; i += 4) {
+				sum0 = Math.fma(a[aOffset + i], b[bOffset + i], sum0);
+				sum1 = Math.fma(a[aOffset + i + 1], b[bOffset + i + 1], sum1);
+				sum2 = Math.fma(a[aOffset + i + 2], b[bOffset + i + 2], sum2);
+				sum3 = Math.fma(a[aOffset + i + 3], b[bOffset + i + 3], sum3);
+			}
+			for (; i < length; i++)
+				sum0 = Math.fma(a[aOffset + i], b[bOffset + i], sum0);
+			return (sum0 + sum1) + (sum2 + sum3);
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package jmath;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Arrays;
@@ -78,6 +83,15 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
         this.imag = imag0;
     }
 
+    /**
+     * Adopts given array of imaginary parts without copying it. The array must
+     * not be modified afterwards.
+     */
+    private Hypercomplex(final BigDecimal real, final BigDecimal[] imag, final boolean copy) {
+        this.real = real;
+        this.imag = copy ? Arrays.copyOf(imag, imag.length) : imag;
+    }
+
     /**
      * Constructs a hypercomplex number using given {@link Vector}.
      *
@@ -295,7 +309,7 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
      */
     public boolean isOctonion() {
         // 7 imaginary parts at maximum
-        return this.noImagPartFrom(8);
+        return this.noImagPartFrom(7);
     }
 
     /**
@@ -399,7 +413,44 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
     }
 
     /**
-     * Returns the {@code n}-th root of the complex number.
+     * Multiplies this hypercomplex number by another hypercomplex number using
+     * the Cayley&ndash;Dickson construction. Product of quaternions and
+     * octonions is not commutative, {@code this} is the left operand. Every
+     * component of the product is computed exactly and rounded only once.
+     *
+     * @param multiplicand the right operand
+     * @param mc           the {@link MathContext} instance
+     * @return {@code this * multiplicand}
+     */
+    public Hypercomplex multiply(final Hypercomplex multiplicand, final MathContext mc) {
+        final int dimension;
+        if (this.isComplexNumber() && multiplicand.isComplexNumber())
+            dimension = 2;
+        else if (this.isQuaternion() && multiplicand.isQuaternion())
+            dimension = 4;
+        else if (this.isOctonion() && multiplicand.isOctonion())
+            dimension = 8;
+        else
+            dimension = CayleyDickson.dimension(1 + max(this.imag.length, multiplicand.imag.length));
+
+        final byte[] signs = CayleyDickson.signs(dimension);
+        final BigDecimal[] product = new BigDecimal[dimension];
+        for (int r = 0; r < dimension; r++) {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int p = 0; p < dimension; p++) {
+                final int q = p ^ r;
+                final BigDecimal term = this.component(p).multiply(multiplicand.component(q));
+                sum = signs[p * dimension + q] > 0 ? sum.add(term) : sum.subtract(term);
+            }
+            product[r] = sum.round(mc);
+        }
+        return new Hypercomplex(product[0], Arrays.copyOfRange(product, 1, dimension));
+    }
+
+    /**
+     * Returns the principal {@code n}-th root of the complex number. All
+     * intermediate values including the angle are computed with full precision
+     * of given {@link MathContext}.
      *
      * @param n  the grade of root
      * @param mc the {@link MathContext} instance
@@ -413,11 +464,14 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
         if (!this.isComplexNumber())
             throw new IllegalArgumentException("Cannot compute root of non-complex number");
 
-        final double newAngle = Math.atan(this.imag[0].divide(this.real, mc).doubleValue()) / n;
-        final BigDecimal newMagnitude = MathUtilities.realRoot(this.magnitude(mc), n, mc);
+        // Principal root: the angle is divided by n
+        final MathContext work = new MathContext(mc.getPrecision() + 5, mc.getRoundingMode());
+        final BigDecimal newAngle = MathUtilities.atan2(this.getImaginaryPart(0), this.real, work)
+                .divide(BigDecimal.valueOf(n), work);
+        final BigDecimal newMagnitude = MathUtilities.realRoot(this.magnitude(work), n, work);
 
-        final BigDecimal re = BigDecimal.valueOf(Math.cos(newAngle)).multiply(newMagnitude, mc);
-        final BigDecimal im = BigDecimal.valueOf(Math.sin(newAngle)).multiply(newMagnitude, mc);
+        final BigDecimal re = MathUtilities.cos(newAngle, work).multiply(newMagnitude, mc);
+        final BigDecimal im = MathUtilities.sin(newAngle, work).multiply(newMagnitude, mc);
 
         return new Hypercomplex(re, im);
     }
@@ -454,6 +508,14 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
         return this.root(3, mc);
     }
 
+    /**
+     * Returns the real part for {@code index} 0, otherwise the imaginary part
+     * {@code index - 1}.
+     */
+    private BigDecimal component(final int index) {
+        return index == 0 ? this.real : this.getImaginaryPart(index - 1);
+    }
+
     private boolean noImagPartFrom(final int startIndex) {
         for (int i = startIndex; i < this.imag.length; i++)
             if (this.imag[i].compareTo(BigDecimal.ZERO) != 0)
@@ -461,6 +523,43 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
         return true;
     }
 
+    /**
+     * Replaces this number by its compact serialized form.
+     */
+    private Object writeReplace() {
+        return new Ser(Ser.HYPERCOMPLEX, this);
+    }
+
+    /**
+     * Validates a number written in the default serialized form.
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (this.real == null || this.imag == null || Arrays.asList(this.imag).contains(null))
+            throw new InvalidObjectException("Invalid parts of the number");
+    }
+
+    private Object readResolve() {
+        // Copies the imaginary parts, so the stream keeps no reference to them
+        return new Hypercomplex(this.real, this.imag, true);
+    }
+
+    /**
+     * Writes count of imaginary parts and all parts.
+     */
+    void writeExternal(final DataOutput out) throws IOException {
+        Ser.writeSize(out, this.imag.length);
+        Ser.writeDecimal(out, this.real);
+        for (final BigDecimal part : this.imag)
+            Ser.writeDecimal(out, part);
+    }
+
+    static Hypercomplex readExternal(final DataInput in) throws IOException {
+        final int parts = Ser.readSize(in);
+        final BigDecimal real = Ser.readDecimal(in);
+        return new Hypercomplex(real, Ser.readDecimals(in, parts), false);
+    }
+
     /**
      * <p>
      * Represents a hypercomplex number. A hypercomplex number is a non-real number
@@ -527,6 +626,15 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
             this.imag = Arrays.copyOf(imag, imag.length);
         }
 
+        /**
+         * Adopts given array of imaginary parts without copying it. The array must
+         * not be modified afterwards.
+         */
+        private Double(final double real, final double[] imag, final boolean copy) {
+            this.real = real;
+            this.imag = copy ? Arrays.copyOf(imag, imag.length) : imag;
+        }
+
         /**
          * Constructs a hypercomplex number using given {@link Vector.Double}.
          *
@@ -737,7 +845,7 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
          */
         public boolean isOctonion() {
             // 7 imaginary parts at maximum
-            return this.noImagPartFrom(8);
+            return this.noImagPartFrom(7);
         }
 
         /**
@@ -769,14 +877,14 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
         }
 
         // TODO Javadoc
-        public strictfp double magnitude() {
+        public double magnitude() {
             double s = this.real * this.real;
             for (final double v : this.imag) s += v * v;
             return Math.sqrt(s);
         }
 
         // TODO Javadoc
-        public strictfp Hypercomplex.Double conjugate() {
+        public Hypercomplex.Double conjugate() {
             final double[] im = new double[this.imag.length];
             for (int i = 0; i < im.length; i++)
                 im[i] = -this.imag[i];
@@ -789,7 +897,7 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
          * @param augend the other hypercomplex to be added
          * @return {@code this + augend}
          */
-        public strictfp Hypercomplex.Double add(final Hypercomplex.Double augend) {
+        public Hypercomplex.Double add(final Hypercomplex.Double augend) {
             final int imagcount = max(this.imag.length, augend.imag.length);
 
             final double real = this.real + augend.real;
@@ -805,7 +913,7 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
          * @param subtrahend the other hypercomplex to be subtracted
          * @return {@code this - subtrahend}
          */
-        public strictfp Hypercomplex.Double subtract(final Hypercomplex.Double subtrahend) {
+        public Hypercomplex.Double subtract(final Hypercomplex.Double subtrahend) {
             final int imagcount = max(this.imag.length, subtrahend.imag.length);
 
             final double real = this.real - subtrahend.real;
@@ -815,6 +923,87 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
             return new Hypercomplex.Double(real, imag);
         }
 
+        /**
+         * Multiplies this hypercomplex number by another hypercomplex number using
+         * the Cayley&ndash;Dickson construction. Product of quaternions and
+         * octonions is not commutative, {@code this} is the left operand. Complex
+         * numbers, quaternions and octonions are multiplied by unrolled formulas,
+         * only numbers of higher dimensions use the general algorithm.
+         *
+         * @param multiplicand the right operand
+         * @return {@code this * multiplicand}
+         *
+         * @see #isComplexNumber()
+         * @see #isQuaternion()
+         * @see #isOctonion()
+         */
+        public Hypercomplex.Double multiply(final Hypercomplex.Double multiplicand) {
+            if (this.isComplexNumber() && multiplicand.isComplexNumber())
+                return this.multiplyComplex(multiplicand);
+            if (this.isQuaternion() && multiplicand.isQuaternion())
+                return this.multiplyQuaternion(multiplicand);
+            if (this.isOctonion() && multiplicand.isOctonion())
+                return this.multiplyOctonion(multiplicand);
+
+            final int dimension = CayleyDickson.dimension(1 + max(this.imag.length, multiplicand.imag.length));
+            final byte[] signs = CayleyDickson.signs(dimension);
+            final double[] product = new double[dimension];
+            for (int p = 0; p < dimension; p++) {
+                final double x = p == 0 ? this.real : this.getImaginaryPart(p - 1);
+                if (x == 0)
+                    continue;
+                for (int q = 0; q < dimension; q++) {
+                    final double y = q == 0 ? multiplicand.real : multiplicand.getImaginaryPart(q - 1);
+                    product[p ^ q] += signs[p * dimension + q] * x * y;
+                }
+            }
+            return new Hypercomplex.Double(product[0], Arrays.copyOfRange(product, 1, dimension), false);
+        }
+
+        private Hypercomplex.Double multiplyComplex(final Hypercomplex.Double y) {
+            final double x0 = this.real, x1 = this.getImaginaryPart(0);
+            final double y0 = y.real, y1 = y.getImaginaryPart(0);
+            return new Hypercomplex.Double(
+                    x0 * y0 - x1 * y1,
+                    new double[] {
+                        x0 * y1 + x1 * y0
+                    }, false);
+        }
+
+        private Hypercomplex.Double multiplyQuaternion(final Hypercomplex.Double y) {
+            final double x0 = this.real, x1 = this.getImaginaryPart(0), x2 = this.getImaginaryPart(1),
+                    x3 = this.getImaginaryPart(2);
+            final double y0 = y.real, y1 = y.getImaginaryPart(0), y2 = y.getImaginaryPart(1),
+                    y3 = y.getImaginaryPart(2);
+            return new Hypercomplex.Double(
+                    x0 * y0 - x1 * y1 - x2 * y2 - x3 * y3,
+                    new double[] {
+                        x0 * y1 + x1 * y0 + x2 * y3 - x3 * y2,
+                        x0 * y2 - x1 * y3 + x2 * y0 + x3 * y1,
+                        x0 * y3 + x1 * y2 - x2 * y1 + x3 * y0
+                    }, false);
+        }
+
+        private Hypercomplex.Double multiplyOctonion(final Hypercomplex.Double y) {
+            final double x0 = this.real, x1 = this.getImaginaryPart(0), x2 = this.getImaginaryPart(1),
+                    x3 = this.getImaginaryPart(2), x4 = this.getImaginaryPart(3), x5 = this.getImaginaryPart(4),
+                    x6 = this.getImaginaryPart(5), x7 = this.getImaginaryPart(6);
+            final double y0 = y.real, y1 = y.getImaginaryPart(0), y2 = y.getImaginaryPart(1),
+                    y3 = y.getImaginaryPart(2), y4 = y.getImaginaryPart(3), y5 = y.getImaginaryPart(4),
+                    y6 = y.getImaginaryPart(5), y7 = y.getImaginaryPart(6);
+            return new Hypercomplex.Double(
+                    x0 * y0 - x1 * y1 - x2 * y2 - x3 * y3 - x4 * y4 - x5 * y5 - x6 * y6 - x7 * y7,
+                    new double[] {
+                        x0 * y1 + x1 * y0 + x2 * y3 - x3 * y2 + x4 * y5 - x5 * y4 - x6 * y7 + x7 * y6,
+                        x0 * y2 - x1 * y3 + x2 * y0 + x3 * y1 + x4 * y6 + x5 * y7 - x6 * y4 - x7 * y5,
+                        x0 * y3 + x1 * y2 - x2 * y1 + x3 * y0 + x4 * y7 - x5 * y6 + x6 * y5 - x7 * y4,
+                        x0 * y4 - x1 * y5 - x2 * y6 - x3 * y7 + x4 * y0 + x5 * y1 + x6 * y2 + x7 * y3,
+                        x0 * y5 + x1 * y4 - x2 * y7 + x3 * y6 - x4 * y1 + x5 * y0 - x6 * y3 + x7 * y2,
+                        x0 * y6 + x1 * y7 + x2 * y4 - x3 * y5 - x4 * y2 + x5 * y3 + x6 * y0 - x7 * y1,
+                        x0 * y7 - x1 * y6 + x2 * y5 + x3 * y4 - x4 * y3 - x5 * y2 + x6 * y1 + x7 * y0
+                    }, false);
+        }
+
         /**
          * Returns the {@code n}-th root of the complex number
          *
@@ -825,11 +1014,11 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
          *
          * @see #isComplexNumber()
          */
-        public strictfp Hypercomplex.Double root(final int n) {
+        public Hypercomplex.Double root(final int n) {
             if (!this.isComplexNumber())
                 throw new IllegalStateException("Cannot compute root of non-complex number");
 
-            final double newAngle = Math.atan(this.imag[0] / this.real);
+            final double newAngle = Math.atan2(this.getImaginaryPart(0), this.real) / n;
             final double newMagnitude = MathUtilities.realRoot(this.magnitude(), n);
 
             final double re = Math.cos(newAngle) * newMagnitude;
@@ -874,5 +1063,41 @@ public final class Hypercomplex implements Cloneable, Comparable<Hypercomplex>,
                     return false;
             return true;
         }
+
+        /**
+         * Replaces this number by its compact serialized form.
+         */
+        private Object writeReplace() {
+            return new Ser(Ser.HYPERCOMPLEX_DOUBLE, this);
+        }
+
+        /**
+         * Validates a number written in the default serialized form.
+         */
+        private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+            in.defaultReadObject();
+            if (this.imag == null)
+                throw new InvalidObjectException("Invalid parts of the number");
+        }
+
+        private Object readResolve() {
+            // Copies the imaginary parts, so the stream keeps no reference to them
+            return new Hypercomplex.Double(this.real, this.imag, true);
+        }
+
+        /**
+         * Writes count of imaginary parts and all parts.
+         */
+        void writeExternal(final DataOutput out) throws IOException {
+            Ser.writeSize(out, this.imag.length);
+            out.writeDouble(this.real);
+            Ser.writeDoubles(out, this.imag, 0, this.imag.length);
+        }
+
+        static Hypercomplex.Double readExternal(final DataInput in) throws IOException {
+            final int parts = Ser.readSize(in);
+            final double real = in.readDouble();
+            return new Hypercomplex.Double(real, Ser.readDoubles(in, parts), false);
+        }
     }
 }
@@ -0,0 +1,424 @@
+package jmath;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Array of hypercomplex numbers of {@code double}s with the same count of
+ * components, e.g. an array of quaternions. Numbers are stored as a structure
+ * of arrays: every component (the real part and every imaginary part) has its
+ * own {@code double[]}. Bulk operations over a range of indices therefore run
+ * over plain arrays without allocating any objects per element, and the JIT
+ * compiler is able to vectorize them.
+ * </p>
+ * <p>
+ * Multiplication follows the Cayley&ndash;Dickson construction used by
+ * {@link Hypercomplex.Double}, so the dimension (count of components including
+ * the real part) must be a power of two: 1 (real numbers), 2 (complex numbers),
+ * 4 (quaternions), 8 (octonions) and so on.
+ * </p>
+ * <p>
+ * All bulk operations store the result into a {@code target} array, which may
+ * be one of the operands. Instances are not thread-safe.
+ * </p>
+ *
+ * @see Hypercomplex.Double
+ */
+public final class HypercomplexArray implements MathEntity {
+
+	private static final long serialVersionUID = 0x0100L;
+
+	/**
+	 * Count of elements multiplied at once by the general multiplication
+	 * algorithm.
+	 */
+	private static final int CHUNK = 256;
+
+	/**
+	 * Component <var>c</var> of element <var>i</var> is stored at
+	 * {@code components[c][i]}.
+	 */
+	private final double[][] components;
+	private final int length;
+
+	/**
+	 * Creates an array of zeros.
+	 *
+	 * @param dimension count of components of every number including the real
+	 *                  part
+	 * @param length    count of numbers
+	 * @throws IllegalArgumentException if {@code dimension} is not a positive
+	 *                                  power of two or if {@code length} is
+	 *                                  negative
+	 */
+	public HypercomplexArray(final int dimension, final int length) {
+		if (dimension <= 0 || Integer.bitCount(dimension) != 1)
+			throw new IllegalArgumentException("Dimension must be a power of two");
+		if (length < 0)
+			throw new IllegalArgumentException("Length must not be negative");
+		this.components = new double[dimension][length];
+		this.length = length;
+	}
+
+	/**
+	 * Creates an array containing given numbers. Dimension of the array is the
+	 * smallest power of two such that all numbers fit into it.
+	 *
+	 * @param numbers the numbers
+	 * @throws NullPointerException if {@code numbers} or any of the numbers is
+	 *                              {@code null}
+	 */
+	public HypercomplexArray(final Hypercomplex.Double... numbers) {
+		int units = 1;
+		for (final Hypercomplex.Double number : numbers)
+			units = Math.max(units, 1 + number.getImaginaryPartsCount());
+		this.components = new double[CayleyDickson.dimension(units)][numbers.length];
+		this.length = numbers.length;
+		for (int i = 0; i < numbers.length; i++)
+			this.set(i, numbers[i]);
+	}
+
+	/**
+	 * Returns count of numbers in the array.
+	 *
+	 * @return count of numbers
+	 */
+	public int length() {
+		return this.length;
+	}
+
+	/**
+	 * Returns count of components of every number including the real part.
+	 *
+	 * @return count of components
+	 */
+	public int dimension() {
+		return this.components.length;
+	}
+
+	/**
+	 * Gets a component of a number.
+	 *
+	 * @param index     index of the number
+	 * @param component index of the component; 0 is the real part and
+	 *                  <var>n</var> is the <var>n</var><sup>th</sup> imaginary
+	 *                  part
+	 * @return the component
+	 * @throws IndexOutOfBoundsException if {@code index} or {@code component} is
+	 *                                   out of bounds
+	 */
+	public double get(final int index, final int component) {
+		Objects.checkIndex(index, this.length);
+		return this.components[component][index];
+	}
+
+	/**
+	 * Sets a component of a number.
+	 *
+	 * @param index     index of the number
+	 * @param component index of the component; 0 is the real part and
+	 *                  <var>n</var> is the <var>n</var><sup>th</sup> imaginary
+	 *                  part
+	 * @param value     the new value
+	 * @throws IndexOutOfBoundsException if {@code index} or {@code component} is
+	 *                                   out of bounds
+	 */
+	public void set(final int index, final int component, final double value) {
+		Objects.checkIndex(index, this.length);
+		this.components[component][index] = value;
+	}
+
+	/**
+	 * Gets a number as a {@link Hypercomplex.Double}.
+	 *
+	 * @param index index of the number
+	 * @return the number
+	 * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+	 */
+	public Hypercomplex.Double get(final int index) {
+		Objects.checkIndex(index, this.length);
+		final double[] imag = new double[this.components.length - 1];
+		for (int c = 0; c < imag.length; c++)
+			imag[c] = this.components[c + 1][index];
+		return new Hypercomplex.Double(this.components[0][index], imag);
+	}
+
+	/**
+	 * Sets a number.
+	 *
+	 * @param index  index of the number
+	 * @param number the new value
+	 * @throws IndexOutOfBoundsException if {@code index} is out of bounds
+	 * @throws IllegalArgumentException  if the number has a non-zero imaginary
+	 *                                   part which does not fit into the array
+	 */
+	public void set(final int index, final Hypercomplex.Double number) {
+		Objects.checkIndex(index, this.length);
+		for (int c = this.components.length - 1; c < number.getImaginaryPartsCount(); c++)
+			if (number.getImaginaryPart(c) != 0)
+				throw new IllegalArgumentException("Number does not fit into the array");
+		this.components[0][index] = number.getRealPart();
+		for (int c = 1; c < this.components.length; c++)
+			this.components[c][index] = number.getImaginaryPart(c - 1);
+	}
+
+	/**
+	 * Stores sums of numbers of this and of the other array at indices
+	 * [{@code from}; {@code to}) into {@code target}.
+	 *
+	 * @param augend the other array
+	 * @param target the array to store the sums to
+	 * @param from   the first index, inclusive
+	 * @param to     the last index, exclusive
+	 * @throws IllegalArgumentException  if dimensions of the arrays differ
+	 * @throws IndexOutOfBoundsException if the range is out of bounds of any
+	 *                                   array
+	 */
+	public void add(final HypercomplexArray augend, final HypercomplexArray target, final int from,
+			final int to) {
+		this.checkOperands(augend, target, from, to);
+		for (int c = 0; c < this.components.length; c++)
+			DoubleKernels.PREFERRED.add(this.components[c], from, augend.components[c], from,
+					target.components[c], from, to - from);
+	}
+
+	/**
+	 * Stores differences of numbers of this and of the other array at indices
+	 * [{@code from}; {@code to}) into {@code target}.
+	 *
+	 * @param subtrahend the other array
+	 * @param target     the array to store the differences to
+	 * @param from       the first index, inclusive
+	 * @param to         the last index, exclusive
+	 * @throws IllegalArgumentException  if dimensions of the arrays differ
+	 * @throws IndexOutOfBoundsException if the range is out of bounds of any
+	 *                                   array
+	 */
+	public void subtract(final HypercomplexArray subtrahend, final HypercomplexArray target, final int from,
+			final int to) {
+		this.checkOperands(subtrahend, target, from, to);
+		for (int c = 0; c < this.components.length; c++)
+			DoubleKernels.PREFERRED.subtract(this.components[c], from, subtrahend.components[c], from,
+					target.components[c], from, to - from);
+	}
+
+	/**
+	 * Stores conjugates of numbers at indices [{@code from}; {@code to}) into
+	 * {@code target}.
+	 *
+	 * @param target the array to store the conjugates to
+	 * @param from   the first index, inclusive
+	 * @param to     the last index, exclusive
+	 * @throws IllegalArgumentException  if dimensions of the arrays differ
+	 * @throws IndexOutOfBoundsException if the range is out of bounds of any
+	 *                                   array
+	 */
+	public void conjugate(final HypercomplexArray target, final int from, final int to) {
+		this.checkOperands(this, target, from, to);
+		if (target != this)
+			System.arraycopy(this.components[0], from, target.components[0], from, to - from);
+		for (int c = 1; c < this.components.length; c++) {
+			final double[] source = this.components[c];
+			final double[] result = target.components[c];
+			for (int i = from; i < to; i++)
+				result[i] = -source[i];
+		}
+	}
+
+	/**
+	 * Stores magnitudes of numbers at indices [{@code from}; {@code to}) into
+	 * the same indices of {@code target}.
+	 *
+	 * @param target the array to store the magnitudes to
+	 * @param from   the first index, inclusive
+	 * @param to     the last index, exclusive
+	 * @throws IndexOutOfBoundsException if the range is out of bounds of this
+	 *                                   array or of {@code target}
+	 */
+	public void magnitude(final double[] target, final int from, final int to) {
+		Objects.checkFromToIndex(from, to, this.length);
+		Objects.checkFromToIndex(from, to, target.length);
+		final double[] real = this.components[0];
+		for (int i = from; i < to; i++)
+			target[i] = real[i] * real[i];
+		for (int c = 1; c < this.components.length; c++) {
+			final double[] source = this.components[c];
+			for (int i = from; i < to; i++)
+				target[i] += source[i] * source[i];
+		}
+		for (int i = from; i < to; i++)
+			target[i] = Math.sqrt(target[i]);
+	}
+
+	/**
+	 * Stores products of numbers of this and of the other array at indices
+	 * [{@code from}; {@code to}) into {@code target}. Numbers of this array are
+	 * the left operands. Complex numbers and quaternions are multiplied by
+	 * specialized loops, numbers of higher dimensions are multiplied in chunks
+	 * unit by unit.
+	 *
+	 * @param multiplicand the other array
+	 * @param target       the array to store the products to
+	 * @param from         the first index, inclusive
+	 * @param to           the last index, exclusive
+	 * @throws IllegalArgumentException  if dimensions of the arrays differ
+	 * @throws IndexOutOfBoundsException if the range is out of bounds of any
+	 *                                   array
+	 */
+	public void multiply(final HypercomplexArray multiplicand, final HypercomplexArray target,
+			final int from, final int to) {
+		this.checkOperands(multiplicand, target, from, to);
+		final double[][] a = this.components;
+		final double[][] b = multiplicand.components;
+		final double[][] c = target.components;
+		switch (a.length) {
+			case 1:
+				for (int i = from; i < to; i++)
+					c[0][i] = a[0][i] * b[0][i];
+				break;
+			case 2:
+				HypercomplexArray.multiplyComplex(a, b, c, from, to);
+				break;
+			case 4:
+				HypercomplexArray.multiplyQuaternions(a, b, c, from, to);
+				break;
+			default:
+				HypercomplexArray.multiplyGeneral(a, b, c, from, to);
+		}
+	}
+
+	/**
+	 * Same as {@link #add(HypercomplexArray, HypercomplexArray, int, int)} over
+	 * all numbers.
+	 */
+	public void add(final HypercomplexArray augend, final HypercomplexArray target) {
+		this.add(augend, target, 0, this.length);
+	}
+
+	/**
+	 * Same as {@link #subtract(HypercomplexArray, HypercomplexArray, int, int)}
+	 * over all numbers.
+	 */
+	public void subtract(final HypercomplexArray subtrahend, final HypercomplexArray target) {
+		this.subtract(subtrahend, target, 0, this.length);
+	}
+
+	/**
+	 * Same as {@link #multiply(HypercomplexArray, HypercomplexArray, int, int)}
+	 * over all numbers.
+	 */
+	public void multiply(final HypercomplexArray multiplicand, final HypercomplexArray target) {
+		this.multiply(multiplicand, target, 0, this.length);
+	}
+
+	/**
+	 * Same as {@link #conjugate(HypercomplexArray, int, int)} over all numbers.
+	 */
+	public void conjugate(final HypercomplexArray target) {
+		this.conjugate(target, 0, this.length);
+	}
+
+	/**
+	 * Same as {@link #magnitude(double[], int, int)} over all numbers.
+	 */
+	public void magnitude(final double[] target) {
+		this.magnitude(target, 0, this.length);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < this.length; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(this.get(i));
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	@Override
+	public String toLaTeX() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("\\left( ");
+		for (int i = 0; i < this.length; i++) {
+			if (i > 0)
+				sb.append(", ");
+			sb.append(this.get(i).toLaTeX());
+		}
+		sb.append(" \\right)");
+		return sb.toString();
+	}
+
+	private static void multiplyComplex(final double[][] a, final double[][] b, final double[][] c, final int from,
+			final int to) {
+		final double[] a0 = a[0], a1 = a[1];
+		final double[] b0 = b[0], b1 = b[1];
+		final double[] c0 = c[0], c1 = c[1];
+		for (int i = from; i < to; i++) {
+			final double x0 = a0[i], x1 = a1[i];
+			final double y0 = b0[i], y1 = b1[i];
+			c0[i] = x0 * y0 - x1 * y1;
+			c1[i] = x0 * y1 + x1 * y0;
+		}
+	}
+
+	private static void multiplyQuaternions(final double[][] a, final double[][] b, final double[][] c,
+			final int from, final int to) {
+		final double[] a0 = a[0], a1 = a[1], a2 = a[2], a3 = a[3];
+		final double[] b0 = b[0], b1 = b[1], b2 = b[2], b3 = b[3];
+		final double[] c0 = c[0], c1 = c[1], c2 = c[2], c3 = c[3];
+		for (int i = from; i < to; i++) {
+			final double x0 = a0[i], x1 = a1[i], x2 = a2[i], x3 = a3[i];
+			final double y0 = b0[i], y1 = b1[i], y2 = b2[i], y3 = b3[i];
+			c0[i] = x0 * y0 - x1 * y1 - x2 * y2 - x3 * y3;
+			c1[i] = x0 * y1 + x1 * y0 + x2 * y3 - x3 * y2;
+			c2[i] = x0 * y2 - x1 * y3 + x2 * y0 + x3 * y1;
+			c3[i] = x0 * y3 + x1 * y2 - x2 * y1 + x3 * y0;
+		}
+	}
+
+	/**
+	 * Multiplies numbers of any dimension. Every pair of units contributes to
+	 * exactly one unit of the product, so the products are accumulated pair by
+	 * pair over a chunk of elements, which keeps the inner loop vectorizable.
+	 */
+	private static void multiplyGeneral(final double[][] a, final double[][] b, final double[][] c, final int from,
+			final int to) {
+		final int dimension = a.length;
+		final byte[] signs = CayleyDickson.signs(dimension);
+
+		// Products are accumulated separately, as the target may be an operand
+		final double[][] sums = new double[dimension][CHUNK];
+		for (int start = from; start < to; start += CHUNK) {
+			final int count = Math.min(CHUNK, to - start);
+			for (final double[] sum : sums)
+				Arrays.fill(sum, 0, count, .0);
+			for (int p = 0; p < dimension; p++)
+				for (int q = 0; q < dimension; q++) {
+					final double[] x = a[p];
+					final double[] y = b[q];
+					final double[] sum = sums[p ^ q];
+					if (signs[p * dimension + q] > 0)
+						for (int i = 0; i < count; i++)
+							sum[i] += x[start + i] * y[start + i];
+					else
+						for (int i = 0; i < count; i++)
+							sum[i] -= x[start + i] * y[start + i];
+				}
+			for (int u = 0; u < dimension; u++)
+				System.arraycopy(sums[u], 0, c[u], start, count);
+		}
+	}
+
+	private void checkOperands(final HypercomplexArray other, final HypercomplexArray target, final int from,
+			final int to) {
+		if (other.components.length != this.components.length || target.components.length != this.components.length)
+			throw new IllegalArgumentException("Different dimensions");
+		Objects.checkFromToIndex(from, to, this.length);
+		Objects.checkFromToIndex(from, to, other.length);
+		Objects.checkFromToIndex(from, to, target.length);
+	}
+}
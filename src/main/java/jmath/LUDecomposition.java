@@ -0,0 +1,488 @@
+package jmath;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * <p>
+ * LU decomposition of a square matrix of {@link BigDecimal}s. Once computed,
+ * the decomposition can be used to get the determinant, to solve linear
+ * systems with any number of right-hand sides and to invert the matrix.
+ * </p>
+ * <p>
+ * The decomposition is computed using the fraction-free Bareiss algorithm:
+ * every intermediate value is a determinant of a submatrix of the original
+ * matrix, so there are no intermediate fractions whose errors would
+ * accumulate. Every intermediate value is rounded only once using given
+ * {@link MathContext}; with {@link MathContext#UNLIMITED} the decomposition is
+ * exact. The result is the fraction-free factorization
+ * <var>P</var><var>A</var> = <var>L</var><var>D</var><sup>-1</sup><var>U</var>.
+ * </p>
+ *
+ * @see Matrix#lu(MathContext)
+ * @see LUDecomposition.Double
+ */
+public final class LUDecomposition implements Solver {
+
+	private final BigDecimal[][] lu;
+	private final int[] permutation;
+	private final int sign;
+	private final boolean singular;
+	private final MathContext mc;
+
+	/**
+	 * Computes LU decomposition of given square matrix.
+	 *
+	 * @param matrix the matrix to decompose
+	 * @param mc     the {@link MathContext} used for rounding
+	 * @throws NullPointerException  if {@code matrix} or {@code mc} is
+	 *                               {@code null}
+	 * @throws IllegalStateException if the matrix is not a square matrix
+	 */
+	public LUDecomposition(final Matrix matrix, final MathContext mc) {
+		Objects.requireNonNull(matrix, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (!matrix.isSquareMatrix())
+			throw new IllegalStateException("Matrix is not a square matrix");
+
+		final int n = matrix.rows();
+		final BigDecimal[][] a = new BigDecimal[n][n];
+		for (int row = 0; row < n; row++)
+			for (int col = 0; col < n; col++)
+				a[row][col] = matrix.get(row, col);
+
+		final int[] permutation = new int[n];
+		for (int i = 0; i < n; i++)
+			permutation[i] = i;
+
+		int sign = 1;
+		boolean singular = false;
+		BigDecimal previous = BigDecimal.ONE;
+		for (int k = 0; k < n; k++) {
+			// Largest pivot keeps rounding errors low when mc is not exact
+			int pivot = -1;
+			for (int i = k; i < n; i++)
+				if (a[i][k].signum() != 0 && (pivot < 0 || a[i][k].abs().compareTo(a[pivot][k].abs()) > 0))
+					pivot = i;
+			if (pivot < 0) {
+				singular = true;
+				break;
+			}
+			if (pivot != k) {
+				final BigDecimal[] row = a[pivot];
+				a[pivot] = a[k];
+				a[k] = row;
+				final int index = permutation[pivot];
+				permutation[pivot] = permutation[k];
+				permutation[k] = index;
+				sign = -sign;
+			}
+			for (int i = k + 1; i < n; i++)
+				for (int j = k + 1; j < n; j++)
+					a[i][j] = a[k][k].multiply(a[i][j])
+							.subtract(a[i][k].multiply(a[k][j]))
+							.divide(previous, mc);
+			previous = a[k][k];
+		}
+
+		this.lu = a;
+		this.permutation = permutation;
+		this.sign = sign;
+		this.singular = singular;
+		this.mc = mc;
+	}
+
+	/**
+	 * Returns the {@link MathContext} used to compute the decomposition.
+	 *
+	 * @return the {@link MathContext} used for rounding
+	 */
+	public MathContext getMathContext() {
+		return this.mc;
+	}
+
+	/**
+	 * Returns if the decomposed matrix is singular, i.e. if its determinant is
+	 * zero.
+	 *
+	 * @return if the matrix is singular
+	 */
+	public boolean isSingular() {
+		return this.singular;
+	}
+
+	/**
+	 * Returns determinant of the decomposed matrix.
+	 *
+	 * @return det <var>A</var>
+	 */
+	public BigDecimal determinant() {
+		if (this.singular)
+			return BigDecimal.ZERO;
+		final BigDecimal det = this.lu[this.lu.length - 1][this.lu.length - 1].round(this.mc);
+		return this.sign < 0 ? det.negate() : det;
+	}
+
+	/**
+	 * Solves linear system <var>A</var><var>x</var> = <var>b</var>.
+	 *
+	 * @param b the right-hand side
+	 * @return the solution <var>x</var>
+	 * @throws IllegalArgumentException if size of {@code b} is not equal to size
+	 *                                  of the matrix
+	 * @throws ArithmeticException      if the matrix is singular or if the
+	 *                                  result cannot be represented exactly
+	 *                                  using {@link MathContext#UNLIMITED}
+	 */
+	@Override
+	public Vector solve(final Vector b) {
+		final int n = this.lu.length;
+		if (b.size() != n)
+			throw new IllegalArgumentException("Vector size does not match the matrix size");
+		final BigDecimal[][] x = new BigDecimal[n][1];
+		for (int i = 0; i < n; i++)
+			x[i][0] = b.get(this.permutation[i]);
+		this.solveInPlace(x);
+		final BigDecimal[] result = new BigDecimal[n];
+		for (int i = 0; i < n; i++)
+			result[i] = x[i][0];
+		return new Vector(result);
+	}
+
+	/**
+	 * Solves linear system <var>A</var><var>X</var> = <var>B</var> for all
+	 * columns of <var>B</var> at once.
+	 *
+	 * @param b the right-hand sides, one per column
+	 * @return the solution <var>X</var>
+	 * @throws IllegalArgumentException if count of rows of {@code b} is not
+	 *                                  equal to size of the matrix
+	 * @throws ArithmeticException      if the matrix is singular or if the
+	 *                                  result cannot be represented exactly
+	 *                                  using {@link MathContext#UNLIMITED}
+	 */
+	@Override
+	public Matrix solve(final Matrix b) {
+		final int n = this.lu.length;
+		if (b.rows() != n)
+			throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+		final BigDecimal[][] x = new BigDecimal[n][b.columns()];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < b.columns(); j++)
+				x[i][j] = b.get(this.permutation[i], j);
+		this.solveInPlace(x);
+		return new Matrix(x);
+	}
+
+	/**
+	 * Computes inverse of the decomposed matrix.
+	 *
+	 * @return <var>A</var><sup>-1</sup>
+	 * @throws ArithmeticException if the matrix is singular or if the result
+	 *                             cannot be represented exactly using
+	 *                             {@link MathContext#UNLIMITED}
+	 */
+	public Matrix inverse() {
+		final int n = this.lu.length;
+		final BigDecimal[][] x = new BigDecimal[n][n];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < n; j++)
+				x[i][j] = this.permutation[i] == j ? BigDecimal.ONE : BigDecimal.ZERO;
+		this.solveInPlace(x);
+		return new Matrix(x);
+	}
+
+	/**
+	 * Solves <var>A</var><var>X</var> = <var>B</var>, where <var>B</var> is
+	 * already permuted. The right-hand sides are eliminated by the same
+	 * fraction-free steps as the matrix and the back substitution computes
+	 * det <var>A</var> &middot; <var>X</var>, whose elements are determinants
+	 * by Cramer's rule. Every division but the last one is therefore exact, so
+	 * with {@link MathContext#UNLIMITED} only a solution which cannot be
+	 * represented exactly fails.
+	 */
+	private void solveInPlace(final BigDecimal[][] x) {
+		if (this.singular)
+			throw new ArithmeticException("Matrix is singular");
+		final BigDecimal[][] a = this.lu;
+		final int n = a.length;
+		final int m = x[0].length;
+
+		BigDecimal previous = BigDecimal.ONE;
+		for (int k = 0; k < n - 1; k++) {
+			for (int i = k + 1; i < n; i++)
+				for (int j = 0; j < m; j++)
+					x[i][j] = a[k][k].multiply(x[i][j])
+							.subtract(a[i][k].multiply(x[k][j]))
+							.divide(previous, this.mc);
+			previous = a[k][k];
+		}
+
+		final BigDecimal det = a[n - 1][n - 1];
+		for (int i = n - 1; i >= 0; i--)
+			for (int j = 0; j < m; j++) {
+				BigDecimal sum = det.multiply(x[i][j]);
+				for (int k = i + 1; k < n; k++)
+					sum = sum.subtract(a[i][k].multiply(x[k][j]));
+				x[i][j] = sum.divide(a[i][i], this.mc);
+			}
+		for (final BigDecimal[] row : x)
+			for (int j = 0; j < m; j++)
+				row[j] = row[j].divide(det, this.mc);
+	}
+
+	// Double class ----------------------------------------------------------------
+
+	/**
+	 * <p>
+	 * LU decomposition with partial pivoting of a square matrix of
+	 * {@code double}s, <var>P</var><var>A</var> = <var>L</var><var>U</var>. Once
+	 * computed, the decomposition can be used to get the determinant, to solve
+	 * linear systems with any number of right-hand sides and to invert the
+	 * matrix.
+	 * </p>
+	 * <p>
+	 * Large matrices are decomposed using a blocked right-looking algorithm: a
+	 * panel of 64 columns is decomposed first and the rest of
+	 * the matrix is then updated at once using the cache-blocked parallel
+	 * multiplication kernel.
+	 * </p>
+	 *
+	 * @see Matrix.Double#lu()
+	 */
+	public static final class Double implements Solver.Double {
+
+		/**
+		 * Count of columns decomposed in one panel by the blocked algorithm.
+		 */
+		private static final int BLOCK_SIZE = 64;
+
+		/**
+		 * Smaller matrices are decomposed by the unblocked algorithm.
+		 */
+		private static final int BLOCKED_THRESHOLD = 192;
+
+		private final double[] lu;
+		private final int n;
+		private final int[] permutation;
+		private final int sign;
+		private final boolean singular;
+
+		/**
+		 * Computes LU decomposition of given square matrix.
+		 *
+		 * @param matrix the matrix to decompose
+		 * @throws NullPointerException  if {@code matrix} is {@code null}
+		 * @throws IllegalStateException if the matrix is not a square matrix
+		 */
+		public Double(final Matrix.Double matrix) {
+			Objects.requireNonNull(matrix, "Cannot pass null as argument");
+			if (!matrix.isSquareMatrix())
+				throw new IllegalStateException("Matrix is not a square matrix");
+
+			final int n = matrix.rows();
+			final double[] a = new double[n * n];
+			for (int row = 0; row < n; row++)
+				for (int col = 0; col < n; col++)
+					a[row * n + col] = matrix.get(row, col);
+			this.lu = a;
+			this.n = n;
+			this.permutation = new int[n];
+			for (int i = 0; i < n; i++)
+				this.permutation[i] = i;
+
+			final int swaps;
+			if (n < BLOCKED_THRESHOLD)
+				swaps = this.decomposePanel(0, n, n);
+			else
+				swaps = this.decomposeBlocked();
+
+			boolean singular = false;
+			for (int i = 0; i < n; i++)
+				if (a[i * n + i] == 0)
+					singular = true;
+			this.singular = singular;
+			this.sign = swaps % 2 == 0 ? 1 : -1;
+		}
+
+		/**
+		 * Returns if the decomposed matrix is singular, i.e. if its determinant is
+		 * zero.
+		 *
+		 * @return if the matrix is singular
+		 */
+		public boolean isSingular() {
+			return this.singular;
+		}
+
+		/**
+		 * Returns determinant of the decomposed matrix.
+		 *
+		 * @return det <var>A</var>
+		 */
+		public double determinant() {
+			double det = this.sign;
+			for (int i = 0; i < this.n; i++)
+				det *= this.lu[i * this.n + i];
+			return det;
+		}
+
+		/**
+		 * Solves linear system <var>A</var><var>x</var> = <var>b</var>.
+		 *
+		 * @param b the right-hand side
+		 * @return the solution <var>x</var>
+		 * @throws IllegalArgumentException if size of {@code b} is not equal to
+		 *                                  size of the matrix
+		 * @throws ArithmeticException      if the matrix is singular
+		 */
+		@Override
+		public Vector.Double solve(final Vector.Double b) {
+			if (b.coordinates() != this.n)
+				throw new IllegalArgumentException("Vector size does not match the matrix size");
+			final double[] x = new double[this.n];
+			for (int i = 0; i < this.n; i++)
+				x[i] = b.get(this.permutation[i]);
+			this.solveInPlace(x, 1);
+			return new Vector.Double(x);
+		}
+
+		/**
+		 * Solves linear system <var>A</var><var>X</var> = <var>B</var> for all
+		 * columns of <var>B</var> in a single pass over the decomposition.
+		 *
+		 * @param b the right-hand sides, one per column
+		 * @return the solution <var>X</var>
+		 * @throws IllegalArgumentException if count of rows of {@code b} is not
+		 *                                  equal to size of the matrix
+		 * @throws ArithmeticException      if the matrix is singular
+		 */
+		@Override
+		public Matrix.Double solve(final Matrix.Double b) {
+			if (b.rows() != this.n)
+				throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+			final int m = b.columns();
+			final double[] x = new double[this.n * m];
+			for (int i = 0; i < this.n; i++)
+				for (int j = 0; j < m; j++)
+					x[i * m + j] = b.get(this.permutation[i], j);
+			this.solveInPlace(x, m);
+			return new Matrix.Double(x, this.n, m, 0, m, 1);
+		}
+
+		/**
+		 * Computes inverse of the decomposed matrix.
+		 *
+		 * @return <var>A</var><sup>-1</sup>
+		 * @throws ArithmeticException if the matrix is singular
+		 */
+		public Matrix.Double inverse() {
+			final double[] x = new double[this.n * this.n];
+			for (int i = 0; i < this.n; i++)
+				x[i * this.n + this.permutation[i]] = 1.0;
+			this.solveInPlace(x, this.n);
+			return new Matrix.Double(x, this.n, this.n, 0, this.n, 1);
+		}
+
+		/**
+		 * Solves <var>L</var><var>U</var><var>X</var> = <var>B</var> for already
+		 * permuted row-major <var>B</var> with {@code m} columns. Whole rows of
+		 * <var>B</var> are updated at once, so all right-hand sides are solved in
+		 * a single pass over the decomposition.
+		 */
+		private void solveInPlace(final double[] x, final int m) {
+			if (this.singular)
+				throw new ArithmeticException("Matrix is singular");
+			final int n = this.n;
+			for (int i = 1; i < n; i++)
+				for (int k = 0; k < i; k++)
+					DoubleKernels.PREFERRED.axpy(-this.lu[i * n + k], x, k * m, x, i * m, m);
+			for (int i = n - 1; i >= 0; i--) {
+				for (int k = i + 1; k < n; k++)
+					DoubleKernels.PREFERRED.axpy(-this.lu[i * n + k], x, k * m, x, i * m, m);
+				final double pivot = this.lu[i * n + i];
+				for (int j = 0; j < m; j++)
+					x[i * m + j] /= pivot;
+			}
+		}
+
+		/**
+		 * Decomposes columns {@code [from; to)} of rows {@code [from; n)} updating
+		 * columns {@code [from; end)}. Rows are always swapped entirely.
+		 *
+		 * @return count of row swaps
+		 */
+		private int decomposePanel(final int from, final int to, final int end) {
+			final double[] a = this.lu;
+			final int n = this.n;
+			int swaps = 0;
+			for (int k = from; k < to; k++) {
+				int pivot = k;
+				for (int i = k + 1; i < n; i++)
+					if (Math.abs(a[i * n + k]) > Math.abs(a[pivot * n + k]))
+						pivot = i;
+				if (pivot != k) {
+					this.swapRows(k, pivot);
+					swaps++;
+				}
+				final double diagonal = a[k * n + k];
+				if (diagonal == 0)
+					continue;
+				for (int i = k + 1; i < n; i++) {
+					final double factor = a[i * n + k] / diagonal;
+					a[i * n + k] = factor;
+					if (factor != 0)
+						DoubleKernels.PREFERRED.axpy(-factor, a, k * n + k + 1, a, i * n + k + 1, end - k - 1);
+				}
+			}
+			return swaps;
+		}
+
+		/**
+		 * Right-looking blocked decomposition.
+		 *
+		 * @return count of row swaps
+		 */
+		private int decomposeBlocked() {
+			final double[] a = this.lu;
+			final int n = this.n;
+			final double[] buffer = new double[BLOCK_SIZE * n];
+			final double[] lower = new double[BLOCK_SIZE * n];
+			int swaps = 0;
+			for (int k0 = 0; k0 < n; k0 += BLOCK_SIZE) {
+				final int k1 = Math.min(k0 + BLOCK_SIZE, n);
+				final int width = k1 - k0;
+				swaps += this.decomposePanel(k0, k1, k1);
+				if (k1 == n)
+					break;
+
+				// U12 = L11^-1 A12
+				for (int k = k0; k < k1; k++)
+					for (int i = k + 1; i < k1; i++)
+						DoubleKernels.PREFERRED.axpy(-a[i * n + k], a, k * n + k1, a, i * n + k1, n - k1);
+
+				// A22 -= L21 U12
+				for (int i = k1; i < n; i++)
+					for (int k = 0; k < width; k++)
+						lower[(i - k1) * width + k] = -a[i * n + k0 + k];
+				MatrixMultiplication.multiplyAdd(lower, 0, width, 1, a, k0 * n + k1, n, 1, a, k1 * n + k1, n,
+						n - k1, width, n - k1, buffer);
+			}
+			return swaps;
+		}
+
+		private void swapRows(final int row1, final int row2) {
+			final double[] a = this.lu;
+			final int n = this.n;
+			for (int col = 0; col < n; col++) {
+				final double value = a[row1 * n + col];
+				a[row1 * n + col] = a[row2 * n + col];
+				a[row2 * n + col] = value;
+			}
+			final int index = this.permutation[row1];
+			this.permutation[row1] = this.permutation[row2];
+			this.permutation[row2] = index;
+		}
+	}
+}
@@ -1,9 +1,19 @@
 package jmath;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
 
 public final class MathConstants {
 
+    /**
+     * Count of extra digits computed beyond the requested precision.
+     */
+    private static final int GUARD_DIGITS = 10;
+
+    private static final BigInteger CHUDNOVSKY_DENOMINATOR = BigInteger.valueOf(10939058860032000L);
+
     // Do not create any instances
     private MathConstants() {
     }
@@ -36,9 +46,13 @@ public final class MathConstants {
      * <p>
      * <strong>Value:</strong> 2.718281&hellip; (irrational number)
      * </p>
+     *
+     * @deprecated The value is parsed when the class is initialized and is
+     *             limited to 1000 digits. Use {@link #euler(MathContext)}
+     *             instead.
      */
-    public static final BigDecimal EULER = new BigDecimal(
-            "2.7182818284590452353602874713526624977572470936999595749669676277240766303535475945713821785251664274274663919320030599218174135966290435729003342952605956307381323286279434907632338298807531952510190115738341879307021540891499348841675092447614606680822648001684774118537423454424371075390777449920695517027618386062613313845830007520449338265602976067371132007093287091274437470472306969772093101416928368190255151086574637721112523897844250569536967707854499699679468644549059879316368892300987931277361782154249992295763514822082698951936680331825288693984964651058209392398294887933203625094431173012381970684161403970198376793206832823764648042953118023287825098194558153017567173613320698112509961818815930416903515988885193458072738667385894228792284998920868058257492796104841984443634632449684875602336248270419786232090021609902353043699418491463140934317381436405462531520961836908887070167683964243781405927145635490613031072085103837505101157477041718986106873969655212671546889570350354");
+    @Deprecated
+    public static final BigDecimal EULER = new BigDecimal(Cache.EULER_DIGITS);
 
     /**
      * <p>
@@ -65,8 +79,141 @@ public final class MathConstants {
      * </p>
      *
      * @see #EULER
+     * @deprecated The value is parsed when the class is initialized and is
+     *             limited to 1000 digits. Use {@link #pi(MathContext)} instead.
+     */
+    @Deprecated
+    public static final BigDecimal PI = new BigDecimal(Cache.PI_DIGITS);
+
+    /**
+     * Returns the Euler number <var>e</var> rounded to given precision. Up to
+     * 999 digits are taken from a stored value, more digits are computed by
+     * summing the series &sum; 1/<var>n</var>! using binary splitting. The most
+     * precise value computed so far is cached and lower precisions are served by
+     * rounding it.
+     *
+     * @param mc the {@link MathContext} used to round the result
+     * @return <var>e</var>
+     * @throws ArithmeticException if {@code mc} has unlimited precision
+     */
+    public static BigDecimal euler(final MathContext mc) {
+        MathConstants.checkLimitedPrecision(mc);
+        BigDecimal value = Cache.euler;
+        if (value.precision() <= mc.getPrecision()) {
+            synchronized (Cache.class) {
+                value = Cache.euler;
+                if (value.precision() <= mc.getPrecision()) {
+                    value = MathConstants.computeEuler(MathConstants.workContext(mc));
+                    Cache.euler = value;
+                }
+            }
+        }
+        return value.round(mc);
+    }
+
+    /**
+     * Returns &pi; rounded to given precision. Up to 999 digits are taken from a
+     * stored value, more digits are computed by the Chudnovsky formula using
+     * binary splitting. The most precise value computed so far is cached and
+     * lower precisions are served by rounding it.
+     *
+     * @param mc the {@link MathContext} used to round the result
+     * @return &pi;
+     * @throws ArithmeticException if {@code mc} has unlimited precision
+     */
+    public static BigDecimal pi(final MathContext mc) {
+        MathConstants.checkLimitedPrecision(mc);
+        BigDecimal value = Cache.pi;
+        if (value.precision() <= mc.getPrecision()) {
+            synchronized (Cache.class) {
+                value = Cache.pi;
+                if (value.precision() <= mc.getPrecision()) {
+                    value = MathConstants.computePi(MathConstants.workContext(mc));
+                    Cache.pi = value;
+                }
+            }
+        }
+        return value.round(mc);
+    }
+
+    /**
+     * Sums &sum; 1/<var>n</var>! with enough terms for given precision.
+     */
+    private static BigDecimal computeEuler(final MathContext mc) {
+        long terms = 1;
+        for (double log10 = 0; log10 < mc.getPrecision() + 1; terms++)
+            log10 += Math.log10(terms);
+        return BinarySplitting.sum(new BinarySplitting.Series() {
+            @Override
+            public BigInteger p(final long n) {
+                return BigInteger.ONE;
+            }
+
+            @Override
+            public BigInteger q(final long n) {
+                return n == 0 ? BigInteger.ONE : BigInteger.valueOf(n);
+            }
+        }, terms, mc);
+    }
+
+    /**
+     * Computes &pi; = 426880 &radic;10005 / &sum;
+     * (&minus;1)<sup><var>k</var></sup> (6<var>k</var>)! (13591409 + 545140134
+     * <var>k</var>) / ((3<var>k</var>)! (<var>k</var>!)<sup>3</sup>
+     * 640320<sup>3<var>k</var></sup>). Every term adds more than 14 digits.
      */
-    public static final BigDecimal PI = new BigDecimal(
-            "3.1415926535897932384626433832795028841971693993751058209749445923078164062862089986280348253421170679821480865132823066470938446095505822317253594081284811174502841027019385211055596446229489549303819644288109756659334461284756482337867831652712019091456485669234603486104543266482133936072602491412737245870066063155881748815209209628292540917153643678925903600113305305488204665213841469519415116094330572703657595919530921861173819326117931051185480744623799627495673518857527248912279381830119491298336733624406566430860213949463952247371907021798609437027705392171762931767523846748184676694051320005681271452635608277857713427577896091736371787214684409012249534301465495853710507922796892589235420199561121290219608640344181598136297747713099605187072113499999983729780499510597317328160963185950244594553469083026425223082533446850352619311881710100031378387528865875332083814206171776691473035982534904287554687311595628638823537875937519577818577805321712268066130019278766111959092164201989");
+    private static BigDecimal computePi(final MathContext mc) {
+        final long terms = mc.getPrecision() / 14 + 2;
+        final BigDecimal sum = BinarySplitting.sum(new BinarySplitting.Series() {
+            @Override
+            public BigInteger a(final long n) {
+                return BigInteger.valueOf(545140134).multiply(BigInteger.valueOf(n))
+                        .add(BigInteger.valueOf(13591409));
+            }
+
+            @Override
+            public BigInteger p(final long n) {
+                if (n == 0)
+                    return BigInteger.ONE;
+                // -(6n - 5)(2n - 1)(6n - 1)
+                return BigInteger.valueOf(6 * n - 5).multiply(BigInteger.valueOf(2 * n - 1))
+                        .multiply(BigInteger.valueOf(6 * n - 1)).negate();
+            }
+
+            @Override
+            public BigInteger q(final long n) {
+                if (n == 0)
+                    return BigInteger.ONE;
+                // n^3 640320^3 / 24
+                return BigInteger.valueOf(n).pow(3).multiply(CHUDNOVSKY_DENOMINATOR);
+            }
+        }, terms, mc);
+        return MathUtilities.realRoot(BigDecimal.valueOf(10005), 2, mc).multiply(BigDecimal.valueOf(426880)).divide(sum, mc);
+    }
+
+    private static MathContext workContext(final MathContext mc) {
+        return new MathContext(mc.getPrecision() + GUARD_DIGITS, RoundingMode.HALF_EVEN);
+    }
+
+    private static void checkLimitedPrecision(final MathContext mc) {
+        if (mc.getPrecision() == 0)
+            throw new ArithmeticException("Result cannot be represented exactly");
+    }
+
+    /**
+     * Holds the stored digits and the most precise values computed so far. It is
+     * initialized on the first request for a value, not together with the other
+     * constants.
+     */
+    private static final class Cache {
+
+        static final String EULER_DIGITS = "2.7182818284590452353602874713526624977572470936999595749669676277240766303535475945713821785251664274274663919320030599218174135966290435729003342952605956307381323286279434907632338298807531952510190115738341879307021540891499348841675092447614606680822648001684774118537423454424371075390777449920695517027618386062613313845830007520449338265602976067371132007093287091274437470472306969772093101416928368190255151086574637721112523897844250569536967707854499699679468644549059879316368892300987931277361782154249992295763514822082698951936680331825288693984964651058209392398294887933203625094431173012381970684161403970198376793206832823764648042953118023287825098194558153017567173613320698112509961818815930416903515988885193458072738667385894228792284998920868058257492796104841984443634632449684875602336248270419786232090021609902353043699418491463140934317381436405462531520961836908887070167683964243781405927145635490613031072085103837505101157477041718986106873969655212671546889570350354";
+
+        static final String PI_DIGITS = "3.1415926535897932384626433832795028841971693993751058209749445923078164062862089986280348253421170679821480865132823066470938446095505822317253594081284811174502841027019385211055596446229489549303819644288109756659334461284756482337867831652712019091456485669234603486104543266482133936072602491412737245870066063155881748815209209628292540917153643678925903600113305305488204665213841469519415116094330572703657595919530921861173819326117931051185480744623799627495673518857527248912279381830119491298336733624406566430860213949463952247371907021798609437027705392171762931767523846748184676694051320005681271452635608277857713427577896091736371787214684409012249534301465495853710507922796892589235420199561121290219608640344181598136297747713099605187072113499999983729780499510597317328160963185950244594553469083026425223082533446850352619311881710100031378387528865875332083814206171776691473035982534904287554687311595628638823537875937519577818577805321712268066130019278766111959092164201989";
+
+        static volatile BigDecimal euler = new BigDecimal(EULER_DIGITS);
+
+        static volatile BigDecimal pi = new BigDecimal(PI_DIGITS);
+    }
 
 }
@@ -1,7 +1,10 @@
 package jmath;
 
 import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Objects;
 
 /**
  * Has some static methods and constants useful in mathematics.
@@ -10,12 +13,39 @@ import java.math.MathContext;
  */
 public final class MathUtilities {
 
+	/**
+	 * Extra digits used by elementary functions to absorb rounding errors.
+	 */
+	private static final int FUNCTION_GUARD_DIGITS = 10;
+
+	private static final double LOG10_2 = Math.log10(2);
+
+	private static final BigDecimal TWO = BigDecimal.valueOf(2);
+
+	private static final BigDecimal HALF = new BigDecimal("0.5");
+
+	/**
+	 * The most precise value of ln 2 computed so far.
+	 */
+	private static volatile BigDecimal ln2;
+
 	private MathUtilities() {
 	}
 
+	/**
+	 * Extra digits used by iterative algorithms to absorb rounding errors.
+	 */
+	private static final int GUARD_DIGITS = 5;
+
 	/**
 	 * Count the root of <em>non-negative</em> real number using given
-	 * {@link MathContext}
+	 * {@link MathContext}. The root is computed by Newton's iteration
+	 * <var>r</var> &larr; ((<var>n</var> &minus; 1) <var>r</var> +
+	 * <var>x</var> / <var>r</var><sup><var>n</var> &minus; 1</sup>) /
+	 * <var>n</var> seeded with a {@code double} estimate. Every iteration
+	 * doubles count of correct digits, so it is computed with precision which
+	 * doubles as well and only the last iterations run with full precision.
+	 * The result is correctly rounded by the rounding mode of {@code mc}.
 	 * 
 	 * @param base  the number under the root
 	 * @param grade the grade of the root
@@ -28,6 +58,8 @@ public final class MathUtilities {
 	 * @throws IllegalArgumentException if {@code grade} is less or equal to zero or
 	 *                                  {@code mc}'s precision is less than zero or
 	 *                                  {@code base} is less than zero
+	 * @throws ArithmeticException      if {@code mc} has unlimited precision and
+	 *                                  the root cannot be represented exactly
 	 */
 	public static BigDecimal realRoot(final BigDecimal base, final int grade, final MathContext mc) {
 		if (base == null || mc == null)
@@ -36,22 +68,84 @@ public final class MathUtilities {
 			throw new IllegalArgumentException("Illegal arguments passed");
 		if (grade == 1 || base.compareTo(BigDecimal.ZERO) == 0)
 			return base;
-		if (grade % 2 == 0 && base.compareTo(BigDecimal.ZERO) < 0)
-			throw new IllegalArgumentException("Even root of negative number is not a real number");
 
-		BigDecimal r = BigDecimal.ZERO;
-		for (int i = (int) -Math.log10(base.doubleValue()); i < mc.getPrecision() + 2; i++) {
-			BigDecimal unit = BigDecimal.TEN;
-			if (i < 0) unit = unit.pow(-i);
-			else unit = BigDecimal.valueOf(1.0).divide(unit.pow(i), mc);
-			while (r.pow(grade).compareTo(base) < 1) {
-				if (r.pow(grade).compareTo(base) == 0)
-					return r.round(mc);
-				r = r.add(unit);
-			}
-			r = r.subtract(unit);
+		if (mc.getPrecision() == 0) {
+			// Exact root of a number with p digits has at most p / n + 1 digits
+			final MathContext exact = new MathContext(base.precision() / grade + 2);
+			final BigDecimal root = MathUtilities.realRoot(base, grade, exact).stripTrailingZeros();
+			if (root.pow(grade).compareTo(base) != 0)
+				throw new ArithmeticException("Root cannot be represented exactly");
+			return root;
+		}
+
+		// base = m * 10^(grade * shift), where 1 <= m < 10^grade
+		final int exponent = base.precision() - base.scale() - 1;
+		final int shift = Math.floorDiv(exponent, grade);
+		final BigDecimal m = base.movePointLeft(grade * shift);
+		final int mExponent = exponent - grade * shift;
+		final double log10 = mExponent + Math.log10(m.movePointLeft(mExponent).doubleValue());
+		BigDecimal r = new BigDecimal(Math.pow(10, log10 / grade));
+
+		final BigDecimal n = BigDecimal.valueOf(grade);
+		final BigDecimal nMinusOne = BigDecimal.valueOf(grade - 1L);
+		final int target = mc.getPrecision() + GUARD_DIGITS;
+		int precision = 15;
+		boolean last = false;
+		while (true) {
+			precision = Math.min(2 * precision, target);
+			final MathContext work = new MathContext(precision, RoundingMode.HALF_EVEN);
+			final BigDecimal quotient = m.divide(r.pow(grade - 1, work), work);
+			r = nMinusOne.multiply(r).add(quotient).divide(n, work);
+			if (last)
+				break;
+			// One more iteration with full precision corrects the last digits
+			last = precision == target;
 		}
-		return r.round(mc);
+
+		// Iterations round to nearest, so rounding r once more by a directed mode
+		// may give the wrong neighbour if the root lies close to a boundary. Then
+		// the root is located exactly by comparing powers with m.
+		final int scale = mc.getPrecision() - 1;
+		final BigDecimal ulp = BigDecimal.ONE.movePointLeft(scale);
+		final BigDecimal error = BigDecimal.ONE.movePointLeft(target - 2);
+		final BigDecimal below = r.setScale(scale, RoundingMode.FLOOR);
+		final BigDecimal fraction = r.subtract(below);
+		if (fraction.compareTo(error) < 0 || ulp.subtract(fraction).compareTo(error) < 0
+				|| fraction.subtract(ulp.multiply(HALF)).abs().compareTo(error) < 0)
+			r = MathUtilities.locateRoot(below, ulp, m, grade);
+		r = r.round(mc);
+		final BigDecimal stripped = r.stripTrailingZeros();
+		// Exact roots are returned without spurious trailing zeros
+		if (stripped.precision() < mc.getPrecision() && stripped.pow(grade).compareTo(m) == 0)
+			r = stripped;
+		// Moving the point never leaves a negative scale, so large roots may get
+		// trailing zeros beyond the precision, which are dropped exactly
+		return r.movePointRight(shift).round(mc);
+	}
+
+	/**
+	 * Returns a number which lies in the same position as the exact root of
+	 * {@code m} relative to the nearest multiples of {@code ulp} and their
+	 * midpoint, so that it is rounded to the same result by any rounding mode.
+	 * The root is near {@code estimate}.
+	 */
+	private static BigDecimal locateRoot(final BigDecimal estimate, final BigDecimal ulp, final BigDecimal m,
+			final int grade) {
+		BigDecimal q = estimate;
+		while (q.pow(grade).compareTo(m) > 0)
+			q = q.subtract(ulp);
+		while (q.add(ulp).pow(grade).compareTo(m) <= 0)
+			q = q.add(ulp);
+		// Now q <= root < q + ulp
+		if (q.pow(grade).compareTo(m) == 0)
+			return q;
+		final BigDecimal half = ulp.multiply(HALF);
+		final BigDecimal quarter = half.multiply(HALF);
+		final BigDecimal midpoint = q.add(half);
+		final int side = midpoint.pow(grade).compareTo(m);
+		if (side == 0)
+			return midpoint;
+		return side > 0 ? q.add(quarter) : midpoint.add(quarter);
 	}
 
 	/**
@@ -60,9 +154,463 @@ public final class MathUtilities {
 	 * @param n    the grade of root
 	 * @return {@code n}-th root of {@code base}
 	 */
-	public static strictfp double realRoot(final double base, final int n) {
+	public static double realRoot(final double base, final int n) {
 		if (base < 0 && n % 2 == 0)
 			throw new IllegalArgumentException("Even root of negative number is not a real number");
 		return Math.pow(base, 1.0 / n);
 	}
+
+	/**
+	 * Computes the exponential function <var>e</var><sup><var>x</var></sup>. The
+	 * integer part of the argument is handled by raising <var>e</var> to it and
+	 * the fractional part by the bit-burst algorithm: the digits are split into
+	 * chunks of doubling length and the Taylor series of every chunk is summed by
+	 * binary splitting. The cost is therefore almost proportional to cost of a
+	 * multiplication of numbers with given precision.
+	 *
+	 * @param x  the exponent
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return <var>e</var><sup><var>x</var></sup>
+	 * @throws NullPointerException if {@code x} or {@code mc} is {@code null}
+	 * @throws ArithmeticException  if the result overflows or if {@code mc} has
+	 *                              unlimited precision and the result is not 1
+	 */
+	public static BigDecimal exp(final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() == 0)
+			return BigDecimal.ONE;
+		MathUtilities.checkLimitedPrecision(mc);
+		if (x.signum() < 0)
+			return BigDecimal.ONE.divide(MathUtilities.exp(x.negate(), MathUtilities.extend(mc, 2)), mc);
+
+		final BigInteger integer = x.toBigInteger();
+		if (integer.bitLength() > 31)
+			throw new ArithmeticException("Overflow");
+		final int n = integer.intValue();
+		final MathContext work = MathUtilities.extend(mc, FUNCTION_GUARD_DIGITS + MathUtilities.digits(n));
+		BigDecimal result = MathUtilities.expFraction(x.subtract(new BigDecimal(integer)), work);
+		if (n > 0)
+			result = result.multiply(MathConstants.euler(work).pow(n, work), work);
+		return result.round(mc);
+	}
+
+	/**
+	 * Computes the natural logarithm using the arithmetic-geometric mean
+	 * ln <var>x</var> &asymp; &pi; / (2 AGM(1, 4 / <var>s</var>)) &minus;
+	 * <var>m</var> ln 2, where <var>s</var> = <var>x</var> &middot;
+	 * 2<sup><var>m</var></sup> is large enough for the approximation to be exact
+	 * to given precision. The arithmetic-geometric mean converges
+	 * quadratically, so only a logarithmic count of square roots is needed.
+	 *
+	 * @param x  the argument
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return ln <var>x</var>
+	 * @throws NullPointerException     if {@code x} or {@code mc} is
+	 *                                  {@code null}
+	 * @throws IllegalArgumentException if {@code x} is not positive
+	 * @throws ArithmeticException      if {@code mc} has unlimited precision and
+	 *                                  {@code x} is not 1
+	 */
+	public static BigDecimal ln(final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() <= 0)
+			throw new IllegalArgumentException("Logarithm of non-positive number is not a real number");
+		if (x.compareTo(BigDecimal.ONE) == 0)
+			return BigDecimal.ZERO;
+		MathUtilities.checkLimitedPrecision(mc);
+
+		// Close to 1, the result is much smaller than the subtracted terms
+		final int cancellation = Math.max(0, -MathUtilities.exponent(x.subtract(BigDecimal.ONE)));
+		final int digits = mc.getPrecision() + FUNCTION_GUARD_DIGITS + cancellation;
+		final double log10 = MathUtilities.exponent(x)
+				+ Math.log10(x.movePointLeft(MathUtilities.exponent(x)).doubleValue());
+		final int m = (int) Math.ceil((digits / 2.0 + 1 - log10) / LOG10_2);
+		final MathContext work = new MathContext(digits + MathUtilities.digits(m), RoundingMode.HALF_EVEN);
+
+		final BigDecimal s = m >= 0
+				? x.multiply(new BigDecimal(BigInteger.ONE.shiftLeft(m)))
+				: x.multiply(new BigDecimal(BigInteger.valueOf(5).pow(-m))).movePointLeft(-m);
+		final BigDecimal agm = MathUtilities.agm(BigDecimal.ONE,
+				BigDecimal.valueOf(4).divide(s, work), work);
+		final BigDecimal result = MathConstants.pi(work).divide(agm.multiply(TWO), work)
+				.subtract(MathUtilities.ln2(work).multiply(BigDecimal.valueOf(m)), work);
+		return result.round(mc);
+	}
+
+	/**
+	 * Computes the sine. The argument is reduced to the interval
+	 * [&minus;&pi;/4; &pi;/4] and the reduced argument is split into chunks of
+	 * doubling length, whose series are summed by binary splitting.
+	 *
+	 * @param x  the angle in radians
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return sin <var>x</var>
+	 * @throws NullPointerException if {@code x} or {@code mc} is {@code null}
+	 * @throws ArithmeticException  if {@code mc} has unlimited precision and
+	 *                              {@code x} is not 0
+	 */
+	public static BigDecimal sin(final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() == 0)
+			return BigDecimal.ZERO;
+		return MathUtilities.trigonometric(x, mc, true);
+	}
+
+	/**
+	 * Computes the cosine. The argument is reduced to the interval
+	 * [&minus;&pi;/4; &pi;/4] and the reduced argument is split into chunks of
+	 * doubling length, whose series are summed by binary splitting.
+	 *
+	 * @param x  the angle in radians
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return cos <var>x</var>
+	 * @throws NullPointerException if {@code x} or {@code mc} is {@code null}
+	 * @throws ArithmeticException  if {@code mc} has unlimited precision and
+	 *                              {@code x} is not 0
+	 */
+	public static BigDecimal cos(final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() == 0)
+			return BigDecimal.ONE;
+		return MathUtilities.trigonometric(x, mc, false);
+	}
+
+	/**
+	 * Computes the arc tangent. Starting from the {@code double} estimate, the
+	 * result is refined by iteration <var>y</var> &larr; <var>y</var> +
+	 * <var>d</var> &minus; <var>d</var><sup>3</sup>/3, where <var>d</var> =
+	 * (<var>x</var> cos <var>y</var> &minus; sin <var>y</var>) / (cos
+	 * <var>y</var> + <var>x</var> sin <var>y</var>). Every iteration multiplies
+	 * count of correct digits by five, so the precision grows accordingly.
+	 *
+	 * @param x  the argument
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return arctg <var>x</var> in the interval (&minus;&pi;/2; &pi;/2)
+	 * @throws NullPointerException if {@code x} or {@code mc} is {@code null}
+	 * @throws ArithmeticException  if {@code mc} has unlimited precision and
+	 *                              {@code x} is not 0
+	 */
+	public static BigDecimal atan(final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() == 0)
+			return BigDecimal.ZERO;
+		MathUtilities.checkLimitedPrecision(mc);
+
+		final MathContext full = MathUtilities.extend(mc, FUNCTION_GUARD_DIGITS);
+		BigDecimal t = x.abs();
+		final boolean inverted = t.compareTo(BigDecimal.ONE) > 0;
+		if (inverted)
+			t = BigDecimal.ONE.divide(t, full);
+
+		BigDecimal y = new BigDecimal(Math.atan(t.doubleValue()));
+		int precision = 15;
+		do {
+			precision = Math.min(4 * precision, full.getPrecision());
+			final MathContext work = new MathContext(precision, RoundingMode.HALF_EVEN);
+			final BigDecimal[] cosSin = MathUtilities.cosSin(y, work);
+			final BigDecimal d = t.multiply(cosSin[0]).subtract(cosSin[1])
+					.divide(cosSin[0].add(t.multiply(cosSin[1])), work);
+			y = y.add(d).subtract(d.pow(3).divide(BigDecimal.valueOf(3), work), work);
+		} while (precision < full.getPrecision());
+
+		if (inverted)
+			y = MathConstants.pi(full).multiply(HALF).subtract(y, full);
+		return (x.signum() < 0 ? y.negate() : y).round(mc);
+	}
+
+	/**
+	 * Returns the angle of point [{@code x}; {@code y}] in polar coordinates,
+	 * i.e. the argument of complex number {@code x} + {@code y}<var>i</var>.
+	 *
+	 * @param y  the ordinate
+	 * @param x  the abscissa
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return the angle in the interval (&minus;&pi;; &pi;]; zero if both
+	 *         coordinates are zero
+	 * @throws NullPointerException if any argument is {@code null}
+	 * @throws ArithmeticException  if {@code mc} has unlimited precision and the
+	 *                              result is not 0
+	 * @see Math#atan2(double, double)
+	 */
+	public static BigDecimal atan2(final BigDecimal y, final BigDecimal x, final MathContext mc) {
+		Objects.requireNonNull(y, "Cannot pass null as argument");
+		Objects.requireNonNull(x, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (x.signum() == 0) {
+			if (y.signum() == 0)
+				return BigDecimal.ZERO;
+			final BigDecimal halfPi = MathConstants.pi(MathUtilities.extend(mc, 1)).multiply(HALF).round(mc);
+			return y.signum() > 0 ? halfPi : halfPi.negate();
+		}
+		if (y.signum() == 0 && x.signum() > 0)
+			return BigDecimal.ZERO;
+
+		final MathContext work = MathUtilities.extend(mc, FUNCTION_GUARD_DIGITS);
+		final BigDecimal angle = MathUtilities.atan(y.divide(x, work), work);
+		if (x.signum() > 0)
+			return angle.round(mc);
+		return y.signum() >= 0
+				? angle.add(MathConstants.pi(work), mc)
+				: angle.subtract(MathConstants.pi(work), mc);
+	}
+
+	/**
+	 * Returns ln 2 rounded to given precision. The value is computed by a
+	 * Machin-like formula and cached.
+	 */
+	private static BigDecimal ln2(final MathContext mc) {
+		BigDecimal value = MathUtilities.ln2;
+		if (value == null || value.precision() < mc.getPrecision() + 1) {
+			final MathContext work = MathUtilities.extend(mc, FUNCTION_GUARD_DIGITS);
+			// ln 2 = 18 artanh(1/26) - 2 artanh(1/4801) + 8 artanh(1/8749)
+			value = MathUtilities.atanInverse(26, true, work).multiply(BigDecimal.valueOf(18))
+					.subtract(MathUtilities.atanInverse(4801, true, work).multiply(TWO))
+					.add(MathUtilities.atanInverse(8749, true, work).multiply(BigDecimal.valueOf(8)), work);
+			MathUtilities.ln2 = value;
+		}
+		return value.round(mc);
+	}
+
+	/**
+	 * Computes arctg(1/{@code k}) or artanh(1/{@code k}) using binary splitting.
+	 */
+	private static BigDecimal atanInverse(final int k, final boolean hyperbolic, final MathContext mc) {
+		final BigInteger kk = BigInteger.valueOf(k).pow(2);
+		final BigInteger sign = hyperbolic ? BigInteger.ONE : BigInteger.ONE.negate();
+		final long terms = (long) Math.ceil(mc.getPrecision() / (2 * Math.log10(k))) + 2;
+		return BinarySplitting.sum(new BinarySplitting.Series() {
+			@Override
+			public BigInteger b(final long n) {
+				return BigInteger.valueOf(2 * n + 1);
+			}
+
+			@Override
+			public BigInteger p(final long n) {
+				return n == 0 ? BigInteger.ONE : sign;
+			}
+
+			@Override
+			public BigInteger q(final long n) {
+				return n == 0 ? BigInteger.valueOf(k) : kk;
+			}
+		}, terms, mc);
+	}
+
+	/**
+	 * Computes <var>e</var><sup><var>x</var></sup> for 0 &le; <var>x</var> &lt;
+	 * 1 using the bit-burst algorithm.
+	 */
+	private static BigDecimal expFraction(final BigDecimal x, final MathContext mc) {
+		final int digits = mc.getPrecision();
+		final BigInteger all = x.setScale(digits, RoundingMode.DOWN).unscaledValue();
+		BigDecimal result = BigDecimal.ONE;
+		for (int start = 0, end = 1; start < digits; start = end, end = Math.min(2 * end, digits)) {
+			final BigInteger chunk = MathUtilities.chunk(all, digits, start, end);
+			if (chunk.signum() != 0)
+				result = result.multiply(MathUtilities.expChunk(chunk, end, mc), mc);
+		}
+		return result;
+	}
+
+	/**
+	 * Computes <var>e</var><sup><var>x</var></sup> for <var>x</var> =
+	 * {@code chunk} / 10<sup>{@code scale}</sup> &lt; 1 by Taylor series.
+	 */
+	private static BigDecimal expChunk(final BigInteger chunk, final int scale, final MathContext mc) {
+		final BigInteger denominator = BigInteger.TEN.pow(scale);
+		final double log10 = MathUtilities.log10(chunk) - scale;
+		long terms = 1;
+		for (double term = 0; term > -mc.getPrecision() - 1; terms++)
+			term += log10 - Math.log10(terms);
+		return BinarySplitting.sum(new BinarySplitting.Series() {
+			@Override
+			public BigInteger p(final long n) {
+				return n == 0 ? BigInteger.ONE : chunk;
+			}
+
+			@Override
+			public BigInteger q(final long n) {
+				return n == 0 ? BigInteger.ONE : denominator.multiply(BigInteger.valueOf(n));
+			}
+		}, terms, mc);
+	}
+
+	/**
+	 * Computes sine or cosine of any angle.
+	 */
+	private static BigDecimal trigonometric(final BigDecimal x, final MathContext mc, final boolean sine) {
+		MathUtilities.checkLimitedPrecision(mc);
+		// Digits of the integer part are lost by the reduction
+		int extra = FUNCTION_GUARD_DIGITS + Math.max(0, MathUtilities.exponent(x) + 1);
+		// Leading zeros of the reduced argument already covered by extra
+		int covered = 0;
+		BigInteger quadrant;
+		BigDecimal reduced;
+		MathContext work;
+		while (true) {
+			work = MathUtilities.extend(mc, extra);
+			final BigDecimal halfPi = MathConstants.pi(work).multiply(HALF);
+			quadrant = x.divide(halfPi, work).setScale(0, RoundingMode.HALF_EVEN).toBigIntegerExact();
+			if (quadrant.signum() == 0) {
+				// Nothing is subtracted, so no digits are lost
+				reduced = x;
+				break;
+			}
+			reduced = x.subtract(halfPi.multiply(new BigDecimal(quadrant)), work);
+			// Angles close to a multiple of pi/2 lose digits by the reduction, so
+			// it is repeated until the precision covers all cancelled digits. The
+			// loop ends, as no non-zero decimal is a multiple of pi/2.
+			if (reduced.signum() == 0) {
+				extra += work.getPrecision();
+				continue;
+			}
+			final int cancelled = -MathUtilities.exponent(reduced);
+			if (cancelled <= covered)
+				break;
+			extra += cancelled - covered;
+			covered = cancelled;
+		}
+
+		final BigDecimal[] cosSin = MathUtilities.cosSin(reduced, work);
+		final BigDecimal cos = cosSin[0];
+		final BigDecimal sin = cosSin[1];
+		final BigDecimal result;
+		switch (quadrant.intValue() & 3) {
+			case 0:
+				result = sine ? sin : cos;
+				break;
+			case 1:
+				result = sine ? cos : sin.negate();
+				break;
+			case 2:
+				result = sine ? sin.negate() : cos.negate();
+				break;
+			default:
+				result = sine ? cos.negate() : sin;
+		}
+		return result.round(mc);
+	}
+
+	/**
+	 * Computes {cos <var>x</var>, sin <var>x</var>} for |<var>x</var>| &lt; 1
+	 * using the bit-burst algorithm and the angle addition formulas.
+	 */
+	private static BigDecimal[] cosSin(final BigDecimal x, final MathContext mc) {
+		if (x.signum() == 0)
+			return new BigDecimal[] { BigDecimal.ONE, BigDecimal.ZERO };
+		// Digits are taken at fixed positions, leading zeros of small arguments
+		// must not reduce the relative precision of the sine
+		final int digits = mc.getPrecision() + Math.max(0, -MathUtilities.exponent(x));
+		final BigInteger all = x.abs().setScale(digits, RoundingMode.DOWN).unscaledValue();
+		BigDecimal cos = BigDecimal.ONE;
+		BigDecimal sin = BigDecimal.ZERO;
+		for (int start = 0, end = 1; start < digits; start = end, end = Math.min(2 * end, digits)) {
+			final BigInteger chunk = MathUtilities.chunk(all, digits, start, end);
+			if (chunk.signum() == 0)
+				continue;
+			final BigDecimal[] part = MathUtilities.cosSinChunk(chunk, end, mc);
+			final BigDecimal c = cos.multiply(part[0]).subtract(sin.multiply(part[1]), mc);
+			sin = sin.multiply(part[0]).add(cos.multiply(part[1]), mc);
+			cos = c;
+		}
+		return new BigDecimal[] { cos, x.signum() < 0 ? sin.negate() : sin };
+	}
+
+	/**
+	 * Computes {cos <var>x</var>, sin <var>x</var>} for <var>x</var> =
+	 * {@code chunk} / 10<sup>{@code scale}</sup> &lt; 1 by Taylor series.
+	 */
+	private static BigDecimal[] cosSinChunk(final BigInteger chunk, final int scale, final MathContext mc) {
+		final BigInteger denominator = BigInteger.TEN.pow(scale);
+		final BigInteger square = chunk.multiply(chunk).negate();
+		final BigInteger squareDenominator = denominator.multiply(denominator);
+		final double log10 = MathUtilities.log10(chunk) - scale;
+		long terms = 1;
+		for (double term = 0; term > -mc.getPrecision() - 1; terms++)
+			term += 2 * log10 - Math.log10(2 * terms - 1) - Math.log10(2 * terms);
+
+		final BigDecimal cos = BinarySplitting.sum(new BinarySplitting.Series() {
+			@Override
+			public BigInteger p(final long n) {
+				return n == 0 ? BigInteger.ONE : square;
+			}
+
+			@Override
+			public BigInteger q(final long n) {
+				return n == 0 ? BigInteger.ONE : squareDenominator.multiply(BigInteger.valueOf((2 * n - 1) * (2 * n)));
+			}
+		}, terms, mc);
+		final BigDecimal sin = BinarySplitting.sum(new BinarySplitting.Series() {
+			@Override
+			public BigInteger p(final long n) {
+				return n == 0 ? chunk : square;
+			}
+
+			@Override
+			public BigInteger q(final long n) {
+				return n == 0 ? denominator : squareDenominator.multiply(BigInteger.valueOf(2 * n * (2 * n + 1)));
+			}
+		}, terms, mc);
+		return new BigDecimal[] { cos, sin };
+	}
+
+	/**
+	 * Computes the arithmetic-geometric mean of two positive numbers. Once the
+	 * numbers agree to half of the precision, their arithmetic mean agrees with
+	 * the limit to full precision.
+	 */
+	private static BigDecimal agm(BigDecimal a, BigDecimal b, final MathContext mc) {
+		final BigDecimal tolerance = BigDecimal.ONE.movePointLeft(mc.getPrecision() / 2 + 1);
+		while (a.subtract(b).abs().compareTo(a.multiply(tolerance)) > 0) {
+			final BigDecimal mean = a.add(b).multiply(HALF);
+			b = MathUtilities.realRoot(a.multiply(b, mc), 2, mc);
+			a = mean.round(mc);
+		}
+		return a.add(b).multiply(HALF).round(mc);
+	}
+
+	/**
+	 * Returns digits at positions ({@code start}; {@code end}] after the decimal
+	 * point of number {@code all} / 10<sup>{@code digits}</sup> as an integer.
+	 */
+	private static BigInteger chunk(final BigInteger all, final int digits, final int start, final int end) {
+		return all.divide(BigInteger.TEN.pow(digits - end)).mod(BigInteger.TEN.pow(end - start));
+	}
+
+	/**
+	 * Returns approximate decimal logarithm of a positive integer of any size.
+	 */
+	private static double log10(final BigInteger value) {
+		final int shift = Math.max(0, value.bitLength() - 62);
+		return Math.log10(value.shiftRight(shift).doubleValue()) + shift * LOG10_2;
+	}
+
+	/**
+	 * Returns &lfloor;log<sub>10</sub> |<var>x</var>|&rfloor; of a non-zero
+	 * number.
+	 */
+	private static int exponent(final BigDecimal x) {
+		return x.precision() - x.scale() - 1;
+	}
+
+	/**
+	 * Returns count of decimal digits of the absolute value.
+	 */
+	private static int digits(final int n) {
+		return Integer.toString(Math.abs(n)).length();
+	}
+
+	private static MathContext extend(final MathContext mc, final int digits) {
+		return new MathContext(mc.getPrecision() + digits, RoundingMode.HALF_EVEN);
+	}
+
+	private static void checkLimitedPrecision(final MathContext mc) {
+		if (mc.getPrecision() == 0)
+			throw new ArithmeticException("Result cannot be represented exactly");
+	}
 }
\ No newline at end of file
@@ -1,9 +1,16 @@
 package jmath;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamField;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Arrays;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 /**
  * <p>
@@ -20,8 +27,15 @@ public final class Matrix implements Cloneable, MathEntity {
 	
 	private static final long serialVersionUID = 0x0100L;
 
+	/**
+	 * Products with less multiplications are not split across threads.
+	 */
+	private static final long PARALLEL_THRESHOLD = 16L * 16L * 16L;
+
 	private final BigDecimal[][] data;
 
+	private transient volatile LUDecomposition lu;
+
 	public Matrix(final BigDecimal[][] data) {
 		Matrix.checkMatrixData(data);
 		this.data = new BigDecimal[data.length][data[0].length];
@@ -167,34 +181,192 @@ public final class Matrix implements Cloneable, MathEntity {
 		return new Matrix(data);
 	}
 
+	/**
+	 * Multiplies this matrix by another matrix. Rows of large products are
+	 * computed in parallel.
+	 *
+	 * @param mtx2 the right operand
+	 * @param mc   the {@link MathContext} used for rounding
+	 * @return {@code this} &middot; {@code mtx2}
+	 * @throws IllegalArgumentException if count of columns of {@code this} is
+	 *                                  not equal to count of rows of
+	 *                                  {@code mtx2}
+	 */
 	public Matrix multiply(final Matrix mtx2, final MathContext mc) {
 		if (this.columns() != mtx2.rows())
 			throw new IllegalArgumentException("Cannot multiply given matrices");
 
 		final BigDecimal[][] data = new BigDecimal[this.rows()][mtx2.columns()];
-		for (int row = 0; row < this.rows(); row++)
-            for (int col = 0; col < mtx2.columns(); col++) {
-                BigDecimal sum = BigDecimal.ZERO;
-                for (int k = 0; k < this.columns(); k++)
-                    sum = sum.add(this.get(row, k).multiply(mtx2.get(k, col)), mc);
-                data[row][col] = sum;
-            }
+		final IntStream rows = IntStream.range(0, this.rows());
+		final long work = (long) this.rows() * this.columns() * mtx2.columns();
+		(work < PARALLEL_THRESHOLD ? rows : rows.parallel()).forEach(row -> {
+			for (int col = 0; col < mtx2.columns(); col++) {
+				BigDecimal sum = BigDecimal.ZERO;
+				for (int k = 0; k < this.columns(); k++)
+					sum = sum.add(this.data[row][k].multiply(mtx2.data[k][col]), mc);
+				data[row][col] = sum;
+			}
+		});
 
 		return new Matrix(data);
 	}
 	
+	/**
+	 * Returns LU decomposition of this square matrix. The last computed
+	 * decomposition is cached, so repeated calls with the same
+	 * {@link MathContext} do not decompose the matrix again.
+	 *
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return LU decomposition of {@code this}
+	 * @throws IllegalStateException if the matrix is not a square matrix
+	 */
+	public LUDecomposition lu(final MathContext mc) {
+		LUDecomposition lu = this.lu;
+		if (lu == null || !lu.getMathContext().equals(mc)) {
+			lu = new LUDecomposition(this, mc);
+			this.lu = lu;
+		}
+		return lu;
+	}
+
+	/**
+	 * Returns determinant of this square matrix.
+	 *
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return det {@code this}
+	 * @throws IllegalStateException if the matrix is not a square matrix
+	 * @see #lu(MathContext)
+	 */
 	public BigDecimal determinant(final MathContext mc) {
-		// TODO determinant
-		throw new UnsupportedOperationException("Not yet implemented");
+		return this.lu(mc).determinant();
+	}
+
+	/**
+	 * Solves linear system {@code this} &middot; <var>x</var> = {@code b} using
+	 * the cached {@link #lu(MathContext) LU decomposition}.
+	 *
+	 * @param b  the right-hand side
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return the solution <var>x</var>
+	 * @throws IllegalStateException    if the matrix is not a square matrix
+	 * @throws IllegalArgumentException if size of {@code b} does not match
+	 * @throws ArithmeticException      if the matrix is singular
+	 */
+	public Vector solve(final Vector b, final MathContext mc) {
+		return this.lu(mc).solve(b);
 	}
 
+	/**
+	 * Solves linear system {@code this} &middot; <var>X</var> = {@code b} for all
+	 * columns of {@code b} using the cached {@link #lu(MathContext) LU
+	 * decomposition}.
+	 *
+	 * @param b  the right-hand sides, one per column
+	 * @param mc the {@link MathContext} used for rounding
+	 * @return the solution <var>X</var>
+	 * @throws IllegalStateException    if the matrix is not a square matrix
+	 * @throws IllegalArgumentException if count of rows of {@code b} does not
+	 *                                  match
+	 * @throws ArithmeticException      if the matrix is singular
+	 */
+	public Matrix solve(final Matrix b, final MathContext mc) {
+		return this.lu(mc).solve(b);
+	}
+
+	/**
+	 * Raises this square matrix to given non-negative power using exponentiation
+	 * by squaring, so only about 2 &middot; log<sub>2</sub>({@code power})
+	 * multiplications are needed.
+	 *
+	 * @param power the exponent
+	 * @param mc    the {@link MathContext} used for rounding
+	 * @return {@code this}<sup>{@code power}</sup>; identity matrix if
+	 *         {@code power} is zero
+	 * @throws IllegalStateException    if the matrix is not a square matrix
+	 * @throws IllegalArgumentException if {@code power} is negative
+	 */
 	public Matrix pow(final int power, final MathContext mc) {
 		if (!this.isSquareMatrix())
 			throw new IllegalStateException("Matrix is not a square matrix");
-		Matrix result = this;
-		for (int i = 1; i < power; i++)
-			result = this.multiply(result, mc);
-		return result;
+		if (power < 0)
+			throw new IllegalArgumentException("Power must not be negative");
+
+		Matrix result = null;
+		Matrix base = this;
+		for (int p = power; p != 0; p >>>= 1) {
+			if ((p & 1) != 0)
+				result = result == null ? base : result.multiply(base, mc);
+			if (p > 1)
+				base = base.multiply(base, mc);
+		}
+		return result != null ? result : Matrix.identity(this.rows());
+	}
+
+	private static Matrix identity(final int size) {
+		final BigDecimal[][] data = new BigDecimal[size][size];
+		for (int row = 0; row < size; row++)
+			for (int col = 0; col < size; col++)
+				data[row][col] = row == col ? BigDecimal.ONE : BigDecimal.ZERO;
+		return new Matrix(data);
+	}
+
+	/**
+	 * Replaces this matrix by its compact serialized form.
+	 */
+	private Object writeReplace() {
+		return new Ser(Ser.MATRIX, this);
+	}
+
+	/**
+	 * Validates a matrix written in the default serialized form.
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		try {
+			Matrix.checkMatrixData(this.data);
+		} catch (final IllegalArgumentException | NullPointerException exc) {
+			throw new InvalidObjectException("Invalid matrix data");
+		}
+	}
+
+	private Object readResolve() {
+		// Copies the rows, so the stream keeps no reference to the storage
+		return new Matrix(this.data);
+	}
+
+	/**
+	 * Writes count of rows and columns and all elements in row-major order.
+	 */
+	void writeExternal(final DataOutput out) throws IOException {
+		Ser.writeSize(out, this.rows());
+		Ser.writeSize(out, this.columns());
+		for (final BigDecimal[] row : this.data)
+			for (final BigDecimal value : row)
+				Ser.writeDecimal(out, value);
+	}
+
+	static Matrix readExternal(final DataInput in) throws IOException {
+		final int rows = Ser.readSize(in);
+		final int columns = Ser.readSize(in);
+		Matrix.checkSerializedShape(rows, columns);
+		final BigDecimal[] elements = Ser.readDecimals(in, rows * columns);
+		final BigDecimal[][] data = new BigDecimal[rows][];
+		for (int row = 0; row < rows; row++)
+			data[row] = Arrays.copyOfRange(elements, row * columns, (row + 1) * columns);
+		return new Matrix(data);
+	}
+
+	/**
+	 * Checks the shape of a deserialized matrix before its elements are read.
+	 */
+	private static void checkSerializedShape(final int rows, final int columns) throws InvalidObjectException {
+		try {
+			Matrix.checkMatrixShape(rows, columns);
+		} catch (final IllegalArgumentException exc) {
+			throw new InvalidObjectException(exc.getMessage());
+		}
+		if ((long) rows * columns > Integer.MAX_VALUE)
+			throw new InvalidObjectException("Matrix is too large");
 	}
 
 	private static void checkMatrixData(final Object[][] data) {
@@ -218,30 +390,107 @@ public final class Matrix implements Cloneable, MathEntity {
             if (row.length != w || w == 0 || (w == 1 && data2.length == 1))
                 throw new IllegalArgumentException("2D array is inconsistent");
 	}
+
+	private static void checkMatrixShape(final int rows, final int columns) {
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("2D array is empty");
+		if (rows == 1 && columns == 1)
+			throw new IllegalArgumentException("2D array is inconsistent");
+	}
 	
 	// Double class ----------------------------------------------------------------
 
+	/**
+	 * <p>
+	 * Represents mathematical matrix of {@code double}s.
+	 * </p>
+	 * <p>
+	 * Elements are stored in a single flat array. Position of element at row
+	 * <var>r</var> and column <var>c</var> is <var>offset</var> + <var>r</var>
+	 * &middot; <var>rowStride</var> + <var>c</var> &middot;
+	 * <var>columnStride</var>, so the same array can be read both in row-major
+	 * and in column-major order (see {@link #transpose()}).
+	 * </p>
+	 * <p>
+	 * <b>Attention!</b> Rows and columns are numbered from zero!
+	 * </p>
+	 */
 	public static final class Double implements Cloneable, MathEntity {
 		
 		private static final long serialVersionUID = 0x0100L;
+
+		/**
+		 * The default serialized form is the one used before elements were
+		 * flattened: the rows as {@code double[][] data}.
+		 */
+		private static final ObjectStreamField[] serialPersistentFields = {
+				new ObjectStreamField("data", double[][].class) };
 		
-		private final double[][] data;
+		// Package-private, so that MutableMatrix can read operands directly
+		final double[] data;
+		final int rows;
+		final int columns;
+		final int offset;
+		final int rowStride;
+		final int columnStride;
+
+		private transient volatile LUDecomposition.Double lu;
+
+		// Rows read from the default serialized form, see readResolve()
+		private transient double[][] serialData;
 
 		public Double(final double[][] data) {
 			Matrix.checkMatrixData(data);
-			this.data = new double[data.length][data[0].length];
-			for (int row = 0; row < data.length; row++) this.data[row] = Arrays.copyOf(data[row], data[row].length);
+			this.rows = data.length;
+			this.columns = data[0].length;
+			this.data = new double[this.rows * this.columns];
+			for (int row = 0; row < this.rows; row++)
+				System.arraycopy(data[row], 0, this.data, row * this.columns, this.columns);
+			this.offset = 0;
+			this.rowStride = this.columns;
+			this.columnStride = 1;
+		}
+
+		/**
+		 * Creates a matrix from elements given in row-major order, i.e. the
+		 * element at row <var>r</var> and column <var>c</var> is expected at index
+		 * <var>r</var> &middot; {@code columns} + <var>c</var>.
+		 *
+		 * @param rows    count of rows
+		 * @param columns count of columns
+		 * @param data    elements of the matrix in row-major order
+		 *
+		 * @throws IllegalArgumentException if {@code data.length} is not equal to
+		 *                                  {@code rows * columns}
+		 */
+		public Double(final int rows, final int columns, final double... data) {
+			Matrix.checkMatrixShape(rows, columns);
+			if ((long) rows * columns != data.length)
+				throw new IllegalArgumentException("Count of elements does not match the matrix size");
+			this.data = Arrays.copyOf(data, data.length);
+			this.rows = rows;
+			this.columns = columns;
+			this.offset = 0;
+			this.rowStride = columns;
+			this.columnStride = 1;
 		}
 
 		/**
-		 * Constructs a deep copy of given matrix. Hase same effect as using the
+		 * Constructs a copy of given matrix. Matrices are immutable, so the copy
+		 * shares the storage of {@code mtx}. Has same effect as using the
 		 * {@link #clone()} method.
 		 * 
 		 * @param mtx matrix to be cloned
 		 */
 		public Double(final Matrix.Double mtx) {
 			Objects.requireNonNull(mtx, "Cannot pass null as argument");
-			this.data = mtx.data.clone();
+			// Matrices are immutable, so the storage can be shared
+			this.data = mtx.data;
+			this.rows = mtx.rows;
+			this.columns = mtx.columns;
+			this.offset = mtx.offset;
+			this.rowStride = mtx.rowStride;
+			this.columnStride = mtx.columnStride;
 		}
 
 		/**
@@ -254,12 +503,34 @@ public final class Matrix implements Cloneable, MathEntity {
 		 * @throws NullPointerException if {@code null} is given
 		 */
 		public Double(final Vector.Double... vectors) {
-			final int rows = vectors[0].coordinates();
-			final int cols = vectors.length;
-			this.data = new double[rows][cols];
-			for (int row = 0; row < rows; row++)
-                for (int col = 0; col < cols; col++) this.data[row][col] = vectors[col].get(row);
-			Matrix.checkMatrixData(this.data);
+			this.rows = vectors[0].coordinates();
+			this.columns = vectors.length;
+			Matrix.checkMatrixShape(this.rows, this.columns);
+			// Every vector becomes one column, so store them in column-major order
+			this.data = new double[this.rows * this.columns];
+			for (int col = 0; col < this.columns; col++) {
+				if (vectors[col].coordinates() != this.rows)
+					throw new IllegalArgumentException("2D array is inconsistent");
+				for (int row = 0; row < this.rows; row++)
+					this.data[col * this.rows + row] = vectors[col].get(row);
+			}
+			this.offset = 0;
+			this.rowStride = 1;
+			this.columnStride = this.rows;
+		}
+
+		/**
+		 * Adopts given array without copying it. The array must not be modified
+		 * afterwards.
+		 */
+		Double(final double[] data, final int rows, final int columns, final int offset,
+				final int rowStride, final int columnStride) {
+			this.data = data;
+			this.rows = rows;
+			this.columns = columns;
+			this.offset = offset;
+			this.rowStride = rowStride;
+			this.columnStride = columnStride;
 		}
 
 		/**
@@ -269,26 +540,45 @@ public final class Matrix implements Cloneable, MathEntity {
 		 * @param column the number of column
 		 * 
 		 * @return <var>a</var><sub><var>r</var><var>c</var></sub>
+		 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+		 *                                   of bounds
 		 */
 		public double get(final int row, final int column) {
-			return this.data[row][column];
+			Objects.checkIndex(row, this.rows);
+			Objects.checkIndex(column, this.columns);
+			return this.data[this.offset + row * this.rowStride + column * this.columnStride];
 		}
 		
 		public int rows() {
-			return this.data.length;
+			return this.rows;
 		}
 
 		public int columns() {
-			return this.data[0].length;
+			return this.columns;
 		}
 		
 		public Vector.Double columnAsVector(final int column) {
-			final double[] vector = new double[this.rows()];
-			for (int row = 0; row < vector.length; row++)
-				vector[row] = this.data[row][column];
+			Objects.checkIndex(column, this.columns);
+			final double[] vector = new double[this.rows];
+			final int start = this.offset + column * this.columnStride;
+			if (this.rowStride == 1)
+				System.arraycopy(this.data, start, vector, 0, this.rows);
+			else
+				for (int row = 0; row < vector.length; row++)
+					vector[row] = this.data[start + row * this.rowStride];
 			return new Vector.Double(vector);
 		}
 
+		/**
+		 * Returns the transposed matrix. The returned matrix shares storage with
+		 * {@code this} matrix, so no elements are copied.
+		 *
+		 * @return transposed matrix <var>A</var><sup>T</sup>
+		 */
+		public Double transpose() {
+			return new Double(this.data, this.columns, this.rows, this.offset, this.columnStride, this.rowStride);
+		}
+
 		public boolean isSquareMatrix() {
 			return this.rows() == this.columns();
 		}
@@ -297,9 +587,15 @@ public final class Matrix implements Cloneable, MathEntity {
 		public String toString() {
 			final StringBuilder sb = new StringBuilder();
 			sb.append('[');
-			for (int i = 0; i < this.data.length; i++) {
-				sb.append(Arrays.toString(this.data[i]));
-				if (i < this.data.length - 1)
+			for (int i = 0; i < this.rows; i++) {
+				sb.append('[');
+				for (int j = 0; j < this.columns; j++) {
+					sb.append(this.get(i, j));
+					if (j < this.columns - 1)
+						sb.append(", ");
+				}
+				sb.append(']');
+				if (i < this.rows - 1)
 					sb.append(", ");
 			}
 			sb.append(']');
@@ -312,7 +608,7 @@ public final class Matrix implements Cloneable, MathEntity {
 			sb.append("\\left[ \\begin{align*} ");
 			for (int i = 0; i < this.rows(); i++)
                 for (int j = 0; j < this.columns(); j++) {
-                    sb.append(this.data[i][j]);
+                    sb.append(this.get(i, j));
                     if (j < this.columns() - 1)
                         sb.append(" & ");
                     else if (i < this.rows() - 1)
@@ -321,55 +617,524 @@ public final class Matrix implements Cloneable, MathEntity {
 			sb.append(" \\end{align*} \\right]");
 			return sb.toString();
 		}
+
+		@SuppressWarnings("MethodDoesntCallSuperMethod")
+		@Override
+		public Double clone() {
+			return new Double(this);
+		}
 		
-		public strictfp Double add(final Double mtx2) {
+		public Double add(final Double mtx2) {
 			if (this.rows() != mtx2.rows() || this.columns() != mtx2.columns())
 				throw new IllegalArgumentException("Different matrix sizes");
 
-			final double[][] data = new double[this.rows()][this.columns()];
-			for (int r = 0; r < this.rows(); r++)
-                for (int c = 0; c < this.columns(); c++) data[r][c] = this.get(r, c) + mtx2.get(r, c);
-			return new Double(data);
+			if (this.hasSameContiguousLayout(mtx2)) {
+				final double[] data = new double[this.rows * this.columns];
+				DoubleKernels.PREFERRED.add(this.data, this.offset, mtx2.data, mtx2.offset, data, 0, data.length);
+				return new Double(data, this.rows, this.columns, 0, this.rowStride, this.columnStride);
+			}
+
+			final double[] data = new double[this.rows * this.columns];
+			for (int r = 0; r < this.rows; r++)
+				for (int c = 0; c < this.columns; c++)
+					data[r * this.columns + c] = this.data[this.index(r, c)] + mtx2.data[mtx2.index(r, c)];
+			return new Double(data, this.rows, this.columns, 0, this.columns, 1);
 		}
 
-		public strictfp Double subtract(final Double mtx2) {
+		public Double subtract(final Double mtx2) {
 			if (this.rows() != mtx2.rows() || this.columns() != mtx2.columns())
 				throw new IllegalArgumentException("Different matrix sizes");
 
-			final double[][] data = new double[this.rows()][this.columns()];
-			for (int r = 0; r < this.rows(); r++)
-                for (int c = 0; c < this.columns(); c++) data[r][c] = this.get(r, c) - mtx2.get(r, c);
-			return new Double(data);
+			if (this.hasSameContiguousLayout(mtx2)) {
+				final double[] data = new double[this.rows * this.columns];
+				DoubleKernels.PREFERRED.subtract(this.data, this.offset, mtx2.data, mtx2.offset, data, 0, data.length);
+				return new Double(data, this.rows, this.columns, 0, this.rowStride, this.columnStride);
+			}
+
+			final double[] data = new double[this.rows * this.columns];
+			for (int r = 0; r < this.rows; r++)
+				for (int c = 0; c < this.columns; c++)
+					data[r * this.columns + c] = this.data[this.index(r, c)] - mtx2.data[mtx2.index(r, c)];
+			return new Double(data, this.rows, this.columns, 0, this.columns, 1);
 		}
 
-		public strictfp Double multiply(final Double mtx2) {
+		/**
+		 * Multiplies this matrix by another matrix. Large matrices are multiplied
+		 * using a cache-blocked algorithm in parallel, the result is however always
+		 * the same as if it was computed sequentially.
+		 *
+		 * @param mtx2 the right operand
+		 * @return {@code this} &middot; {@code mtx2}
+		 * @throws IllegalArgumentException if count of columns of {@code this} is
+		 *                                  not equal to count of rows of
+		 *                                  {@code mtx2}
+		 */
+		public Double multiply(final Double mtx2) {
 			if (this.columns() != mtx2.rows())
 				throw new IllegalArgumentException("Cannot multiply given matrices");
 
-			final double[][] data = new double[this.rows()][mtx2.columns()];
-			for (int row = 0; row < this.rows(); row++)
-                for (int col = 0; col < mtx2.columns(); col++) {
-                    double sum = .0;
-                    for (int k = 0; k < this.columns(); k++)
-                        sum += this.get(row, k) * mtx2.get(k, col);
-                    data[row][col] = sum;
-                }
+			final double[] data = MatrixMultiplication.multiply(
+					this.data, this.offset, this.rowStride, this.columnStride,
+					mtx2.data, mtx2.offset, mtx2.rowStride, mtx2.columnStride,
+					this.rows, this.columns, mtx2.columns);
+			return new Double(data, this.rows, mtx2.columns, 0, mtx2.columns, 1);
+		}
+
+		/**
+		 * Multiplies this matrix by another matrix, summing products of every
+		 * element by given algorithm. {@link Summation#FAST} and
+		 * {@link Summation#REPRODUCIBLE} are the same as
+		 * {@link #multiply(Double)}, whose kernel accumulates every element in the
+		 * same order on every machine, so its result never depends on the count
+		 * of threads or on the hardware. {@link Summation#FMA} uses the same kernel
+		 * with fused multiply-add, so it is reproducible too.
+		 *
+		 * @param mtx2      the right operand
+		 * @param summation the summation algorithm
+		 * @return {@code this} &middot; {@code mtx2}
+		 * @throws IllegalArgumentException if count of columns of {@code this} is
+		 *                                  not equal to count of rows of
+		 *                                  {@code mtx2}
+		 * @see Summation
+		 */
+		public Double multiply(final Double mtx2, final Summation summation) {
+			if (this.columns() != mtx2.rows())
+				throw new IllegalArgumentException("Cannot multiply given matrices");
 
-			return new Double(data);
+			final double[] data = MatrixMultiplication.multiply(summation,
+					this.data, this.offset, this.rowStride, this.columnStride,
+					mtx2.data, mtx2.offset, mtx2.rowStride, mtx2.columnStride,
+					this.rows, this.columns, mtx2.columns);
+			return new Double(data, this.rows, mtx2.columns, 0, mtx2.columns, 1);
 		}
 		
-		public strictfp double determinant() {
-			// TODO determinant()
-			throw new UnsupportedOperationException("Not yet implemented");
+		/**
+		 * Adds another matrix to this matrix and stores the sum into
+		 * {@code target} instead of allocating a new matrix.
+		 *
+		 * @param mtx2   the right operand
+		 * @param target the matrix to store the sum to
+		 * @return {@code target}
+		 * @throws IllegalArgumentException if sizes of the matrices differ
+		 */
+		public MutableMatrix addInto(final Double mtx2, final MutableMatrix target) {
+			return target.set(this).addInPlace(mtx2);
 		}
 
-		public strictfp Double pow(final int power, final MathContext mc) {
+		/**
+		 * Subtracts another matrix from this matrix and stores the difference into
+		 * {@code target} instead of allocating a new matrix.
+		 *
+		 * @param mtx2   the right operand
+		 * @param target the matrix to store the difference to
+		 * @return {@code target}
+		 * @throws IllegalArgumentException if sizes of the matrices differ
+		 */
+		public MutableMatrix subtractInto(final Double mtx2, final MutableMatrix target) {
+			return target.set(this).subtractInPlace(mtx2);
+		}
+
+		/**
+		 * Multiplies this matrix by another matrix and stores the product into
+		 * {@code target} instead of allocating a new matrix. The buffer used by the
+		 * multiplication kernel is kept by {@code target}, so repeated calls do
+		 * not allocate any memory.
+		 *
+		 * @param mtx2   the right operand
+		 * @param target the matrix to store the product to
+		 * @return {@code target}
+		 * @throws IllegalArgumentException if the matrices cannot be multiplied or
+		 *                                  if size of {@code target} does not
+		 *                                  match size of the product
+		 */
+		public MutableMatrix multiplyInto(final Double mtx2, final MutableMatrix target) {
+			if (this.columns != mtx2.rows)
+				throw new IllegalArgumentException("Cannot multiply given matrices");
+			target.checkSize(this.rows, mtx2.columns);
+			target.storeProduct(this.data, this.offset, this.rowStride, this.columnStride,
+					mtx2.data, mtx2.offset, mtx2.rowStride, mtx2.columnStride, this.columns);
+			return target;
+		}
+
+		/**
+		 * Returns LU decomposition of this square matrix. The decomposition is
+		 * computed only once and then cached, so solving many systems with the
+		 * same matrix does not decompose it again.
+		 *
+		 * @return LU decomposition of {@code this}
+		 * @throws IllegalStateException if the matrix is not a square matrix
+		 */
+		public LUDecomposition.Double lu() {
+			LUDecomposition.Double lu = this.lu;
+			if (lu == null) {
+				lu = new LUDecomposition.Double(this);
+				this.lu = lu;
+			}
+			return lu;
+		}
+
+		/**
+		 * Returns determinant of this square matrix.
+		 *
+		 * @return det {@code this}
+		 * @throws IllegalStateException if the matrix is not a square matrix
+		 * @see #lu()
+		 */
+		public double determinant() {
+			return this.lu().determinant();
+		}
+
+		/**
+		 * Solves linear system {@code this} &middot; <var>x</var> = {@code b} using
+		 * the cached {@link #lu() LU decomposition}.
+		 *
+		 * @param b the right-hand side
+		 * @return the solution <var>x</var>
+		 * @throws IllegalStateException    if the matrix is not a square matrix
+		 * @throws IllegalArgumentException if size of {@code b} does not match
+		 * @throws ArithmeticException      if the matrix is singular
+		 */
+		public Vector.Double solve(final Vector.Double b) {
+			return this.lu().solve(b);
+		}
+
+		/**
+		 * Solves linear system {@code this} &middot; <var>X</var> = {@code b} for
+		 * all columns of {@code b} at once using the cached {@link #lu() LU
+		 * decomposition}.
+		 *
+		 * @param b the right-hand sides, one per column
+		 * @return the solution <var>X</var>
+		 * @throws IllegalStateException    if the matrix is not a square matrix
+		 * @throws IllegalArgumentException if count of rows of {@code b} does not
+		 *                                  match
+		 * @throws ArithmeticException      if the matrix is singular
+		 */
+		public Double solve(final Double b) {
+			return this.lu().solve(b);
+		}
+
+		/**
+		 * Raises this square matrix to given non-negative power. Same as
+		 * {@link #pow(int)}, {@code mc} is not used.
+		 *
+		 * @param power the exponent
+		 * @param mc    not used
+		 * @return {@code this}<sup>{@code power}</sup>
+		 */
+		public Double pow(final int power, final MathContext mc) {
+			return this.pow(power);
+		}
+
+		/**
+		 * Raises this square matrix to given non-negative power using exponentiation
+		 * by squaring, so only about 2 &middot; log<sub>2</sub>({@code power})
+		 * multiplications are needed. Every multiplication uses the parallel
+		 * multiplication kernel and all of them share the same buffers, so the
+		 * count of allocated arrays does not depend on {@code power}.
+		 *
+		 * @param power the exponent
+		 * @return {@code this}<sup>{@code power}</sup>; identity matrix if
+		 *         {@code power} is zero
+		 * @throws IllegalStateException    if the matrix is not a square matrix
+		 * @throws IllegalArgumentException if {@code power} is negative
+		 *
+		 * @see #powSymmetric(int)
+		 */
+		public Double pow(final int power) {
 			if (!this.isSquareMatrix())
 				throw new IllegalStateException("Matrix is not a square matrix");
-			Double powMtx = this;
-			for (int i = 1; i < power; i++)
-				powMtx = powMtx.multiply(this);
-			return powMtx;
+			if (power < 0)
+				throw new IllegalArgumentException("Power must not be negative");
+
+			final int n = this.rows;
+			double[] result = new double[n * n];
+			double[] base = this.toRowMajorArray();
+			double[] scratch = new double[n * n];
+			final double[] buffer = new double[n * n];
+			boolean identity = true;
+			for (int p = power; p != 0; p >>>= 1) {
+				if ((p & 1) != 0) {
+					if (identity)
+						System.arraycopy(base, 0, result, 0, n * n);
+					else {
+						Arrays.fill(scratch, .0);
+						MatrixMultiplication.multiplyAdd(result, 0, n, 1, base, 0, n, 1, scratch, 0, n, n, n, n, buffer);
+						final double[] swap = result;
+						result = scratch;
+						scratch = swap;
+					}
+					identity = false;
+				}
+				if (p > 1) {
+					Arrays.fill(scratch, .0);
+					MatrixMultiplication.multiplyAdd(base, 0, n, 1, base, 0, n, 1, scratch, 0, n, n, n, n, buffer);
+					final double[] swap = base;
+					base = scratch;
+					scratch = swap;
+				}
+			}
+			if (identity)
+				for (int i = 0; i < n; i++)
+					result[i * n + i] = 1.0;
+			return new Double(result, n, n, 0, n, 1);
+		}
+
+		/**
+		 * Raises this symmetric matrix to given power using its eigendecomposition
+		 * <var>A</var><sup><var>p</var></sup> = <var>V</var> &middot;
+		 * <var>&Lambda;</var><sup><var>p</var></sup> &middot;
+		 * <var>V</var><sup>T</sup>. The cost does not depend on {@code power} at
+		 * all, but the result may differ from {@link #pow(int)} by rounding errors
+		 * of the decomposition.
+		 *
+		 * @param power the exponent
+		 * @return {@code this}<sup>{@code power}</sup>
+		 * @throws IllegalStateException    if the matrix is not symmetric
+		 * @throws IllegalArgumentException if {@code power} is negative
+		 */
+		public Double powSymmetric(final int power) {
+			if (!this.isSymmetric())
+				throw new IllegalStateException("Matrix is not a symmetric matrix");
+			if (power < 0)
+				throw new IllegalArgumentException("Power must not be negative");
+
+			final int n = this.rows;
+			final double[] values = new double[n];
+			final double[] vectors = new double[n * n];
+			SymmetricEigen.decompose(this.toRowMajorArray(), n, values, vectors);
+
+			final double[] scaled = new double[n * n];
+			for (int col = 0; col < n; col++) {
+				final double factor = Math.pow(values[col], power);
+				for (int row = 0; row < n; row++)
+					scaled[row * n + col] = vectors[row * n + col] * factor;
+			}
+			final double[] data = MatrixMultiplication.multiply(scaled, 0, n, 1, vectors, 0, 1, n, n, n, n);
+			return new Double(data, n, n, 0, n, 1);
+		}
+
+		/**
+		 * Returns if the matrix is square and equal to its transposition.
+		 *
+		 * @return if <var>A</var> = <var>A</var><sup>T</sup>
+		 */
+		@SuppressWarnings("FloatingPointEquality")
+		public boolean isSymmetric() {
+			if (!this.isSquareMatrix())
+				return false;
+			for (int row = 0; row < this.rows; row++)
+				for (int col = row + 1; col < this.columns; col++)
+					if (this.data[this.index(row, col)] != this.data[this.index(col, row)])
+						return false;
+			return true;
+		}
+
+		/**
+		 * Copies elements into a new array in row-major order.
+		 */
+		double[] toRowMajorArray() {
+			final double[] array = new double[this.rows * this.columns];
+			for (int row = 0; row < this.rows; row++) {
+				final int start = this.offset + row * this.rowStride;
+				if (this.columnStride == 1)
+					System.arraycopy(this.data, start, array, row * this.columns, this.columns);
+				else
+					for (int col = 0; col < this.columns; col++)
+						array[row * this.columns + col] = this.data[start + col * this.columnStride];
+			}
+			return array;
+		}
+
+		private int index(final int row, final int column) {
+			return this.offset + row * this.rowStride + column * this.columnStride;
+		}
+
+		/**
+		 * Returns if both matrices occupy a contiguous range of their arrays in the
+		 * same order, so they can be processed as flat arrays.
+		 */
+		private boolean hasSameContiguousLayout(final Double mtx2) {
+			return this.isContiguous() && mtx2.isContiguous()
+					&& this.rowStride == mtx2.rowStride && this.columnStride == mtx2.columnStride;
+		}
+
+		private boolean isContiguous() {
+			return (this.columnStride == 1 && this.rowStride == this.columns)
+					|| (this.rowStride == 1 && this.columnStride == this.rows);
+		}
+
+		/**
+		 * Replaces this matrix by its compact serialized form.
+		 */
+		private Object writeReplace() {
+			return new Ser(Ser.MATRIX_DOUBLE, this);
+		}
+
+		/**
+		 * Reads the rows of the default serialized form. Offset and strides are
+		 * not part of it, the matrix is rebuilt by {@link #readResolve()}.
+		 */
+		private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+			final double[][] rows = (double[][]) in.readFields().get("data", null);
+			try {
+				Matrix.checkMatrixData(rows);
+			} catch (final IllegalArgumentException | NullPointerException exc) {
+				throw new InvalidObjectException("Invalid matrix data");
+			}
+			this.serialData = rows;
+		}
+
+		private Object readResolve() {
+			// Copies the rows, so the stream keeps no reference to the storage
+			return new Matrix.Double(this.serialData);
+		}
+
+		/**
+		 * Writes count of rows and columns and all elements in row-major order.
+		 */
+		void writeExternal(final DataOutput out) throws IOException {
+			Ser.writeSize(out, this.rows);
+			Ser.writeSize(out, this.columns);
+			if (this.columnStride == 1 && this.rowStride == this.columns)
+				Ser.writeDoubles(out, this.data, this.offset, this.rows * this.columns);
+			else
+				Ser.writeDoubles(out, this.toRowMajorArray(), 0, this.rows * this.columns);
+		}
+
+		static Matrix.Double readExternal(final DataInput in) throws IOException {
+			final int rows = Ser.readSize(in);
+			final int columns = Ser.readSize(in);
+			Matrix.checkSerializedShape(rows, columns);
+			return new Matrix.Double(Ser.readDoubles(in, rows * columns), rows, columns, 0, columns, 1);
+		}
+
+		/**
+		 * <p>
+		 * Assembles a {@link Matrix.Double} row by row, e.g. from blocks of rows
+		 * read from a stream. Rows are copied straight into the storage of the
+		 * resulting matrix, which is adopted by {@link #build()} without another
+		 * copy if the count of rows was known in advance.
+		 * </p>
+		 * <p>
+		 * Builders are not thread-safe.
+		 * </p>
+		 */
+		public static final class Builder {
+
+			private final int columns;
+			private double[] data;
+			private int rows;
+
+			/**
+			 * Creates a builder of a matrix with given count of columns.
+			 *
+			 * @param columns count of columns
+			 * @throws IllegalArgumentException if {@code columns} is not positive
+			 */
+			public Builder(final int columns) {
+				this(16, columns);
+			}
+
+			/**
+			 * Creates a builder of a matrix with given count of columns and
+			 * expected count of rows. More rows can still be added, at the cost
+			 * of growing the storage.
+			 *
+			 * @param rows    expected count of rows
+			 * @param columns count of columns
+			 * @throws IllegalArgumentException if {@code columns} is not positive,
+			 *                                  {@code rows} is negative or the
+			 *                                  matrix would be too large
+			 */
+			public Builder(final int rows, final int columns) {
+				if (columns <= 0)
+					throw new IllegalArgumentException("Count of columns must be positive");
+				if (rows < 0 || (long) rows * columns > Integer.MAX_VALUE)
+					throw new IllegalArgumentException("Invalid count of rows");
+				this.columns = columns;
+				this.data = new double[rows * columns];
+			}
+
+			/**
+			 * Appends a row.
+			 *
+			 * @param row elements of the row
+			 * @return this builder
+			 * @throws IllegalArgumentException if length of {@code row} is not
+			 *                                  equal to the count of columns
+			 */
+			public Builder addRow(final double... row) {
+				if (row.length != this.columns)
+					throw new IllegalArgumentException("Length of the row does not match the count of columns");
+				return this.addRows(row, 0, 1);
+			}
+
+			/**
+			 * Appends rows stored in row-major order in {@code block}, starting at
+			 * {@code offset}.
+			 *
+			 * @param block  elements of the rows
+			 * @param offset index of the first element of the first row
+			 * @param rows   count of rows
+			 * @return this builder
+			 * @throws IndexOutOfBoundsException if {@code block} is too short
+			 * @throws IllegalStateException     if the matrix would be too large
+			 */
+			public Builder addRows(final double[] block, final int offset, final int rows) {
+				final int length = Math.multiplyExact(rows, this.columns);
+				Objects.checkFromIndexSize(offset, length, block.length);
+				this.ensureCapacity(this.rows + (long) rows);
+				System.arraycopy(block, offset, this.data, this.rows * this.columns, length);
+				this.rows += rows;
+				return this;
+			}
+
+			/**
+			 * Returns the count of rows added so far.
+			 *
+			 * @return count of rows
+			 */
+			public int rows() {
+				return this.rows;
+			}
+
+			/**
+			 * Returns the count of columns.
+			 *
+			 * @return count of columns
+			 */
+			public int columns() {
+				return this.columns;
+			}
+
+			/**
+			 * Creates the matrix from all added rows. The builder is empty
+			 * afterwards.
+			 *
+			 * @return the matrix
+			 * @throws IllegalArgumentException if no rows have been added
+			 */
+			public Matrix.Double build() {
+				Matrix.checkMatrixShape(this.rows, this.columns);
+				final int size = this.rows * this.columns;
+				// The array is handed over to the matrix, so it must not be used anymore
+				final double[] array = this.data.length == size ? this.data : Arrays.copyOf(this.data, size);
+				final Matrix.Double matrix = new Matrix.Double(array, this.rows, this.columns, 0, this.columns, 1);
+				this.data = new double[0];
+				this.rows = 0;
+				return matrix;
+			}
+
+			private void ensureCapacity(final long rows) {
+				if (rows * this.columns <= this.data.length)
+					return;
+				if (rows * this.columns > Integer.MAX_VALUE)
+					throw new IllegalStateException("Matrix is too large");
+				final long grown = Math.max(rows, this.rows + (this.rows >> 1) + 1) * this.columns;
+				final int capacity = (int) Math.min(grown, Integer.MAX_VALUE / this.columns * this.columns);
+				this.data = Arrays.copyOf(this.data, capacity);
+			}
 		}
 
 	}
@@ -0,0 +1,294 @@
+package jmath;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Cache-blocked multiplication kernel used by {@link Matrix.Double#multiply(Matrix.Double)}.
+ * <p>
+ * Matrices are given as flat arrays together with an offset of the first
+ * element and strides between two rows and two columns. The right operand is
+ * first packed into column panels, so that every panel row is contiguous in
+ * memory regardless of the layout of the operand. Rows of the left operand
+ * are then multiplied panel by panel in blocks of {@link #BLOCK_DEPTH} rows of
+ * the panel, which keeps the currently used part of the panel in the cache.
+ * Large products are split by rows of the result across the
+ * {@link ForkJoinPool#commonPool() common pool}. Every element of the result is
+ * accumulated in the same order as by the naive algorithm, so the result does
+ * not depend on the number of threads.
+ * </p>
+ */
+final class MatrixMultiplication {
+
+	/**
+	 * Width of a packed panel of the right operand (count of columns).
+	 */
+	static final int PANEL_WIDTH = 256;
+
+	/**
+	 * Count of panel rows multiplied before moving to next row of the result.
+	 */
+	static final int BLOCK_DEPTH = 128;
+
+	/**
+	 * Products with less multiplications are computed by a plain loop without
+	 * packing.
+	 */
+	private static final long PACKING_THRESHOLD = 32L * 32L * 32L;
+
+	/**
+	 * Products with less multiplications are not split across threads.
+	 */
+	private static final long PARALLEL_THRESHOLD = 128L * 128L * 128L;
+
+	/**
+	 * Minimum count of rows of the result computed by a single task.
+	 */
+	private static final int MIN_TASK_ROWS = 16;
+
+	// Do not create any instances
+	private MatrixMultiplication() {
+	}
+
+	/**
+	 * Multiplies two matrices and returns the product as a new row-major array.
+	 *
+	 * @param a        elements of the left operand
+	 * @param aOffset  index of the first element of the left operand
+	 * @param aRows    distance between two rows of the left operand
+	 * @param aColumns distance between two columns of the left operand
+	 * @param b        elements of the right operand
+	 * @param bOffset  index of the first element of the right operand
+	 * @param bRows    distance between two rows of the right operand
+	 * @param bColumns distance between two columns of the right operand
+	 * @param rows     count of rows of the left operand
+	 * @param depth    count of columns of the left operand and count of rows of
+	 *                 the right operand
+	 * @param columns  count of columns of the right operand
+	 * @return the product stored in row-major order
+	 */
+	static double[] multiply(final double[] a, final int aOffset, final int aRows, final int aColumns,
+			final double[] b, final int bOffset, final int bRows, final int bColumns,
+			final int rows, final int depth, final int columns) {
+		final double[] c = new double[rows * columns];
+		MatrixMultiplication.multiplyAdd(a, aOffset, aRows, aColumns, b, bOffset, bRows, bColumns,
+				c, 0, columns, rows, depth, columns, null);
+		return c;
+	}
+
+	/**
+	 * Multiplies two matrices computing every element of the product as a dot
+	 * product summed by given algorithm. Parameters are the same as in
+	 * {@link #multiply(double[], int, int, int, double[], int, int, int, int, int, int)}.
+	 * {@link Summation#FAST}, {@link Summation#REPRODUCIBLE} and
+	 * {@link Summation#FMA} use the cache-blocked kernel, which sums in a fixed
+	 * order.
+	 *
+	 * @param summation the summation algorithm
+	 */
+	static double[] multiply(final Summation summation, final double[] a, final int aOffset, final int aRows,
+			final int aColumns, final double[] b, final int bOffset, final int bRows, final int bColumns,
+			final int rows, final int depth, final int columns) {
+		if (summation == Summation.FAST || summation == Summation.REPRODUCIBLE)
+			return MatrixMultiplication.multiply(a, aOffset, aRows, aColumns, b, bOffset, bRows, bColumns,
+					rows, depth, columns);
+		if (summation == Summation.FMA) {
+			final double[] c = new double[rows * columns];
+			MatrixMultiplication.multiplyAdd(a, aOffset, aRows, aColumns, b, bOffset, bRows, bColumns,
+					c, 0, columns, rows, depth, columns, null, true);
+			return c;
+		}
+
+		// Rows of the left and columns of the right operand must be contiguous
+		final double[] left;
+		if (aColumns == 1)
+			left = null;
+		else {
+			left = new double[rows * depth];
+			for (int i = 0; i < rows; i++)
+				for (int k = 0; k < depth; k++)
+					left[i * depth + k] = a[aOffset + i * aRows + k * aColumns];
+		}
+		final double[] right = new double[columns * depth];
+		for (int k = 0; k < depth; k++)
+			for (int j = 0; j < columns; j++)
+				right[j * depth + k] = b[bOffset + k * bRows + j * bColumns];
+
+		final double[] c = new double[rows * columns];
+		final IntStream indices = IntStream.range(0, rows);
+		final long work = (long) rows * depth * columns;
+		(work < PARALLEL_THRESHOLD ? indices : indices.parallel()).forEach(i -> {
+			final double[] row = left == null ? a : left;
+			final int rowOffset = left == null ? aOffset + i * aRows : i * depth;
+			for (int j = 0; j < columns; j++)
+				c[i * columns + j] = DotProduct.dot(summation, row, rowOffset, right, j * depth, depth);
+		});
+		return c;
+	}
+
+	/**
+	 * Adds product of two matrices to a row-major matrix <var>C</var>. Parameters
+	 * are the same as in
+	 * {@link #multiply(double[], int, int, int, double[], int, int, int, int, int, int)}.
+	 *
+	 * @param c       elements of the matrix to add the product to
+	 * @param cOffset index of the first element of <var>C</var>
+	 * @param cRows   distance between two rows of <var>C</var>
+	 * @param buffer  array of at least {@code depth * columns} elements used to
+	 *                pack the right operand, or {@code null} to allocate a new
+	 *                one when needed
+	 */
+	static void multiplyAdd(final double[] a, final int aOffset, final int aRows, final int aColumns,
+			final double[] b, final int bOffset, final int bRows, final int bColumns,
+			final double[] c, final int cOffset, final int cRows,
+			final int rows, final int depth, final int columns, final double[] buffer) {
+		MatrixMultiplication.multiplyAdd(a, aOffset, aRows, aColumns, b, bOffset, bRows, bColumns,
+				c, cOffset, cRows, rows, depth, columns, buffer, false);
+	}
+
+	/**
+	 * Adds product of two matrices to a row-major matrix <var>C</var>, every
+	 * step either rounded twice or, if {@code fused}, once using
+	 * {@link Math#fma(double, double, double)}.
+	 */
+	static void multiplyAdd(final double[] a, final int aOffset, final int aRows, final int aColumns,
+			final double[] b, final int bOffset, final int bRows, final int bColumns,
+			final double[] c, final int cOffset, final int cRows,
+			final int rows, final int depth, final int columns, final double[] buffer, final boolean fused) {
+		final long work = (long) rows * depth * columns;
+		if (work < PACKING_THRESHOLD) {
+			for (int i = 0; i < rows; i++) {
+				final int cRow = cOffset + i * cRows;
+				for (int k = 0; k < depth; k++) {
+					final double aik = a[aOffset + i * aRows + k * aColumns];
+					final int bRow = bOffset + k * bRows;
+					if (bColumns == 1 && fused)
+						DoubleKernels.PREFERRED.axpyFused(aik, b, bRow, c, cRow, columns);
+					else if (bColumns == 1)
+						DoubleKernels.PREFERRED.axpy(aik, b, bRow, c, cRow, columns);
+					else if (fused)
+						for (int j = 0; j < columns; j++)
+							c[cRow + j] = Math.fma(aik, b[bRow + j * bColumns], c[cRow + j]);
+					else
+						for (int j = 0; j < columns; j++)
+							c[cRow + j] += aik * b[bRow + j * bColumns];
+				}
+			}
+			return;
+		}
+
+		final double[] packed = buffer != null ? buffer : new double[depth * columns];
+		MatrixMultiplication.pack(b, bOffset, bRows, bColumns, depth, columns, packed);
+		final PanelTask task = new PanelTask(a, aOffset, aRows, aColumns, packed, c, cOffset, cRows,
+				depth, columns, fused, 0, rows);
+		if (work < PARALLEL_THRESHOLD || rows < 2 * MIN_TASK_ROWS)
+			task.compute();
+		else
+			ForkJoinPool.commonPool().invoke(task);
+	}
+
+	/**
+	 * Packs the matrix into column panels of {@link #PANEL_WIDTH} columns. Panel
+	 * starting at column <var>j</var><sub>0</sub> of width <var>w</var> starts at
+	 * index <var>j</var><sub>0</sub> &middot; <var>depth</var> and its
+	 * <var>k</var><sup>th</sup> row at index <var>j</var><sub>0</sub> &middot;
+	 * <var>depth</var> + <var>k</var> &middot; <var>w</var>.
+	 */
+	private static void pack(final double[] b, final int offset, final int rowStride, final int columnStride,
+			final int depth, final int columns, final double[] packed) {
+		for (int j0 = 0; j0 < columns; j0 += PANEL_WIDTH) {
+			final int width = Math.min(PANEL_WIDTH, columns - j0);
+			int index = j0 * depth;
+			for (int k = 0; k < depth; k++) {
+				final int row = offset + k * rowStride + j0 * columnStride;
+				if (columnStride == 1)
+					System.arraycopy(b, row, packed, index, width);
+				else
+					for (int j = 0; j < width; j++)
+						packed[index + j] = b[row + j * columnStride];
+				index += width;
+			}
+		}
+	}
+
+	/**
+	 * Computes rows {@code [from; to)} of the product, splitting itself if there
+	 * are too many rows.
+	 */
+	private static final class PanelTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 0x0100L;
+
+		private final double[] a;
+		private final int aOffset;
+		private final int aRows;
+		private final int aColumns;
+		private final double[] packed;
+		private final double[] c;
+		private final int cOffset;
+		private final int cRows;
+		private final int depth;
+		private final int columns;
+		private final boolean fused;
+		private final int from;
+		private final int to;
+
+		PanelTask(final double[] a, final int aOffset, final int aRows, final int aColumns, final double[] packed,
+				final double[] c, final int cOffset, final int cRows, final int depth, final int columns,
+				final boolean fused, final int from, final int to) {
+			this.a = a;
+			this.aOffset = aOffset;
+			this.aRows = aRows;
+			this.aColumns = aColumns;
+			this.packed = packed;
+			this.c = c;
+			this.cOffset = cOffset;
+			this.cRows = cRows;
+			this.depth = depth;
+			this.columns = columns;
+			this.fused = fused;
+			this.from = from;
+			this.to = to;
+		}
+
+		private PanelTask split(final int from, final int to) {
+			return new PanelTask(this.a, this.aOffset, this.aRows, this.aColumns, this.packed, this.c,
+					this.cOffset, this.cRows, this.depth, this.columns, this.fused, from, to);
+		}
+
+		@Override
+		protected void compute() {
+			final int count = this.to - this.from;
+			if (count >= 2 * MIN_TASK_ROWS && inForkJoinPool()) {
+				final int middle = this.from + count / 2;
+				invokeAll(this.split(this.from, middle), this.split(middle, this.to));
+				return;
+			}
+			this.multiplyBlock();
+		}
+
+		private void multiplyBlock() {
+			for (int j0 = 0; j0 < this.columns; j0 += PANEL_WIDTH) {
+				final int width = Math.min(PANEL_WIDTH, this.columns - j0);
+				final int panel = j0 * this.depth;
+				for (int k0 = 0; k0 < this.depth; k0 += BLOCK_DEPTH) {
+					final int k1 = Math.min(k0 + BLOCK_DEPTH, this.depth);
+					for (int i = this.from; i < this.to; i++) {
+						final int aRow = this.aOffset + i * this.aRows;
+						final int cRow = this.cOffset + i * this.cRows + j0;
+						int index = panel + k0 * width;
+						for (int k = k0; k < k1; k++) {
+							final double aik = this.a[aRow + k * this.aColumns];
+							if (this.fused)
+								DoubleKernels.PREFERRED.axpyFused(aik, this.packed, index, this.c, cRow, width);
+							else
+								DoubleKernels.PREFERRED.axpy(aik, this.packed, index, this.c, cRow, width);
+							index += width;
+						}
+					}
+				}
+			}
+		}
+	}
+}
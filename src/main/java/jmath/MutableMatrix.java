@@ -0,0 +1,343 @@
+package jmath;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * <p>
+ * Represents a mutable mathematical matrix of {@code double}s. Unlike
+ * {@link Matrix.Double}, whose every operation allocates a new matrix, all
+ * operations of this class write the result into existing storage. It is meant
+ * for loops which repeatedly update matrices of the same size, where allocation
+ * of a new matrix in every step would dominate the computation.
+ * </p>
+ * <p>
+ * Elements are stored in a single array in row-major order. Instances are not
+ * thread-safe.
+ * </p>
+ * <p>
+ * <b>Attention!</b> Rows and columns are numbered from zero!
+ * </p>
+ *
+ * @see Matrix.Double#addInto(Matrix.Double, MutableMatrix)
+ * @see Matrix.Double#subtractInto(Matrix.Double, MutableMatrix)
+ * @see Matrix.Double#multiplyInto(Matrix.Double, MutableMatrix)
+ */
+public final class MutableMatrix implements Cloneable, MathEntity {
+
+	private static final long serialVersionUID = 0x0100L;
+
+	private final double[] data;
+	private final int rows;
+	private final int columns;
+
+	/**
+	 * Buffer used by the multiplication kernel.
+	 */
+	private transient double[] buffer;
+
+	/**
+	 * Creates a matrix of given size filled with zeros.
+	 *
+	 * @param rows    count of rows
+	 * @param columns count of columns
+	 * @throws IllegalArgumentException if {@code rows} or {@code columns} is not
+	 *                                  positive
+	 */
+	public MutableMatrix(final int rows, final int columns) {
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("Matrix size must be positive");
+		this.data = new double[Math.multiplyExact(rows, columns)];
+		this.rows = rows;
+		this.columns = columns;
+	}
+
+	/**
+	 * Creates a mutable copy of given matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @throws NullPointerException if {@code matrix} is {@code null}
+	 */
+	public MutableMatrix(final Matrix.Double matrix) {
+		this(matrix.rows(), matrix.columns());
+		this.set(matrix);
+	}
+
+	/**
+	 * Creates a copy of given matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @throws NullPointerException if {@code matrix} is {@code null}
+	 */
+	public MutableMatrix(final MutableMatrix matrix) {
+		this.data = matrix.data.clone();
+		this.rows = matrix.rows;
+		this.columns = matrix.columns;
+	}
+
+	/**
+	 * Gets a number located at specific position.
+	 *
+	 * @param row    the number of row
+	 * @param column the number of column
+	 * @return <var>a</var><sub><var>r</var><var>c</var></sub>
+	 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+	 *                                   of bounds
+	 */
+	public double get(final int row, final int column) {
+		Objects.checkIndex(row, this.rows);
+		Objects.checkIndex(column, this.columns);
+		return this.data[row * this.columns + column];
+	}
+
+	/**
+	 * Sets a number located at specific position.
+	 *
+	 * @param row    the number of row
+	 * @param column the number of column
+	 * @param value  the new value
+	 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+	 *                                   of bounds
+	 */
+	public void set(final int row, final int column, final double value) {
+		Objects.checkIndex(row, this.rows);
+		Objects.checkIndex(column, this.columns);
+		this.data[row * this.columns + column] = value;
+	}
+
+	public int rows() {
+		return this.rows;
+	}
+
+	public int columns() {
+		return this.columns;
+	}
+
+	/**
+	 * Copies all elements of given matrix into this matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix set(final Matrix.Double matrix) {
+		this.checkSize(matrix.rows, matrix.columns);
+		for (int row = 0; row < this.rows; row++) {
+			final int start = matrix.offset + row * matrix.rowStride;
+			if (matrix.columnStride == 1)
+				System.arraycopy(matrix.data, start, this.data, row * this.columns, this.columns);
+			else
+				for (int col = 0; col < this.columns; col++)
+					this.data[row * this.columns + col] = matrix.data[start + col * matrix.columnStride];
+		}
+		return this;
+	}
+
+	/**
+	 * Copies all elements of given matrix into this matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix set(final MutableMatrix matrix) {
+		this.checkSize(matrix.rows, matrix.columns);
+		System.arraycopy(matrix.data, 0, this.data, 0, this.data.length);
+		return this;
+	}
+
+	/**
+	 * Sets all elements to given value.
+	 *
+	 * @param value the value
+	 * @return {@code this}
+	 */
+	public MutableMatrix fill(final double value) {
+		Arrays.fill(this.data, value);
+		return this;
+	}
+
+	/**
+	 * Adds given matrix to this matrix.
+	 *
+	 * @param mtx2 the matrix to add
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix addInPlace(final Matrix.Double mtx2) {
+		return this.addScaledInPlace(1.0, mtx2);
+	}
+
+	/**
+	 * Adds given matrix to this matrix.
+	 *
+	 * @param mtx2 the matrix to add
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix addInPlace(final MutableMatrix mtx2) {
+		return this.addScaledInPlace(1.0, mtx2);
+	}
+
+	/**
+	 * Subtracts given matrix from this matrix.
+	 *
+	 * @param mtx2 the matrix to subtract
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix subtractInPlace(final Matrix.Double mtx2) {
+		return this.addScaledInPlace(-1.0, mtx2);
+	}
+
+	/**
+	 * Subtracts given matrix from this matrix.
+	 *
+	 * @param mtx2 the matrix to subtract
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix subtractInPlace(final MutableMatrix mtx2) {
+		return this.addScaledInPlace(-1.0, mtx2);
+	}
+
+	/**
+	 * Adds {@code alpha} &middot; {@code mtx2} to this matrix.
+	 *
+	 * @param alpha the factor
+	 * @param mtx2  the matrix to add
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix addScaledInPlace(final double alpha, final Matrix.Double mtx2) {
+		this.checkSize(mtx2.rows, mtx2.columns);
+		if (mtx2.columnStride == 1 && mtx2.rowStride == this.columns) {
+			DoubleKernels.PREFERRED.axpy(alpha, mtx2.data, mtx2.offset, this.data, 0, this.data.length);
+			return this;
+		}
+		for (int row = 0; row < this.rows; row++) {
+			final int start = mtx2.offset + row * mtx2.rowStride;
+			for (int col = 0; col < this.columns; col++)
+				this.data[row * this.columns + col] += alpha * mtx2.data[start + col * mtx2.columnStride];
+		}
+		return this;
+	}
+
+	/**
+	 * Adds {@code alpha} &middot; {@code mtx2} to this matrix.
+	 *
+	 * @param alpha the factor
+	 * @param mtx2  the matrix to add
+	 * @return {@code this}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public MutableMatrix addScaledInPlace(final double alpha, final MutableMatrix mtx2) {
+		this.checkSize(mtx2.rows, mtx2.columns);
+		DoubleKernels.PREFERRED.axpy(alpha, mtx2.data, 0, this.data, 0, this.data.length);
+		return this;
+	}
+
+	/**
+	 * Multiplies all elements by given factor.
+	 *
+	 * @param factor the factor
+	 * @return {@code this}
+	 */
+	public MutableMatrix scaleInPlace(final double factor) {
+		for (int i = 0; i < this.data.length; i++)
+			this.data[i] *= factor;
+		return this;
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix and stores the product into
+	 * {@code target}.
+	 *
+	 * @param mtx2   the right operand
+	 * @param target the matrix to store the product to
+	 * @return {@code target}
+	 * @throws IllegalArgumentException if the matrices cannot be multiplied, if
+	 *                                  size of {@code target} does not match
+	 *                                  size of the product or if {@code target}
+	 *                                  is one of the operands
+	 */
+	public MutableMatrix multiplyInto(final Matrix.Double mtx2, final MutableMatrix target) {
+		if (this.columns != mtx2.rows)
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		if (target == this)
+			throw new IllegalArgumentException("Target must not be an operand");
+		target.checkSize(this.rows, mtx2.columns);
+		target.storeProduct(this.data, 0, this.columns, 1,
+				mtx2.data, mtx2.offset, mtx2.rowStride, mtx2.columnStride, this.columns);
+		return target;
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix and stores the product into
+	 * {@code target}.
+	 *
+	 * @param mtx2   the right operand
+	 * @param target the matrix to store the product to
+	 * @return {@code target}
+	 * @throws IllegalArgumentException if the matrices cannot be multiplied, if
+	 *                                  size of {@code target} does not match
+	 *                                  size of the product or if {@code target}
+	 *                                  is one of the operands
+	 */
+	public MutableMatrix multiplyInto(final MutableMatrix mtx2, final MutableMatrix target) {
+		if (this.columns != mtx2.rows)
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		if (target == this || target == mtx2)
+			throw new IllegalArgumentException("Target must not be an operand");
+		target.checkSize(this.rows, mtx2.columns);
+		target.storeProduct(this.data, 0, this.columns, 1, mtx2.data, 0, mtx2.columns, 1, this.columns);
+		return target;
+	}
+
+	/**
+	 * Returns an immutable copy of this matrix.
+	 *
+	 * @return the copy as {@link Matrix.Double}
+	 */
+	public Matrix.Double toMatrix() {
+		return new Matrix.Double(this.data.clone(), this.rows, this.columns, 0, this.columns, 1);
+	}
+
+	@Override
+	public String toString() {
+		return this.toMatrix().toString();
+	}
+
+	@Override
+	public String toLaTeX() {
+		return this.toMatrix().toLaTeX();
+	}
+
+	@SuppressWarnings("MethodDoesntCallSuperMethod")
+	@Override
+	public MutableMatrix clone() {
+		return new MutableMatrix(this);
+	}
+
+	/**
+	 * Throws {@link IllegalArgumentException} if the size of this matrix is not
+	 * {@code rows} &times; {@code columns}.
+	 */
+	void checkSize(final int rows, final int columns) {
+		if (this.rows != rows || this.columns != columns)
+			throw new IllegalArgumentException("Different matrix sizes");
+	}
+
+	/**
+	 * Overwrites this matrix with product of given strided matrices.
+	 */
+	void storeProduct(final double[] a, final int aOffset, final int aRows, final int aColumns,
+			final double[] b, final int bOffset, final int bRows, final int bColumns, final int depth) {
+		final int size = depth * this.columns;
+		if (this.buffer == null || this.buffer.length < size)
+			this.buffer = new double[size];
+		Arrays.fill(this.data, .0);
+		MatrixMultiplication.multiplyAdd(a, aOffset, aRows, aColumns, b, bOffset, bRows, bColumns,
+				this.data, 0, this.columns, this.rows, depth, this.columns, this.buffer);
+	}
+}
@@ -0,0 +1,670 @@
+package jmath;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Represents a mathematical matrix of {@code double}s stored outside of the
+ * Java heap. It is meant for matrices of billions of elements, which do not
+ * fit into a single array and which would make collection of the heap slow.
+ * </p>
+ * <p>
+ * Elements are stored in row-major order in direct buffers of at most 1 GiB,
+ * every buffer holds whole rows. The memory is released when the matrix
+ * becomes unreachable, like memory of any other direct buffer, and counts
+ * towards the limit given by {@code -XX:MaxDirectMemorySize}. A matrix can
+ * also be {@linkplain #map(FileChannel, FileChannel.MapMode, long, int, int)
+ * mapped} from a file, in which case the operating system loads its pages on
+ * demand.
+ * </p>
+ * <p>
+ * Results of operations are new off-heap matrices. Large matrices are
+ * multiplied by tiles copied to the heap, every element of the product is
+ * however accumulated in the same order as by
+ * {@link Matrix.Double#multiply(Matrix.Double)}, so both give the same
+ * result. Unlike {@link Matrix.Double}, elements can be modified, but
+ * instances are not thread-safe while being modified.
+ * </p>
+ * <p>
+ * <b>Attention!</b> Rows and columns are numbered from zero!
+ * </p>
+ *
+ * @see #OffHeapMatrix(int, int)
+ * @see #OffHeapMatrix(Matrix.Double)
+ * @see #map(FileChannel, FileChannel.MapMode, long, int, int)
+ * @see #toMatrix()
+ */
+public final class OffHeapMatrix implements MathEntity {
+
+	private static final long serialVersionUID = 0x0100L;
+
+	/**
+	 * Maximal count of elements in a single buffer.
+	 */
+	private static final int CHUNK_ELEMENTS = 1 << 27;
+
+	/**
+	 * Size of square tiles copied to the heap by the multiplication.
+	 */
+	static final int TILE = 512;
+
+	/**
+	 * Matrices with less elements are processed by the current thread.
+	 */
+	private static final long PARALLEL_THRESHOLD = 1L << 16;
+
+	private final int rows;
+	private final int columns;
+
+	private transient int rowsPerChunk;
+	private transient DoubleBuffer[] chunks;
+
+	/**
+	 * Creates a matrix of given size filled with zeros.
+	 *
+	 * @param rows    count of rows
+	 * @param columns count of columns
+	 * @throws IllegalArgumentException if {@code rows} or {@code columns} is not
+	 *                                  positive or if a row does not fit into a
+	 *                                  single buffer
+	 */
+	public OffHeapMatrix(final int rows, final int columns) {
+		OffHeapMatrix.checkSize(rows, columns);
+		this.rows = rows;
+		this.columns = columns;
+		this.allocate();
+	}
+
+	private OffHeapMatrix(final int rows, final int columns, final DoubleBuffer[] chunks) {
+		this.rows = rows;
+		this.columns = columns;
+		this.rowsPerChunk = OffHeapMatrix.rowsPerChunk(rows, columns);
+		this.chunks = chunks;
+	}
+
+	/**
+	 * Creates an off-heap copy of given matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @throws NullPointerException if {@code matrix} is {@code null}
+	 */
+	public OffHeapMatrix(final Matrix.Double matrix) {
+		this(matrix.rows(), matrix.columns());
+		final double[] row = new double[this.columns];
+		for (int r = 0; r < this.rows; r++) {
+			final int start = matrix.offset + r * matrix.rowStride;
+			if (matrix.columnStride == 1)
+				this.putRow(r, 0, matrix.data, start, this.columns);
+			else {
+				for (int c = 0; c < this.columns; c++)
+					row[c] = matrix.data[start + c * matrix.columnStride];
+				this.putRow(r, 0, row, 0, this.columns);
+			}
+		}
+	}
+
+	/**
+	 * Creates a copy of given matrix.
+	 *
+	 * @param matrix the matrix to copy
+	 * @throws NullPointerException if {@code matrix} is {@code null}
+	 */
+	public OffHeapMatrix(final OffHeapMatrix matrix) {
+		this(matrix.rows, matrix.columns);
+		for (int i = 0; i < this.chunks.length; i++)
+			this.chunks[i].put(0, matrix.chunks[i], 0, matrix.chunks[i].capacity());
+	}
+
+	/**
+	 * Maps a region of a file as a matrix, without reading it. The region
+	 * contains elements in row-major order as little-endian {@code double}s
+	 * and is mapped in parts of at most 1 GiB. Changes of a matrix mapped in
+	 * {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode are written to the
+	 * file, a matrix mapped in {@link FileChannel.MapMode#READ_ONLY READ_ONLY}
+	 * mode throws {@link java.nio.ReadOnlyBufferException} when modified.
+	 *
+	 * @param channel  the file channel
+	 * @param mode     the mapping mode
+	 * @param position position of the first element in the file
+	 * @param rows     count of rows
+	 * @param columns  count of columns
+	 * @return the mapped matrix
+	 * @throws IOException              if the file cannot be mapped
+	 * @throws IllegalArgumentException if {@code rows} or {@code columns} is not
+	 *                                  positive or if a row does not fit into a
+	 *                                  single part
+	 * @see FileChannel#map(FileChannel.MapMode, long, long)
+	 */
+	public static OffHeapMatrix map(final FileChannel channel, final FileChannel.MapMode mode, final long position,
+			final int rows, final int columns) throws IOException {
+		OffHeapMatrix.checkSize(rows, columns);
+		final int rowsPerChunk = OffHeapMatrix.rowsPerChunk(rows, columns);
+		final DoubleBuffer[] chunks = new DoubleBuffer[(rows + rowsPerChunk - 1) / rowsPerChunk];
+		for (int i = 0; i < chunks.length; i++) {
+			final long start = position + (long) i * rowsPerChunk * columns * java.lang.Double.BYTES;
+			final int chunkRows = Math.min(rowsPerChunk, rows - i * rowsPerChunk);
+			chunks[i] = channel.map(mode, start, (long) chunkRows * columns * java.lang.Double.BYTES)
+					.order(ByteOrder.LITTLE_ENDIAN)
+					.asDoubleBuffer();
+		}
+		return new OffHeapMatrix(rows, columns, chunks);
+	}
+
+	/**
+	 * Gets a number located at specific position.
+	 *
+	 * @param row    the number of row
+	 * @param column the number of column
+	 * @return <var>a</var><sub><var>r</var><var>c</var></sub>
+	 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+	 *                                   of bounds
+	 */
+	public double get(final int row, final int column) {
+		Objects.checkIndex(row, this.rows);
+		Objects.checkIndex(column, this.columns);
+		return this.chunks[row / this.rowsPerChunk].get(this.index(row, column));
+	}
+
+	/**
+	 * Sets a number located at specific position.
+	 *
+	 * @param row    the number of row
+	 * @param column the number of column
+	 * @param value  the new value
+	 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+	 *                                   of bounds
+	 */
+	public void set(final int row, final int column, final double value) {
+		Objects.checkIndex(row, this.rows);
+		Objects.checkIndex(column, this.columns);
+		this.chunks[row / this.rowsPerChunk].put(this.index(row, column), value);
+	}
+
+	/**
+	 * Gets all numbers of a row.
+	 *
+	 * @param row the number of row
+	 * @return a new array of numbers of the row
+	 * @throws IndexOutOfBoundsException if {@code row} is out of bounds
+	 */
+	public double[] getRow(final int row) {
+		Objects.checkIndex(row, this.rows);
+		final double[] values = new double[this.columns];
+		this.getRow(row, 0, values, 0, this.columns);
+		return values;
+	}
+
+	/**
+	 * Sets all numbers of a row.
+	 *
+	 * @param row    the number of row
+	 * @param values the new values
+	 * @throws IndexOutOfBoundsException if {@code row} is out of bounds
+	 * @throws IllegalArgumentException  if count of {@code values} differs from
+	 *                                   count of columns
+	 */
+	public void setRow(final int row, final double... values) {
+		Objects.checkIndex(row, this.rows);
+		if (values.length != this.columns)
+			throw new IllegalArgumentException("Count of values must be equal to count of columns");
+		this.putRow(row, 0, values, 0, this.columns);
+	}
+
+	/**
+	 * Sets all elements to given value.
+	 *
+	 * @param value the value
+	 * @return {@code this}
+	 */
+	public OffHeapMatrix fill(final double value) {
+		final double[] row = new double[this.columns];
+		Arrays.fill(row, value);
+		for (int r = 0; r < this.rows; r++)
+			this.putRow(r, 0, row, 0, this.columns);
+		return this;
+	}
+
+	public int rows() {
+		return this.rows;
+	}
+
+	public int columns() {
+		return this.columns;
+	}
+
+	public boolean isSquareMatrix() {
+		return this.rows == this.columns;
+	}
+
+	/**
+	 * Adds another matrix to this matrix.
+	 *
+	 * @param mtx2 the right operand
+	 * @return {@code this} + {@code mtx2}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public OffHeapMatrix add(final OffHeapMatrix mtx2) {
+		this.checkSameSize(mtx2);
+		final OffHeapMatrix result = new OffHeapMatrix(this.rows, this.columns);
+		this.forEachRowBlock((from, to) -> {
+			final double[] a = new double[this.columns];
+			final double[] b = new double[this.columns];
+			for (int r = from; r < to; r++) {
+				this.getRow(r, 0, a, 0, this.columns);
+				mtx2.getRow(r, 0, b, 0, this.columns);
+				DoubleKernels.PREFERRED.add(a, 0, b, 0, a, 0, this.columns);
+				result.putRow(r, 0, a, 0, this.columns);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Subtracts another matrix from this matrix.
+	 *
+	 * @param mtx2 the right operand
+	 * @return {@code this} &minus; {@code mtx2}
+	 * @throws IllegalArgumentException if sizes of the matrices differ
+	 */
+	public OffHeapMatrix subtract(final OffHeapMatrix mtx2) {
+		this.checkSameSize(mtx2);
+		final OffHeapMatrix result = new OffHeapMatrix(this.rows, this.columns);
+		this.forEachRowBlock((from, to) -> {
+			final double[] a = new double[this.columns];
+			final double[] b = new double[this.columns];
+			for (int r = from; r < to; r++) {
+				this.getRow(r, 0, a, 0, this.columns);
+				mtx2.getRow(r, 0, b, 0, this.columns);
+				DoubleKernels.PREFERRED.subtract(a, 0, b, 0, a, 0, this.columns);
+				result.putRow(r, 0, a, 0, this.columns);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix. Tiles of both operands are
+	 * copied to the heap and multiplied by the same kernel as
+	 * {@link Matrix.Double#multiply(Matrix.Double)}, so at most six tiles of
+	 * {@value #TILE} &times; {@value #TILE} elements are allocated on the heap.
+	 *
+	 * @param mtx2 the right operand
+	 * @return {@code this} &middot; {@code mtx2}
+	 * @throws IllegalArgumentException if count of columns of {@code this} is
+	 *                                  not equal to count of rows of
+	 *                                  {@code mtx2}
+	 * @see #multiply(OffHeapMatrix, OffHeapMatrix)
+	 */
+	public OffHeapMatrix multiply(final OffHeapMatrix mtx2) {
+		if (this.columns != mtx2.rows)
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		return this.multiplyTiles(mtx2, new OffHeapMatrix(this.rows, mtx2.columns));
+	}
+
+	/**
+	 * Multiplies this matrix by another matrix and stores the product in
+	 * {@code result}, which is useful for operands and results
+	 * {@linkplain #map(FileChannel, FileChannel.MapMode, long, int, int)
+	 * mapped} from files larger than the memory. While a pair of tiles is
+	 * multiplied, a background thread copies the next pair to the heap, so
+	 * reading of the operands from the disk overlaps with the computation.
+	 * Every tile of the product is stored once it is complete.
+	 *
+	 * @param mtx2   the right operand
+	 * @param result the matrix to store the product in, it must not share
+	 *               storage with any of the operands
+	 * @return {@code result}
+	 * @throws IllegalArgumentException if count of columns of {@code this} is
+	 *                                  not equal to count of rows of
+	 *                                  {@code mtx2}, if {@code result} has a
+	 *                                  different size than the product or if
+	 *                                  it is one of the operands
+	 */
+	public OffHeapMatrix multiply(final OffHeapMatrix mtx2, final OffHeapMatrix result) {
+		if (this.columns != mtx2.rows)
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		if (result.rows != this.rows || result.columns != mtx2.columns)
+			throw new IllegalArgumentException("Result has a different size than the product");
+		if (result == this || result == mtx2)
+			throw new IllegalArgumentException("Result must not be an operand");
+		return this.multiplyTiles(mtx2, result);
+	}
+
+	/**
+	 * Multiplies this matrix by a vector. Blocks of rows are multiplied in
+	 * parallel if the matrix is large enough.
+	 *
+	 * @param vector the vector
+	 * @return {@code this} &middot; {@code vector}
+	 * @throws IllegalArgumentException if count of columns differs from count of
+	 *                                  coordinates of {@code vector}
+	 */
+	public Vector.Double multiply(final Vector.Double vector) {
+		if (this.columns != vector.coordinates())
+			throw new IllegalArgumentException("Cannot multiply given matrix and vector");
+		final double[] x = new double[this.columns];
+		for (int c = 0; c < this.columns; c++)
+			x[c] = vector.get(c);
+		final double[] y = new double[this.rows];
+		this.forEachRowBlock((from, to) -> {
+			final double[] row = new double[this.columns];
+			for (int r = from; r < to; r++) {
+				this.getRow(r, 0, row, 0, this.columns);
+				y[r] = DoubleKernels.PREFERRED.dot(row, 0, x, 0, this.columns);
+			}
+		});
+		return new Vector.Double(y, false);
+	}
+
+	/**
+	 * Returns transposed copy of this matrix.
+	 *
+	 * @return the transposed matrix
+	 */
+	public OffHeapMatrix transpose() {
+		final OffHeapMatrix result = new OffHeapMatrix(this.columns, this.rows);
+		final int tileRows = (this.rows + TILE - 1) / TILE;
+		final IntStream tiles = IntStream.range(0, tileRows);
+		(this.size() < PARALLEL_THRESHOLD ? tiles : tiles.parallel()).forEach(tile -> {
+			final double[] tileData = new double[TILE * TILE];
+			final double[] transposed = new double[TILE * TILE];
+			final int i0 = tile * TILE;
+			final int height = Math.min(TILE, this.rows - i0);
+			for (int j0 = 0; j0 < this.columns; j0 += TILE) {
+				final int width = Math.min(TILE, this.columns - j0);
+				this.getTile(i0, j0, height, width, tileData);
+				for (int i = 0; i < height; i++)
+					for (int j = 0; j < width; j++)
+						transposed[j * height + i] = tileData[i * width + j];
+				result.putTile(j0, i0, width, height, transposed);
+			}
+		});
+		return result;
+	}
+
+	/**
+	 * Copies this matrix to the heap.
+	 *
+	 * @return the copy as {@link Matrix.Double}
+	 * @throws IllegalStateException if the matrix has too many elements to be
+	 *                               stored in an array
+	 */
+	public Matrix.Double toMatrix() {
+		if (this.size() > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Matrix is too large to be stored in an array");
+		final double[] data = new double[this.rows * this.columns];
+		for (int r = 0; r < this.rows; r++)
+			this.getRow(r, 0, data, r * this.columns, this.columns);
+		return new Matrix.Double(data, this.rows, this.columns, 0, this.columns, 1);
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append('[');
+		for (int i = 0; i < this.rows; i++) {
+			sb.append('[');
+			for (int j = 0; j < this.columns; j++) {
+				sb.append(this.get(i, j));
+				if (j < this.columns - 1)
+					sb.append(", ");
+			}
+			sb.append(']');
+			if (i < this.rows - 1)
+				sb.append(", ");
+		}
+		sb.append(']');
+		return sb.toString();
+	}
+
+	@Override
+	public String toLaTeX() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("\\left[ \\begin{align*} ");
+		for (int i = 0; i < this.rows; i++)
+			for (int j = 0; j < this.columns; j++) {
+				sb.append(this.get(i, j));
+				if (j < this.columns - 1)
+					sb.append(" & ");
+				else if (i < this.rows - 1)
+					sb.append(" \\\\ ");
+			}
+		sb.append(" \\end{align*} \\right]");
+		return sb.toString();
+	}
+
+	/**
+	 * Multiplies tiles in the order of the naive algorithm, loading the next
+	 * pair of tiles in the background while the current one is multiplied.
+	 */
+	private OffHeapMatrix multiplyTiles(final OffHeapMatrix mtx2, final OffHeapMatrix result) {
+		final TilePair[] pairs = { new TilePair(), new TilePair() };
+		final double[] c = new double[TILE * TILE];
+		final double[] buffer = new double[TILE * TILE];
+		final long steps = TilePair.count(this.rows) * TilePair.count(mtx2.columns) * TilePair.count(this.columns);
+		final ExecutorService prefetcher = steps > 1 ? Executors.newSingleThreadExecutor(OffHeapMatrix::prefetchThread)
+				: null;
+		try {
+			pairs[0].load(this, mtx2, 0);
+			for (long step = 0; step < steps; step++) {
+				final TilePair current = pairs[(int) (step & 1)];
+				Future<?> next = null;
+				if (step + 1 < steps) {
+					final TilePair following = pairs[(int) ((step + 1) & 1)];
+					final long nextStep = step + 1;
+					next = prefetcher.submit(() -> following.load(this, mtx2, nextStep));
+				}
+				if (current.k0 == 0)
+					Arrays.fill(c, 0, current.height * current.width, .0);
+				// Tiles are added in increasing order of k, like in the naive algorithm
+				MatrixMultiplication.multiplyAdd(current.a, 0, current.depth, 1, current.b, 0, current.width, 1,
+						c, 0, current.width, current.height, current.depth, current.width, buffer);
+				if (current.k0 + current.depth == this.columns)
+					result.putTile(current.i0, current.j0, current.height, current.width, c);
+				if (next != null)
+					OffHeapMatrix.await(next);
+			}
+		} finally {
+			if (prefetcher != null)
+				prefetcher.shutdownNow();
+		}
+		return result;
+	}
+
+	private static Thread prefetchThread(final Runnable runnable) {
+		final Thread thread = new Thread(runnable, "jmath-tile-prefetch");
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	/**
+	 * Waits for a task, rethrowing its failure.
+	 */
+	private static void await(final Future<?> future) {
+		try {
+			future.get();
+		} catch (final InterruptedException exc) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while loading tiles", exc);
+		} catch (final ExecutionException exc) {
+			if (exc.getCause() instanceof RuntimeException)
+				throw (RuntimeException) exc.getCause();
+			if (exc.getCause() instanceof Error)
+				throw (Error) exc.getCause();
+			throw new IllegalStateException(exc.getCause());
+		}
+	}
+
+	/**
+	 * Returns count of elements.
+	 */
+	long size() {
+		return (long) this.rows * this.columns;
+	}
+
+	/**
+	 * Copies {@code length} elements of a row starting at given column to
+	 * {@code target}.
+	 */
+	void getRow(final int row, final int column, final double[] target, final int offset, final int length) {
+		this.chunks[row / this.rowsPerChunk].get(this.index(row, column), target, offset, length);
+	}
+
+	/**
+	 * Copies {@code length} elements from {@code source} to a row starting at
+	 * given column.
+	 */
+	void putRow(final int row, final int column, final double[] source, final int offset, final int length) {
+		this.chunks[row / this.rowsPerChunk].put(this.index(row, column), source, offset, length);
+	}
+
+	/**
+	 * Copies a block of {@code height} &times; {@code width} elements starting at
+	 * given position to {@code target} in row-major order.
+	 */
+	void getTile(final int row, final int column, final int height, final int width, final double[] target) {
+		for (int i = 0; i < height; i++)
+			this.getRow(row + i, column, target, i * width, width);
+	}
+
+	/**
+	 * Copies a block of {@code height} &times; {@code width} elements stored in
+	 * {@code source} in row-major order to given position.
+	 */
+	void putTile(final int row, final int column, final int height, final int width, final double[] source) {
+		for (int i = 0; i < height; i++)
+			this.putRow(row + i, column, source, i * width, width);
+	}
+
+	private int index(final int row, final int column) {
+		return (row % this.rowsPerChunk) * this.columns + column;
+	}
+
+	private static void checkSize(final int rows, final int columns) {
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("Matrix size must be positive");
+		if (columns > CHUNK_ELEMENTS)
+			throw new IllegalArgumentException("Too many columns");
+	}
+
+	private static int rowsPerChunk(final int rows, final int columns) {
+		return Math.min(rows, CHUNK_ELEMENTS / columns);
+	}
+
+	private void allocate() {
+		this.rowsPerChunk = OffHeapMatrix.rowsPerChunk(this.rows, this.columns);
+		final int count = (this.rows + this.rowsPerChunk - 1) / this.rowsPerChunk;
+		this.chunks = new DoubleBuffer[count];
+		for (int i = 0; i < count; i++) {
+			final int chunkRows = Math.min(this.rowsPerChunk, this.rows - i * this.rowsPerChunk);
+			this.chunks[i] = ByteBuffer.allocateDirect(chunkRows * this.columns * java.lang.Double.BYTES)
+					.order(ByteOrder.nativeOrder())
+					.asDoubleBuffer();
+		}
+	}
+
+	private void checkSameSize(final OffHeapMatrix mtx2) {
+		if (this.rows != mtx2.rows || this.columns != mtx2.columns)
+			throw new IllegalArgumentException("Different matrix sizes");
+	}
+
+	/**
+	 * Calls {@code action} for blocks of rows covering all rows, in parallel if
+	 * the matrix is large enough.
+	 */
+	private void forEachRowBlock(final RowBlockAction action) {
+		if (this.size() < PARALLEL_THRESHOLD || this.rows < 2) {
+			action.apply(0, this.rows);
+			return;
+		}
+		final int blocks = Math.min(this.rows, 4 * ForkJoinPool.getCommonPoolParallelism());
+		IntStream.range(0, blocks).parallel().forEach(block -> action.apply(
+				(int) ((long) this.rows * block / blocks), (int) ((long) this.rows * (block + 1) / blocks)));
+	}
+
+	private void writeObject(final ObjectOutputStream out) throws IOException {
+		out.defaultWriteObject();
+		final double[] row = new double[this.columns];
+		for (int r = 0; r < this.rows; r++) {
+			this.getRow(r, 0, row, 0, this.columns);
+			for (final double value : row)
+				out.writeDouble(value);
+		}
+	}
+
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		try {
+			OffHeapMatrix.checkSize(this.rows, this.columns);
+		} catch (final IllegalArgumentException exc) {
+			throw new InvalidObjectException(exc.getMessage());
+		}
+		this.allocate();
+		final double[] row = new double[this.columns];
+		for (int r = 0; r < this.rows; r++) {
+			for (int c = 0; c < this.columns; c++)
+				row[c] = in.readDouble();
+			this.putRow(r, 0, row, 0, this.columns);
+		}
+	}
+
+	/**
+	 * Tiles of both operands multiplied in one step of the multiplication.
+	 * Steps are numbered so that the tile index along the common dimension
+	 * changes fastest.
+	 */
+	private static final class TilePair {
+
+		final double[] a = new double[TILE * TILE];
+		final double[] b = new double[TILE * TILE];
+		int i0;
+		int j0;
+		int k0;
+		int height;
+		int width;
+		int depth;
+
+		/**
+		 * Returns count of tiles covering given count of rows or columns.
+		 */
+		static long count(final int length) {
+			return (length + TILE - 1) / TILE;
+		}
+
+		void load(final OffHeapMatrix mtx1, final OffHeapMatrix mtx2, final long step) {
+			final long depthTiles = TilePair.count(mtx1.columns);
+			final long widthTiles = TilePair.count(mtx2.columns);
+			this.k0 = (int) (step % depthTiles) * TILE;
+			this.j0 = (int) (step / depthTiles % widthTiles) * TILE;
+			this.i0 = (int) (step / depthTiles / widthTiles) * TILE;
+			this.height = Math.min(TILE, mtx1.rows - this.i0);
+			this.width = Math.min(TILE, mtx2.columns - this.j0);
+			this.depth = Math.min(TILE, mtx1.columns - this.k0);
+			mtx1.getTile(this.i0, this.k0, this.height, this.depth, this.a);
+			mtx2.getTile(this.k0, this.j0, this.depth, this.width, this.b);
+		}
+	}
+
+	/**
+	 * Processes rows [{@code from}; {@code to}).
+	 */
+	@FunctionalInterface
+	private interface RowBlockAction {
+		void apply(int from, int to);
+	}
+}
@@ -0,0 +1,24 @@
+package jmath;
+
+import java.math.BigInteger;
+
+/**
+ * Operations whose fastest implementation depends on the version of Java.
+ * This is the portable implementation for Java 17, the multi-release jar
+ * contains another one for Java 21 and newer in {@code META-INF/versions/21}.
+ * Both implementations must have the same package-private API.
+ */
+final class Platform {
+
+	// Do not create any instances
+	private Platform() {
+	}
+
+	/**
+	 * Multiplies two large numbers. Newer versions of Java may use several
+	 * threads.
+	 */
+	static BigInteger multiply(final BigInteger a, final BigInteger b) {
+		return a.multiply(b);
+	}
+}
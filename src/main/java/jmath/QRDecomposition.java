@@ -0,0 +1,300 @@
+package jmath;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Objects;
+
+/**
+ * <p>
+ * QR decomposition <var>A</var> = <var>Q</var><var>R</var> of a matrix of
+ * {@link BigDecimal}s with at least as many rows as columns, computed using
+ * Householder reflections. <var>Q</var> is orthogonal and <var>R</var> is upper
+ * triangular.
+ * </p>
+ * <p>
+ * If the matrix has more rows than columns, the solver returns the least
+ * squares solution, i.e. <var>x</var> minimizing
+ * ||<var>A</var><var>x</var> &ndash; <var>b</var>||.
+ * </p>
+ *
+ * @see QRDecomposition.Double
+ */
+public final class QRDecomposition implements Solver {
+
+	/**
+	 * Householder vectors, one column of the decomposed matrix per array.
+	 */
+	private final BigDecimal[][] qr;
+	private final BigDecimal[] diagonal;
+	private final int rows;
+	private final MathContext mc;
+
+	/**
+	 * Computes QR decomposition of given matrix.
+	 *
+	 * @param matrix the matrix to decompose
+	 * @param mc     the {@link MathContext} used for rounding
+	 * @throws NullPointerException     if {@code matrix} or {@code mc} is
+	 *                                  {@code null}
+	 * @throws IllegalArgumentException if the matrix has less rows than columns
+	 */
+	public QRDecomposition(final Matrix matrix, final MathContext mc) {
+		Objects.requireNonNull(matrix, "Cannot pass null as argument");
+		Objects.requireNonNull(mc, "Cannot pass null as argument");
+		if (matrix.rows() < matrix.columns())
+			throw new IllegalArgumentException("Matrix has less rows than columns");
+
+		final int m = matrix.rows();
+		final int n = matrix.columns();
+		final BigDecimal[][] qr = new BigDecimal[n][m];
+		for (int row = 0; row < m; row++)
+			for (int col = 0; col < n; col++)
+				qr[col][row] = matrix.get(row, col);
+
+		final BigDecimal[] diagonal = new BigDecimal[n];
+		for (int k = 0; k < n; k++) {
+			BigDecimal norm = BigDecimal.ZERO;
+			for (int i = k; i < m; i++)
+				norm = norm.add(qr[k][i].multiply(qr[k][i]), mc);
+			norm = MathUtilities.realRoot(norm, 2, mc);
+			if (norm.signum() != 0) {
+				if (qr[k][k].signum() < 0)
+					norm = norm.negate();
+				for (int i = k; i < m; i++)
+					qr[k][i] = qr[k][i].divide(norm, mc);
+				qr[k][k] = qr[k][k].add(BigDecimal.ONE, mc);
+				for (int j = k + 1; j < n; j++)
+					QRDecomposition.reflect(qr[k], qr[j], k, m, mc);
+			}
+			diagonal[k] = norm.negate();
+		}
+		this.qr = qr;
+		this.diagonal = diagonal;
+		this.rows = m;
+		this.mc = mc;
+	}
+
+	/**
+	 * Returns if the decomposed matrix has full rank, i.e. if its columns are
+	 * linearly independent.
+	 *
+	 * @return if the matrix has full rank
+	 */
+	public boolean isFullRank() {
+		for (final BigDecimal d : this.diagonal)
+			if (d.signum() == 0)
+				return false;
+		return true;
+	}
+
+	@Override
+	public Vector solve(final Vector b) {
+		if (b.size() != this.rows)
+			throw new IllegalArgumentException("Vector size does not match the matrix size");
+		final BigDecimal[][] x = new BigDecimal[1][this.rows];
+		for (int i = 0; i < this.rows; i++)
+			x[0][i] = b.get(i);
+		this.solveInPlace(x);
+		final BigDecimal[] result = new BigDecimal[this.diagonal.length];
+		System.arraycopy(x[0], 0, result, 0, result.length);
+		return new Vector(result);
+	}
+
+	@Override
+	public Matrix solve(final Matrix b) {
+		if (b.rows() != this.rows)
+			throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+		final BigDecimal[][] x = new BigDecimal[b.columns()][this.rows];
+		for (int i = 0; i < this.rows; i++)
+			for (int j = 0; j < b.columns(); j++)
+				x[j][i] = b.get(i, j);
+		this.solveInPlace(x);
+		final BigDecimal[][] result = new BigDecimal[this.diagonal.length][b.columns()];
+		for (int i = 0; i < result.length; i++)
+			for (int j = 0; j < b.columns(); j++)
+				result[i][j] = x[j][i];
+		return new Matrix(result);
+	}
+
+	/**
+	 * Solves the system for right-hand sides given as columns.
+	 */
+	private void solveInPlace(final BigDecimal[][] x) {
+		if (!this.isFullRank())
+			throw new ArithmeticException("Matrix is rank deficient");
+		final int n = this.diagonal.length;
+
+		// y = Q^T b
+		for (int k = 0; k < n; k++)
+			for (final BigDecimal[] column : x)
+				QRDecomposition.reflect(this.qr[k], column, k, this.rows, this.mc);
+
+		// R x = y
+		for (int k = n - 1; k >= 0; k--)
+			for (final BigDecimal[] column : x) {
+				column[k] = column[k].divide(this.diagonal[k], this.mc);
+				for (int i = 0; i < k; i++)
+					column[i] = column[i].subtract(column[k].multiply(this.qr[k][i]), this.mc);
+			}
+	}
+
+	/**
+	 * Applies Householder reflection given by vector {@code v} to rows
+	 * {@code [from; to)} of column {@code x}.
+	 */
+	private static void reflect(final BigDecimal[] v, final BigDecimal[] x, final int from, final int to,
+			final MathContext mc) {
+		BigDecimal s = BigDecimal.ZERO;
+		for (int i = from; i < to; i++)
+			s = s.add(v[i].multiply(x[i]), mc);
+		s = s.negate().divide(v[from], mc);
+		for (int i = from; i < to; i++)
+			x[i] = x[i].add(s.multiply(v[i]), mc);
+	}
+
+	// Double class ----------------------------------------------------------------
+
+	/**
+	 * <p>
+	 * QR decomposition <var>A</var> = <var>Q</var><var>R</var> of a matrix of
+	 * {@code double}s with at least as many rows as columns, computed using
+	 * Householder reflections. <var>Q</var> is orthogonal and <var>R</var> is
+	 * upper triangular. Although it is about twice as expensive as
+	 * {@link LUDecomposition.Double}, it is numerically more stable.
+	 * </p>
+	 * <p>
+	 * If the matrix has more rows than columns, the solver returns the least
+	 * squares solution, i.e. <var>x</var> minimizing
+	 * ||<var>A</var><var>x</var> &ndash; <var>b</var>||.
+	 * </p>
+	 *
+	 * @see QRDecomposition
+	 */
+	public static final class Double implements Solver.Double {
+
+		/**
+		 * Householder vectors stored in column-major order, so that every column
+		 * is contiguous.
+		 */
+		private final double[] qr;
+		private final double[] diagonal;
+		private final int rows;
+		private final int columns;
+
+		/**
+		 * Computes QR decomposition of given matrix.
+		 *
+		 * @param matrix the matrix to decompose
+		 * @throws NullPointerException     if {@code matrix} is {@code null}
+		 * @throws IllegalArgumentException if the matrix has less rows than
+		 *                                  columns
+		 */
+		public Double(final Matrix.Double matrix) {
+			Objects.requireNonNull(matrix, "Cannot pass null as argument");
+			if (matrix.rows() < matrix.columns())
+				throw new IllegalArgumentException("Matrix has less rows than columns");
+
+			final int m = matrix.rows();
+			final int n = matrix.columns();
+			final double[] qr = matrix.transpose().toRowMajorArray();
+			final double[] diagonal = new double[n];
+			for (int k = 0; k < n; k++) {
+				final int column = k * m;
+				double norm = .0;
+				for (int i = k; i < m; i++)
+					norm = Math.hypot(norm, qr[column + i]);
+				if (norm != 0) {
+					if (qr[column + k] < 0)
+						norm = -norm;
+					for (int i = k; i < m; i++)
+						qr[column + i] /= norm;
+					qr[column + k] += 1.0;
+					for (int j = k + 1; j < n; j++)
+						Double.reflect(qr, column, qr, j * m, k, m);
+				}
+				diagonal[k] = -norm;
+			}
+			this.qr = qr;
+			this.diagonal = diagonal;
+			this.rows = m;
+			this.columns = n;
+		}
+
+		/**
+		 * Returns if the decomposed matrix has full rank, i.e. if its columns are
+		 * linearly independent.
+		 *
+		 * @return if the matrix has full rank
+		 */
+		public boolean isFullRank() {
+			for (final double d : this.diagonal)
+				if (d == 0)
+					return false;
+			return true;
+		}
+
+		@Override
+		public Vector.Double solve(final Vector.Double b) {
+			if (b.coordinates() != this.rows)
+				throw new IllegalArgumentException("Vector size does not match the matrix size");
+			final double[] x = new double[this.rows];
+			for (int i = 0; i < this.rows; i++)
+				x[i] = b.get(i);
+			this.solveInPlace(x, 1);
+			final double[] result = new double[this.columns];
+			System.arraycopy(x, 0, result, 0, this.columns);
+			return new Vector.Double(result);
+		}
+
+		@Override
+		public Matrix.Double solve(final Matrix.Double b) {
+			if (b.rows() != this.rows)
+				throw new IllegalArgumentException("Matrix size does not match the decomposed matrix size");
+			final int count = b.columns();
+			final double[] x = b.transpose().toRowMajorArray();
+			this.solveInPlace(x, count);
+			// Solution columns are stored one after another, i.e. as rows of X^T
+			final double[] result = new double[count * this.columns];
+			for (int j = 0; j < count; j++)
+				System.arraycopy(x, j * this.rows, result, j * this.columns, this.columns);
+			return new Matrix.Double(count, this.columns, result).transpose();
+		}
+
+		/**
+		 * Solves the system for {@code count} right-hand sides stored one after
+		 * another in {@code x}.
+		 */
+		private void solveInPlace(final double[] x, final int count) {
+			if (!this.isFullRank())
+				throw new ArithmeticException("Matrix is rank deficient");
+			final int m = this.rows;
+			final int n = this.columns;
+
+			// y = Q^T b
+			for (int k = 0; k < n; k++)
+				for (int j = 0; j < count; j++)
+					Double.reflect(this.qr, k * m, x, j * m, k, m);
+
+			// R x = y
+			for (int j = 0; j < count; j++) {
+				final int column = j * m;
+				for (int k = n - 1; k >= 0; k--) {
+					x[column + k] /= this.diagonal[k];
+					DoubleKernels.PREFERRED.axpy(-x[column + k], this.qr, k * m, x, column, k);
+				}
+			}
+		}
+
+		/**
+		 * Applies Householder reflection given by column of {@code v} starting at
+		 * {@code vOffset} to rows {@code [from; to)} of column of {@code x}
+		 * starting at {@code xOffset}.
+		 */
+		private static void reflect(final double[] v, final int vOffset, final double[] x, final int xOffset,
+				final int from, final int to) {
+			final double dot = DoubleKernels.PREFERRED.dot(v, vOffset + from, x, xOffset + from, to - from);
+			final double s = -dot / v[vOffset + from];
+			DoubleKernels.PREFERRED.axpy(s, v, vOffset + from, x, xOffset + from, to - from);
+		}
+	}
+}
@@ -0,0 +1,244 @@
+package jmath;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Compact serialized form of {@link Hypercomplex}, {@link Vector} and
+ * {@link Matrix} and of their {@code Double} variants. Every entity is written
+ * as a tag of its type followed by its content:
+ * </p>
+ * <ul>
+ * <li>sizes (dimension, count of coordinates, rows and columns) as unsigned
+ * variable-length integers, 7 bits per byte,</li>
+ * <li>a {@link BigDecimal} as its zigzag-encoded scale and length of its
+ * unscaled value, both variable-length, followed by the big-endian
+ * two's-complement unscaled value,</li>
+ * <li>a {@code double} as its 8 bytes.</li>
+ * </ul>
+ * <p>
+ * Instead of descriptors of all classes of an entity and its fields, only this
+ * class is described in the stream, once per stream.
+ * </p>
+ */
+final class Ser implements Externalizable {
+
+	private static final long serialVersionUID = 0x0100L;
+
+	static final byte HYPERCOMPLEX = 1;
+	static final byte HYPERCOMPLEX_DOUBLE = 2;
+	static final byte VECTOR = 3;
+	static final byte VECTOR_DOUBLE = 4;
+	static final byte MATRIX = 5;
+	static final byte MATRIX_DOUBLE = 6;
+
+	/**
+	 * Count of {@code double}s converted to bytes at once.
+	 */
+	private static final int DOUBLES_PER_BLOCK = 512;
+
+	/**
+	 * Count of elements allocated before any of them is read. Larger arrays
+	 * grow as their elements are read, so a forged size cannot allocate much
+	 * more memory than the stream actually holds.
+	 */
+	private static final int INITIAL_CAPACITY = 8192;
+
+	private byte type;
+	private Object object;
+
+	/**
+	 * Constructor for deserialization.
+	 */
+	public Ser() {
+	}
+
+	Ser(final byte type, final Object object) {
+		this.type = type;
+		this.object = object;
+	}
+
+	@Override
+	public void writeExternal(final ObjectOutput out) throws IOException {
+		out.writeByte(this.type);
+		switch (this.type) {
+		case HYPERCOMPLEX:
+			((Hypercomplex) this.object).writeExternal(out);
+			break;
+		case HYPERCOMPLEX_DOUBLE:
+			((Hypercomplex.Double) this.object).writeExternal(out);
+			break;
+		case VECTOR:
+			((Vector) this.object).writeExternal(out);
+			break;
+		case VECTOR_DOUBLE:
+			((Vector.Double) this.object).writeExternal(out);
+			break;
+		case MATRIX:
+			((Matrix) this.object).writeExternal(out);
+			break;
+		case MATRIX_DOUBLE:
+			((Matrix.Double) this.object).writeExternal(out);
+			break;
+		default:
+			throw new InvalidClassException("Unknown serialized type");
+		}
+	}
+
+	@Override
+	public void readExternal(final ObjectInput in) throws IOException {
+		this.type = in.readByte();
+		switch (this.type) {
+		case HYPERCOMPLEX:
+			this.object = Hypercomplex.readExternal(in);
+			break;
+		case HYPERCOMPLEX_DOUBLE:
+			this.object = Hypercomplex.Double.readExternal(in);
+			break;
+		case VECTOR:
+			this.object = Vector.readExternal(in);
+			break;
+		case VECTOR_DOUBLE:
+			this.object = Vector.Double.readExternal(in);
+			break;
+		case MATRIX:
+			this.object = Matrix.readExternal(in);
+			break;
+		case MATRIX_DOUBLE:
+			this.object = Matrix.Double.readExternal(in);
+			break;
+		default:
+			throw new StreamCorruptedException("Unknown serialized type " + this.type);
+		}
+	}
+
+	private Object readResolve() {
+		return this.object;
+	}
+
+	static void writeSize(final DataOutput out, final int size) throws IOException {
+		int value = size;
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	static int readSize(final DataInput in) throws IOException {
+		final int size = Ser.readVarint(in);
+		if (size < 0)
+			throw new InvalidObjectException("Negative size");
+		return size;
+	}
+
+	static void writeDecimal(final DataOutput out, final BigDecimal value) throws IOException {
+		final byte[] unscaled = value.unscaledValue().toByteArray();
+		// Zigzag encoding keeps small negative scales short
+		Ser.writeSize(out, (value.scale() << 1) ^ (value.scale() >> 31));
+		Ser.writeSize(out, unscaled.length);
+		out.write(unscaled);
+	}
+
+	static BigDecimal readDecimal(final DataInput in) throws IOException {
+		final int zigzag = Ser.readVarint(in);
+		final int length = Ser.readSize(in);
+		if (length == 0)
+			throw new InvalidObjectException("Empty unscaled value");
+		byte[] unscaled = new byte[Math.min(length, INITIAL_CAPACITY)];
+		for (int done = 0;;) {
+			in.readFully(unscaled, done, unscaled.length - done);
+			done = unscaled.length;
+			if (done == length)
+				break;
+			unscaled = Arrays.copyOf(unscaled, Ser.grow(done, length));
+		}
+		return new BigDecimal(new BigInteger(unscaled), (zigzag >>> 1) ^ -(zigzag & 1));
+	}
+
+	/**
+	 * Reads {@code length} decimals written by
+	 * {@link #writeDecimal(DataOutput, BigDecimal)}.
+	 */
+	static BigDecimal[] readDecimals(final DataInput in, final int length) throws IOException {
+		BigDecimal[] values = new BigDecimal[Math.min(length, INITIAL_CAPACITY)];
+		for (int i = 0; i < length; i++) {
+			if (i == values.length)
+				values = Arrays.copyOf(values, Ser.grow(i, length));
+			values[i] = Ser.readDecimal(in);
+		}
+		return values;
+	}
+
+	static void writeDoubles(final DataOutput out, final double[] values, final int offset, final int length)
+			throws IOException {
+		final byte[] bytes = new byte[Math.min(length, DOUBLES_PER_BLOCK) * java.lang.Double.BYTES];
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		for (int done = 0; done < length;) {
+			final int count = Math.min(length - done, DOUBLES_PER_BLOCK);
+			buffer.asDoubleBuffer().put(values, offset + done, count);
+			out.write(bytes, 0, count * java.lang.Double.BYTES);
+			done += count;
+		}
+	}
+
+	static void readDoubles(final DataInput in, final double[] values, final int offset, final int length)
+			throws IOException {
+		final byte[] bytes = new byte[Math.min(length, DOUBLES_PER_BLOCK) * java.lang.Double.BYTES];
+		final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+		for (int done = 0; done < length;) {
+			final int count = Math.min(length - done, DOUBLES_PER_BLOCK);
+			in.readFully(bytes, 0, count * java.lang.Double.BYTES);
+			buffer.asDoubleBuffer().get(values, offset + done, count);
+			done += count;
+		}
+	}
+
+	/**
+	 * Reads {@code length} {@code double}s into a new array.
+	 */
+	static double[] readDoubles(final DataInput in, final int length) throws IOException {
+		double[] values = new double[Math.min(length, INITIAL_CAPACITY)];
+		for (int done = 0;;) {
+			Ser.readDoubles(in, values, done, values.length - done);
+			done = values.length;
+			if (done == length)
+				return values;
+			values = Arrays.copyOf(values, Ser.grow(done, length));
+		}
+	}
+
+	/**
+	 * Returns the next capacity of an array with {@code length} elements
+	 * expected, doubling the current one.
+	 */
+	private static int grow(final int capacity, final int length) {
+		return (int) Math.min(2L * capacity, length);
+	}
+
+	/**
+	 * Reads a variable-length integer of up to 32 bits.
+	 */
+	private static int readVarint(final DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new StreamCorruptedException("Number is too long");
+	}
+}
@@ -0,0 +1,80 @@
+package jmath;
+
+/**
+ * <p>
+ * Solver of linear systems <var>A</var><var>x</var> = <var>b</var> with a
+ * fixed matrix <var>A</var>. Implementations decompose the matrix once when
+ * they are created, so every subsequent call only substitutes the right-hand
+ * side into the decomposition.
+ * </p>
+ * <p>
+ * Right-hand sides can be given either as a {@link Vector} or as a
+ * {@link Matrix} whose every column is one right-hand side. All columns are
+ * solved in a single pass over the decomposition, which is much faster than
+ * solving them one by one.
+ * </p>
+ *
+ * @see LUDecomposition
+ * @see CholeskyDecomposition
+ * @see QRDecomposition
+ * @see Solver.Double
+ */
+public interface Solver {
+
+	/**
+	 * Solves linear system <var>A</var><var>x</var> = <var>b</var>.
+	 *
+	 * @param b the right-hand side
+	 * @return the solution <var>x</var>
+	 * @throws IllegalArgumentException if size of {@code b} does not match the
+	 *                                  matrix
+	 * @throws ArithmeticException      if the system has no unique solution
+	 */
+	Vector solve(Vector b);
+
+	/**
+	 * Solves linear system <var>A</var><var>X</var> = <var>B</var>, i.e. solves
+	 * the system for every column of <var>B</var> at once.
+	 *
+	 * @param b the right-hand sides, one per column
+	 * @return the solution <var>X</var>, one column per right-hand side
+	 * @throws IllegalArgumentException if count of rows of {@code b} does not
+	 *                                  match the matrix
+	 * @throws ArithmeticException      if the system has no unique solution
+	 */
+	Matrix solve(Matrix b);
+
+	// Double interface ------------------------------------------------------------
+
+	/**
+	 * Solver of linear systems <var>A</var><var>x</var> = <var>b</var> with a
+	 * fixed matrix <var>A</var> of {@code double}s.
+	 *
+	 * @see Solver
+	 */
+	interface Double {
+
+		/**
+		 * Solves linear system <var>A</var><var>x</var> = <var>b</var>.
+		 *
+		 * @param b the right-hand side
+		 * @return the solution <var>x</var>
+		 * @throws IllegalArgumentException if size of {@code b} does not match
+		 *                                  the matrix
+		 * @throws ArithmeticException      if the system has no unique solution
+		 */
+		Vector.Double solve(Vector.Double b);
+
+		/**
+		 * Solves linear system <var>A</var><var>X</var> = <var>B</var>, i.e.
+		 * solves the system for every column of <var>B</var> at once.
+		 *
+		 * @param b the right-hand sides, one per column
+		 * @return the solution <var>X</var>, one column per right-hand side
+		 * @throws IllegalArgumentException if count of rows of {@code b} does not
+		 *                                  match the matrix
+		 * @throws ArithmeticException      if the system has no unique solution
+		 */
+		Matrix.Double solve(Matrix.Double b);
+	}
+}
@@ -0,0 +1,564 @@
+package jmath;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * <p>
+ * Represents a sparse mathematical matrix of {@code double}s. Only non-zero
+ * elements are stored, so matrices which are too large to be stored as
+ * {@link Matrix.Double} can be used as long as most of their elements are zero.
+ * </p>
+ * <p>
+ * Elements are stored in one of two {@link Layout layouts}: compressed sparse
+ * rows ({@link Layout#CSR CSR}) or compressed sparse columns
+ * ({@link Layout#CSC CSC}). In both layouts, the matrix is stored as a sequence
+ * of <em>lines</em> (rows for CSR, columns for CSC). Line <var>i</var> occupies
+ * indices [{@code pointers[i]}; {@code pointers[i + 1]}) of arrays
+ * {@code indices}, which contains positions of the non-zero elements within
+ * the line in ascending order, and {@code values}, which contains the elements
+ * themselves. Product with a vector or with a dense matrix is computed in
+ * parallel when the matrix is stored in CSR layout, so prefer CSR for matrices
+ * which are multiplied often.
+ * </p>
+ * <p>
+ * <b>Attention!</b> Rows and columns are numbered from zero!
+ * </p>
+ *
+ * @see Matrix.Double
+ */
+public final class SparseMatrix implements MathEntity {
+
+	private static final long serialVersionUID = 0x0100L;
+
+	/**
+	 * Products with less non-zero elements are not split across threads.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+	/**
+	 * Layout of a {@link SparseMatrix}.
+	 */
+	public enum Layout {
+		/**
+		 * Compressed sparse rows, i.e. the matrix is stored row by row.
+		 */
+		CSR,
+		/**
+		 * Compressed sparse columns, i.e. the matrix is stored column by column.
+		 */
+		CSC
+	}
+
+	private final Layout layout;
+	private final int rows;
+	private final int columns;
+	private final int[] pointers;
+	private final int[] indices;
+	private final double[] values;
+
+	/**
+	 * Creates a sparse matrix from arrays of given layout. Arrays are copied.
+	 *
+	 * @param rows     count of rows
+	 * @param columns  count of columns
+	 * @param layout   layout of given arrays
+	 * @param pointers index of the first element of every line in
+	 *                 {@code indices} and {@code values}, followed by count of
+	 *                 all elements
+	 * @param indices  positions of elements within their line, ascending in
+	 *                 every line
+	 * @param values   the elements
+	 * @throws NullPointerException     if any argument is {@code null}
+	 * @throws IllegalArgumentException if the arrays do not describe a valid
+	 *                                  matrix of given size and layout
+	 */
+	public SparseMatrix(final int rows, final int columns, final Layout layout, final int[] pointers,
+			final int[] indices, final double[] values) {
+		SparseMatrix.checkSize(rows, columns);
+		Objects.requireNonNull(layout, "Cannot pass null as argument");
+		final int lines = layout == Layout.CSR ? rows : columns;
+		final int length = layout == Layout.CSR ? columns : rows;
+		if (pointers.length != lines + 1 || pointers[0] != 0 || pointers[lines] != indices.length
+				|| indices.length != values.length)
+			throw new IllegalArgumentException("Arrays are inconsistent");
+		for (int line = 0; line < lines; line++) {
+			if (pointers[line] > pointers[line + 1])
+				throw new IllegalArgumentException("Arrays are inconsistent");
+			for (int i = pointers[line]; i < pointers[line + 1]; i++)
+				if (indices[i] < 0 || indices[i] >= length || (i > pointers[line] && indices[i] <= indices[i - 1]))
+					throw new IllegalArgumentException("Indices must be in bounds and ascending in every line");
+		}
+		this.layout = layout;
+		this.rows = rows;
+		this.columns = columns;
+		this.pointers = pointers.clone();
+		this.indices = indices.clone();
+		this.values = values.clone();
+	}
+
+	/**
+	 * Converts a dense matrix to a sparse matrix of given layout. Zero elements
+	 * are not stored.
+	 *
+	 * @param matrix the dense matrix
+	 * @param layout layout of the created matrix
+	 * @throws NullPointerException if any argument is {@code null}
+	 */
+	public SparseMatrix(final Matrix.Double matrix, final Layout layout) {
+		Objects.requireNonNull(matrix, "Cannot pass null as argument");
+		Objects.requireNonNull(layout, "Cannot pass null as argument");
+		final Matrix.Double source = layout == Layout.CSR ? matrix : matrix.transpose();
+		final int lines = source.rows();
+		final int length = source.columns();
+
+		final int[] pointers = new int[lines + 1];
+		int count = 0;
+		for (int line = 0; line < lines; line++) {
+			for (int i = 0; i < length; i++)
+				if (source.get(line, i) != 0)
+					count++;
+			pointers[line + 1] = count;
+		}
+		final int[] indices = new int[count];
+		final double[] values = new double[count];
+		int position = 0;
+		for (int line = 0; line < lines; line++)
+			for (int i = 0; i < length; i++) {
+				final double value = source.get(line, i);
+				if (value != 0) {
+					indices[position] = i;
+					values[position++] = value;
+				}
+			}
+
+		this.layout = layout;
+		this.rows = matrix.rows();
+		this.columns = matrix.columns();
+		this.pointers = pointers;
+		this.indices = indices;
+		this.values = values;
+	}
+
+	/**
+	 * Adopts given arrays without copying them. The arrays must not be modified
+	 * afterwards.
+	 */
+	private SparseMatrix(final Layout layout, final int rows, final int columns, final int[] pointers,
+			final int[] indices, final double[] values) {
+		this.layout = layout;
+		this.rows = rows;
+		this.columns = columns;
+		this.pointers = pointers;
+		this.indices = indices;
+		this.values = values;
+	}
+
+	/**
+	 * Creates a sparse matrix from its elements given in coordinate format, i.e.
+	 * as triplets (row, column, value). Triplets may be given in any order.
+	 * Values of triplets with the same position are summed up.
+	 *
+	 * @param rows          count of rows
+	 * @param columns       count of columns
+	 * @param layout        layout of the created matrix
+	 * @param rowIndices    row of every element
+	 * @param columnIndices column of every element
+	 * @param values        the elements
+	 * @return the sparse matrix
+	 * @throws NullPointerException      if any argument is {@code null}
+	 * @throws IllegalArgumentException  if lengths of the arrays differ
+	 * @throws IndexOutOfBoundsException if any position is out of bounds
+	 */
+	public static SparseMatrix fromTriplets(final int rows, final int columns, final Layout layout,
+			final int[] rowIndices, final int[] columnIndices, final double[] values) {
+		SparseMatrix.checkSize(rows, columns);
+		Objects.requireNonNull(layout, "Cannot pass null as argument");
+		if (rowIndices.length != values.length || columnIndices.length != values.length)
+			throw new IllegalArgumentException("Arrays are inconsistent");
+
+		final int[] major = layout == Layout.CSR ? rowIndices : columnIndices;
+		final int[] minor = layout == Layout.CSR ? columnIndices : rowIndices;
+		final int lines = layout == Layout.CSR ? rows : columns;
+		final int length = layout == Layout.CSR ? columns : rows;
+
+		// Counting sort by lines
+		final int[] pointers = new int[lines + 1];
+		for (int i = 0; i < values.length; i++) {
+			Objects.checkIndex(major[i], lines);
+			Objects.checkIndex(minor[i], length);
+			pointers[major[i] + 1]++;
+		}
+		for (int line = 0; line < lines; line++)
+			pointers[line + 1] += pointers[line];
+		final int[] next = Arrays.copyOf(pointers, lines);
+		final int[] indices = new int[values.length];
+		final double[] sorted = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			final int position = next[major[i]]++;
+			indices[position] = minor[i];
+			sorted[position] = values[i];
+		}
+
+		// Sort every line and merge duplicates
+		final double[] accumulator = new double[length];
+		final int[] marker = new int[length];
+		Arrays.fill(marker, -1);
+		int count = 0;
+		for (int line = 0; line < lines; line++) {
+			final int start = count;
+			for (int i = pointers[line]; i < pointers[line + 1]; i++) {
+				final int index = indices[i];
+				if (marker[index] != line) {
+					marker[index] = line;
+					accumulator[index] = sorted[i];
+					indices[count++] = index;
+				} else
+					accumulator[index] += sorted[i];
+			}
+			Arrays.sort(indices, start, count);
+			for (int i = start; i < count; i++)
+				sorted[i] = accumulator[indices[i]];
+			pointers[line] = start;
+		}
+		pointers[lines] = count;
+		return new SparseMatrix(layout, rows, columns, pointers, Arrays.copyOf(indices, count),
+				Arrays.copyOf(sorted, count));
+	}
+
+	/**
+	 * Gets a number located at specific position.
+	 *
+	 * @param row    the number of row
+	 * @param column the number of column
+	 * @return <var>a</var><sub><var>r</var><var>c</var></sub>
+	 * @throws IndexOutOfBoundsException if {@code row} or {@code column} is out
+	 *                                   of bounds
+	 */
+	public double get(final int row, final int column) {
+		Objects.checkIndex(row, this.rows);
+		Objects.checkIndex(column, this.columns);
+		final int line = this.layout == Layout.CSR ? row : column;
+		final int index = this.layout == Layout.CSR ? column : row;
+		final int position = Arrays.binarySearch(this.indices, this.pointers[line], this.pointers[line + 1], index);
+		return position < 0 ? .0 : this.values[position];
+	}
+
+	public int rows() {
+		return this.rows;
+	}
+
+	public int columns() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns count of stored (non-zero) elements.
+	 *
+	 * @return count of stored elements
+	 */
+	public int nonZeros() {
+		return this.values.length;
+	}
+
+	/**
+	 * Returns layout in which the elements are stored.
+	 *
+	 * @return the layout
+	 */
+	public Layout layout() {
+		return this.layout;
+	}
+
+	public boolean isSquareMatrix() {
+		return this.rows == this.columns;
+	}
+
+	/**
+	 * Returns the transposed matrix. Transposed CSR matrix is a CSC matrix with
+	 * the same arrays and vice versa, so no elements are copied.
+	 *
+	 * @return transposed matrix <var>A</var><sup>T</sup>
+	 */
+	public SparseMatrix transpose() {
+		return new SparseMatrix(SparseMatrix.other(this.layout), this.columns, this.rows, this.pointers,
+				this.indices, this.values);
+	}
+
+	/**
+	 * Returns the same matrix stored in given layout. If the matrix is already
+	 * stored in given layout, {@code this} is returned.
+	 *
+	 * @param layout the layout
+	 * @return the same matrix stored in given layout
+	 * @throws NullPointerException if {@code layout} is {@code null}
+	 */
+	public SparseMatrix toLayout(final Layout layout) {
+		Objects.requireNonNull(layout, "Cannot pass null as argument");
+		if (layout == this.layout)
+			return this;
+
+		// Transposing the compressed arrays changes the layout
+		final int lines = this.pointers.length - 1;
+		final int length = layout == Layout.CSR ? this.rows : this.columns;
+		final int[] pointers = new int[length + 1];
+		for (final int index : this.indices)
+			pointers[index + 1]++;
+		for (int i = 0; i < length; i++)
+			pointers[i + 1] += pointers[i];
+		final int[] next = Arrays.copyOf(pointers, length);
+		final int[] indices = new int[this.indices.length];
+		final double[] values = new double[this.values.length];
+		for (int line = 0; line < lines; line++)
+			for (int i = this.pointers[line]; i < this.pointers[line + 1]; i++) {
+				final int position = next[this.indices[i]]++;
+				indices[position] = line;
+				values[position] = this.values[i];
+			}
+		return new SparseMatrix(layout, this.rows, this.columns, pointers, indices, values);
+	}
+
+	/**
+	 * Converts this matrix to a dense matrix.
+	 *
+	 * @return the dense matrix
+	 * @throws IllegalStateException if the matrix has too many elements to be
+	 *                               stored densely
+	 */
+	public Matrix.Double toDense() {
+		if ((long) this.rows * this.columns > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Matrix is too large to be stored densely");
+		final double[] data = new double[this.rows * this.columns];
+		final int lines = this.pointers.length - 1;
+		for (int line = 0; line < lines; line++)
+			for (int i = this.pointers[line]; i < this.pointers[line + 1]; i++)
+				data[line * (this.layout == Layout.CSR ? this.columns : this.rows) + this.indices[i]] = this.values[i];
+		return this.layout == Layout.CSR
+				? new Matrix.Double(data, this.rows, this.columns, 0, this.columns, 1)
+				: new Matrix.Double(data, this.rows, this.columns, 0, 1, this.rows);
+	}
+
+	/**
+	 * Multiplies this matrix by a vector. If the matrix is stored in CSR layout
+	 * and has enough non-zero elements, blocks of rows with approximately the
+	 * same count of non-zero elements are multiplied in parallel.
+	 *
+	 * @param vector the vector
+	 * @return {@code this} &middot; {@code vector}
+	 * @throws IllegalArgumentException if count of coordinates of the vector is
+	 *                                  not equal to count of columns
+	 */
+	public Vector.Double multiply(final Vector.Double vector) {
+		if (vector.coordinates() != this.columns)
+			throw new IllegalArgumentException("Vector size does not match the matrix size");
+		final double[] x = new double[this.columns];
+		for (int i = 0; i < x.length; i++)
+			x[i] = vector.get(i);
+		final double[] y = new double[this.rows];
+
+		if (this.layout == Layout.CSR)
+			this.forEachRowBlock((from, to) -> {
+				for (int row = from; row < to; row++) {
+					double sum = .0;
+					for (int i = this.pointers[row]; i < this.pointers[row + 1]; i++)
+						sum += this.values[i] * x[this.indices[i]];
+					y[row] = sum;
+				}
+			});
+		else
+			for (int column = 0; column < this.columns; column++) {
+				final double xj = x[column];
+				if (xj != 0)
+					for (int i = this.pointers[column]; i < this.pointers[column + 1]; i++)
+						y[this.indices[i]] += this.values[i] * xj;
+			}
+
+		return new Vector.Double(y, false);
+	}
+
+	/**
+	 * Multiplies this matrix by a dense matrix. If this matrix is stored in CSR
+	 * layout and has enough non-zero elements, blocks of rows are multiplied in
+	 * parallel.
+	 *
+	 * @param mtx2 the right operand
+	 * @return {@code this} &middot; {@code mtx2}
+	 * @throws IllegalArgumentException if count of columns of {@code this} is
+	 *                                  not equal to count of rows of
+	 *                                  {@code mtx2}
+	 */
+	public Matrix.Double multiply(final Matrix.Double mtx2) {
+		if (this.columns != mtx2.rows())
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		final int width = mtx2.columns();
+		final double[] b = mtx2.toRowMajorArray();
+		final double[] c = new double[this.rows * width];
+
+		if (this.layout == Layout.CSR)
+			this.forEachRowBlock((from, to) -> {
+				for (int row = from; row < to; row++)
+					for (int i = this.pointers[row]; i < this.pointers[row + 1]; i++)
+						DoubleKernels.PREFERRED.axpy(this.values[i], b, this.indices[i] * width, c, row * width, width);
+			});
+		else
+			for (int column = 0; column < this.columns; column++)
+				for (int i = this.pointers[column]; i < this.pointers[column + 1]; i++)
+					DoubleKernels.PREFERRED.axpy(this.values[i], b, column * width, c, this.indices[i] * width, width);
+
+		return new Matrix.Double(c, this.rows, width, 0, width, 1);
+	}
+
+	/**
+	 * Multiplies this matrix by another sparse matrix using Gustavson's
+	 * algorithm. The result is stored in CSR layout unless both operands are
+	 * stored in CSC layout.
+	 *
+	 * @param mtx2 the right operand
+	 * @return {@code this} &middot; {@code mtx2}
+	 * @throws IllegalArgumentException if count of columns of {@code this} is
+	 *                                  not equal to count of rows of
+	 *                                  {@code mtx2}
+	 */
+	public SparseMatrix multiply(final SparseMatrix mtx2) {
+		if (this.columns != mtx2.rows)
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		// (AB)^T = B^T A^T, and transposed CSC matrices are CSR matrices
+		if (this.layout == Layout.CSC && mtx2.layout == Layout.CSC)
+			return SparseMatrix.multiplyRows(mtx2.transpose(), this.transpose()).transpose();
+		return SparseMatrix.multiplyRows(this.toLayout(Layout.CSR), mtx2.toLayout(Layout.CSR));
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append('{');
+		final int lines = this.pointers.length - 1;
+		boolean first = true;
+		for (int line = 0; line < lines; line++)
+			for (int i = this.pointers[line]; i < this.pointers[line + 1]; i++) {
+				if (!first)
+					sb.append(", ");
+				first = false;
+				final int row = this.layout == Layout.CSR ? line : this.indices[i];
+				final int column = this.layout == Layout.CSR ? this.indices[i] : line;
+				sb.append('(').append(row).append(", ").append(column).append(")=").append(this.values[i]);
+			}
+		sb.append('}');
+		return sb.toString();
+	}
+
+	@Override
+	public String toLaTeX() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("\\left[ \\begin{align*} ");
+		for (int i = 0; i < this.rows; i++)
+			for (int j = 0; j < this.columns; j++) {
+				sb.append(this.get(i, j));
+				if (j < this.columns - 1)
+					sb.append(" & ");
+				else if (i < this.rows - 1)
+					sb.append(" \\\\ ");
+			}
+		sb.append(" \\end{align*} \\right]");
+		return sb.toString();
+	}
+
+	/**
+	 * Multiplies two CSR matrices.
+	 */
+	private static SparseMatrix multiplyRows(final SparseMatrix a, final SparseMatrix b) {
+		final int width = b.columns;
+		final double[] accumulator = new double[width];
+		final int[] marker = new int[width];
+		Arrays.fill(marker, -1);
+
+		final int[] pointers = new int[a.rows + 1];
+		int[] indices = new int[Math.max(a.values.length, 16)];
+		double[] values = new double[indices.length];
+		int count = 0;
+		for (int row = 0; row < a.rows; row++) {
+			final int start = count;
+			for (int i = a.pointers[row]; i < a.pointers[row + 1]; i++) {
+				final int k = a.indices[i];
+				final double aik = a.values[i];
+				for (int j = b.pointers[k]; j < b.pointers[k + 1]; j++) {
+					final int column = b.indices[j];
+					if (marker[column] != row) {
+						marker[column] = row;
+						accumulator[column] = aik * b.values[j];
+						if (count == indices.length) {
+							indices = Arrays.copyOf(indices, 2 * count);
+							values = Arrays.copyOf(values, 2 * count);
+						}
+						indices[count++] = column;
+					} else
+						accumulator[column] += aik * b.values[j];
+				}
+			}
+			Arrays.sort(indices, start, count);
+			for (int i = start; i < count; i++)
+				values[i] = accumulator[indices[i]];
+			pointers[row + 1] = count;
+		}
+		return new SparseMatrix(Layout.CSR, a.rows, width, pointers, Arrays.copyOf(indices, count),
+				Arrays.copyOf(values, count));
+	}
+
+	/**
+	 * Calls {@code action} for blocks of rows covering all rows. Blocks contain
+	 * approximately the same count of non-zero elements and are processed in
+	 * parallel if the matrix is large enough.
+	 */
+	private void forEachRowBlock(final RowBlockAction action) {
+		final int nonZeros = this.values.length;
+		if (nonZeros < PARALLEL_THRESHOLD || this.rows < 2) {
+			action.apply(0, this.rows);
+			return;
+		}
+		final int blocks = Math.min(this.rows, 4 * ForkJoinPool.getCommonPoolParallelism());
+		final int[] bounds = new int[blocks + 1];
+		for (int block = 1; block < blocks; block++)
+			bounds[block] = this.firstRowWith((int) ((long) nonZeros * block / blocks));
+		bounds[blocks] = this.rows;
+		IntStream.range(0, blocks).parallel().forEach(block -> {
+			if (bounds[block] < bounds[block + 1])
+				action.apply(bounds[block], bounds[block + 1]);
+		});
+	}
+
+	/**
+	 * Returns the first row whose first element has index at least
+	 * {@code position}.
+	 */
+	private int firstRowWith(final int position) {
+		int low = 0;
+		int high = this.rows;
+		while (low < high) {
+			final int middle = (low + high) >>> 1;
+			if (this.pointers[middle] < position)
+				low = middle + 1;
+			else
+				high = middle;
+		}
+		return low;
+	}
+
+	private static Layout other(final Layout layout) {
+		return layout == Layout.CSR ? Layout.CSC : Layout.CSR;
+	}
+
+	private static void checkSize(final int rows, final int columns) {
+		if (rows <= 0 || columns <= 0)
+			throw new IllegalArgumentException("Matrix size must be positive");
+	}
+
+	/**
+	 * Processes rows [{@code from}; {@code to}).
+	 */
+	@FunctionalInterface
+	private interface RowBlockAction {
+		void apply(int from, int to);
+	}
+}
@@ -0,0 +1,58 @@
+package jmath;
+
+/**
+ * Algorithms for summing products of {@code double}s, e.g. in
+ * {@link Vector.Double#dotProduct(Vector.Double, Summation)}. They differ in
+ * speed and in the bound of the rounding error of a sum of <var>n</var>
+ * products, where <var>u</var> = 2<sup>&minus;53</sup> is the unit roundoff.
+ * All algorithms split long sums into blocks which are summed in parallel.
+ * Blocks depend only on <var>n</var>, so no result depends on the count of
+ * threads. Results of all algorithms but {@link #REPRODUCIBLE} may however
+ * differ between machines, as they use SIMD instructions of varying width.
+ */
+public enum Summation {
+
+	/**
+	 * Sums the products in several independent accumulators, using SIMD
+	 * instructions where available. This is the fastest algorithm, but the
+	 * error bound grows linearly, (<var>n</var> &minus; 1) <var>u</var>
+	 * &sum;|<var>a</var><sub><var>i</var></sub><var>b</var><sub><var>i</var></sub>|,
+	 * and the exact order of additions depends on the hardware.
+	 */
+	FAST,
+
+	/**
+	 * Sums short blocks of products like {@link #FAST} and adds the partial
+	 * sums pairwise in a balanced tree. It is nearly as fast as {@link #FAST},
+	 * but the error bound grows only logarithmically with <var>n</var>.
+	 */
+	PAIRWISE,
+
+	/**
+	 * Sums the products with compensated (Kahan&ndash;Babu&scaron;ka)
+	 * summation, which keeps track of the rounding errors of all additions.
+	 * The error of the sum is about <var>u</var> &sum;|<var>a</var><sub><var>i</var></sub><var>b</var><sub><var>i</var></sub>|
+	 * independently of <var>n</var>, only rounding of the individual products
+	 * remains. It is several times slower than {@link #FAST}.
+	 */
+	KAHAN,
+
+	/**
+	 * Sums the products like {@link #FAST}, but every product is added to the
+	 * accumulator by a fused multiply-add, which rounds once instead of twice.
+	 * On hardware with FMA instructions (x86-64 since Haswell, ARMv8) it is
+	 * as fast as {@link #FAST} or faster and slightly more accurate. Elsewhere
+	 * {@link Math#fma(double, double, double)} is emulated in software and
+	 * this algorithm is very slow.
+	 */
+	FMA,
+
+	/**
+	 * Sums blocks of fixed length in a fixed order without SIMD instructions
+	 * and adds their sums in a tree given only by <var>n</var>. The result is
+	 * bitwise identical on every JVM regardless of the count of threads,
+	 * hardware or availability of the Vector API, while long sums are still
+	 * computed in parallel. The error bound is the same as of {@link #FAST}.
+	 */
+	REPRODUCIBLE
+}
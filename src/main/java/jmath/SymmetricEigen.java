@@ -0,0 +1,84 @@
+package jmath;
+
+/**
+ * Eigendecomposition of real symmetric matrices using the cyclic Jacobi
+ * method. Used by {@link Matrix.Double#powSymmetric(int)}.
+ */
+final class SymmetricEigen {
+
+	private static final int MAX_SWEEPS = 64;
+
+	// Do not create any instances
+	private SymmetricEigen() {
+	}
+
+	/**
+	 * Decomposes symmetric matrix <var>A</var> = <var>V</var> &middot;
+	 * <var>&Lambda;</var> &middot; <var>V</var><sup>T</sup>.
+	 *
+	 * @param a       the matrix in row-major order; it is overwritten
+	 * @param n       count of rows and columns
+	 * @param values  array of {@code n} elements to store eigenvalues to
+	 * @param vectors array of {@code n * n} elements to store eigenvectors to in
+	 *                row-major order, one eigenvector per column
+	 */
+	static void decompose(final double[] a, final int n, final double[] values, final double[] vectors) {
+		for (int i = 0; i < n * n; i++)
+			vectors[i] = i % (n + 1) == 0 ? 1.0 : .0;
+
+		double norm = .0;
+		for (final double value : a)
+			norm += value * value;
+
+		for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+			double off = .0;
+			for (int p = 0; p < n; p++)
+				for (int q = p + 1; q < n; q++)
+					off += a[p * n + q] * a[p * n + q];
+			if (off <= norm * 1e-32)
+				break;
+
+			for (int p = 0; p < n; p++)
+				for (int q = p + 1; q < n; q++)
+					SymmetricEigen.rotate(a, vectors, n, p, q);
+		}
+
+		for (int i = 0; i < n; i++)
+			values[i] = a[i * n + i];
+	}
+
+	/**
+	 * Applies Jacobi rotation which zeroes element <var>a</var><sub>pq</sub>.
+	 */
+	private static void rotate(final double[] a, final double[] v, final int n, final int p, final int q) {
+		final double apq = a[p * n + q];
+		if (apq == 0)
+			return;
+
+		final double theta = (a[q * n + q] - a[p * n + p]) / (2 * apq);
+		final double t = Math.abs(theta) > 1e150
+				? 1 / (2 * theta)
+				: Math.signum(theta == 0 ? 1 : theta) / (Math.abs(theta) + Math.sqrt(theta * theta + 1));
+		final double c = 1 / Math.sqrt(t * t + 1);
+		final double s = t * c;
+
+		for (int k = 0; k < n; k++) {
+			final double akp = a[k * n + p];
+			final double akq = a[k * n + q];
+			a[k * n + p] = c * akp - s * akq;
+			a[k * n + q] = s * akp + c * akq;
+		}
+		for (int k = 0; k < n; k++) {
+			final double apk = a[p * n + k];
+			final double aqk = a[q * n + k];
+			a[p * n + k] = c * apk - s * aqk;
+			a[q * n + k] = s * apk + c * aqk;
+		}
+		for (int k = 0; k < n; k++) {
+			final double vkp = v[k * n + p];
+			final double vkq = v[k * n + q];
+			v[k * n + p] = c * vkp - s * vkq;
+			v[k * n + q] = s * vkp + c * vkq;
+		}
+	}
+}
@@ -1,5 +1,10 @@
 package jmath;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.math.BigDecimal;
 import java.math.MathContext;
 import java.util.Arrays;
@@ -45,6 +50,14 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		for (int i = 0; i < number.getImaginaryPartsCount(); i++) this.coordinates[i + 1] = number.getImaginaryPart(i);
 	}
 
+	/**
+	 * Adopts given array if {@code copy} is {@code false}. Adopted array must
+	 * not be modified afterwards.
+	 */
+	private Vector(final BigDecimal[] coordinates, final boolean copy) {
+		this.coordinates = copy ? Arrays.copyOf(coordinates, coordinates.length) : coordinates;
+	}
+
 	/**
 	 * Gets the coordinate at index {@code i}. Idexing starts from zero.
 	 * 
@@ -90,10 +103,10 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 	 */
 	public Vector add(final Vector w, final MathContext mc) {
 		Vector.assertSameSize(this, w);
-		final Vector result = new Vector(this.size());
+		final BigDecimal[] result = new BigDecimal[this.size()];
 		for(int i = 0; i < this.size(); i++)
-			result.coordinates[i] = this.get(0).add(w.get(0), mc);
-		return result;
+			result[i] = this.get(i).add(w.get(i), mc);
+		return new Vector(result, false);
 	}
 	
 	/**
@@ -106,10 +119,10 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 	 */
 	public Vector subtract(final Vector w, final MathContext mc) {
 		Vector.assertSameSize(this, w);
-		final Vector result = new Vector(this.size());
+		final BigDecimal[] result = new BigDecimal[this.size()];
 		for(int i = 0; i < this.size(); i++)
-			result.coordinates[i] = this.get(0).subtract(w.get(0), mc);
-		return result;
+			result[i] = this.get(i).subtract(w.get(i), mc);
+		return new Vector(result, false);
 	}
 	
 	/**
@@ -124,7 +137,7 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		Vector.assertSameSize(this, w);
 		BigDecimal result = BigDecimal.ZERO;
 		for(int i = 0; i < this.size(); i++)
-			result = result.add(this.get(0).multiply(w.get(0), mc), mc);
+			result = result.add(this.get(i).multiply(w.get(i), mc), mc);
 		return result;
 	}
 	
@@ -176,6 +189,40 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		return null;
 	}
 
+	/**
+	 * Replaces this vector by its compact serialized form.
+	 */
+	private Object writeReplace() {
+		return new Ser(Ser.VECTOR, this);
+	}
+
+	/**
+	 * Validates a vector written in the default serialized form.
+	 */
+	private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+		in.defaultReadObject();
+		if (this.coordinates == null || Arrays.asList(this.coordinates).contains(null))
+			throw new InvalidObjectException("Invalid coordinates");
+	}
+
+	private Object readResolve() {
+		// Copies the coordinates, so the stream keeps no reference to them
+		return new Vector(this.coordinates, true);
+	}
+
+	/**
+	 * Writes count of coordinates and all coordinates.
+	 */
+	void writeExternal(final DataOutput out) throws IOException {
+		Ser.writeSize(out, this.coordinates.length);
+		for (final BigDecimal coordinate : this.coordinates)
+			Ser.writeDecimal(out, coordinate);
+	}
+
+	static Vector readExternal(final DataInput in) throws IOException {
+		return new Vector(Ser.readDecimals(in, Ser.readSize(in)), false);
+	}
+
 	// Double class ----------------------------------------------------------------
 	
 	/**
@@ -212,12 +259,20 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		 * @param number  the hypercomplex number
 		 */
 		public Double(final Hypercomplex.Double number) {
-			this(1 + number.getImaginaryPartsCount());
+			this(new double[1 + number.getImaginaryPartsCount()], false);
 			this.coordinates[0] = number.getRealPart();
 			for (int i = 0; i < number.getImaginaryPartsCount(); i++)
 				this.coordinates[i + 1] = number.getImaginaryPart(i);
 		}
 
+		/**
+		 * Adopts given array if {@code copy} is {@code false}. Adopted array must
+		 * not be modified afterwards.
+		 */
+		Double(final double[] coordinates, final boolean copy) {
+			this.coordinates = copy ? Arrays.copyOf(coordinates, coordinates.length) : coordinates;
+		}
+
 		/**
 		 * Gets the coordinate at index {@code i}. Idexing starts from zero.
 		 * 
@@ -258,10 +313,9 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		 */
 		public Vector.Double add(final Vector.Double w) {
 			Vector.assertSameSize(this, w);
-			final Vector.Double result = new Vector.Double(this.coordinates());
-			for(int i = 0; i < this.coordinates(); i++)
-				result.coordinates[i] = this.get(0) + w.get(0);
-			return result;
+			final double[] result = new double[this.coordinates.length];
+			DoubleKernels.PREFERRED.add(this.coordinates, 0, w.coordinates, 0, result, 0, result.length);
+			return new Vector.Double(result, false);
 		}
 		
 		/**
@@ -273,10 +327,9 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		 */
 		public Vector.Double subtract(final Vector.Double w) {
 			Vector.assertSameSize(this, w);
-			final Vector.Double result = new Vector.Double(this.coordinates());
-			for(int i = 0; i < this.coordinates(); i++)
-				result.coordinates[i] = this.get(0) - w.get(0);
-			return result;
+			final double[] result = new double[this.coordinates.length];
+			DoubleKernels.PREFERRED.subtract(this.coordinates, 0, w.coordinates, 0, result, 0, result.length);
+			return new Vector.Double(result, false);
 		}
 		
 		/**
@@ -287,11 +340,24 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 		 * @return <b>v&#8407;</b> &middot; <b>w&#8407;</b>, where <b>v&#8407;</b> is {@code this} vector
 		 */
 		public double dotProduct(final Vector.Double w) {
+			return this.dotProduct(w, Summation.FAST);
+		}
+
+		/**
+		 * Returns dot product of two vectors summed by given algorithm. Both
+		 * vectors must have the same number of dimensions. Long vectors are
+		 * summed in parallel.
+		 *
+		 * @param w         vector to be {@code this} multiplied by
+		 * @param summation the summation algorithm
+		 * @return <b>v&#8407;</b> &middot; <b>w&#8407;</b>, where <b>v&#8407;</b> is {@code this} vector
+		 * @throws IllegalArgumentException if the vectors have different number
+		 *                                  of dimensions
+		 * @see Summation
+		 */
+		public double dotProduct(final Vector.Double w, final Summation summation) {
 			Vector.assertSameSize(this, w);
-			double result = .0;
-			for(int i = 0; i < this.coordinates(); i++)
-				result += this.get(0) * w.get(0);
-			return result;
+			return DotProduct.dot(summation, this.coordinates, 0, w.coordinates, 0, this.coordinates.length);
 		}
 		
 		/**
@@ -329,5 +395,38 @@ public final class Vector implements MathEntity, Comparable<Vector> {
 			return null;
 		}
 
+		/**
+		 * Replaces this vector by its compact serialized form.
+		 */
+		private Object writeReplace() {
+			return new Ser(Ser.VECTOR_DOUBLE, this);
+		}
+
+		/**
+		 * Validates a vector written in the default serialized form.
+		 */
+		private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+			in.defaultReadObject();
+			if (this.coordinates == null)
+				throw new InvalidObjectException("Invalid coordinates");
+		}
+
+		private Object readResolve() {
+			// Copies the coordinates, so the stream keeps no reference to them
+			return new Vector.Double(this.coordinates, true);
+		}
+
+		/**
+		 * Writes count of coordinates and all coordinates.
+		 */
+		void writeExternal(final DataOutput out) throws IOException {
+			Ser.writeSize(out, this.coordinates.length);
+			Ser.writeDoubles(out, this.coordinates, 0, this.coordinates.length);
+		}
+
+		static Vector.Double readExternal(final DataInput in) throws IOException {
+			return new Vector.Double(Ser.readDoubles(in, Ser.readSize(in)), false);
+		}
+
 	}
 }
@@ -0,0 +1,133 @@
+package jmath;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Implementation of {@link DoubleKernels} using the incubating Vector API. Do
+ * not reference this class directly, it is loaded reflectively by
+ * {@link DoubleKernels} only when {@code jdk.incubator.vector} is available.
+ */
+final class VectorApiDoubleKernels extends DoubleKernels {
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	VectorApiDoubleKernels() {
+	}
+
+	@Override
+	void add(final double[] a, final int aOffset, final double[] b, final int bOffset, final double[] out,
+			final int outOffset, final int length) {
+		final int bound = SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.add(DoubleVector.fromArray(SPECIES, b, bOffset + i))
+					.intoArray(out, outOffset + i);
+		for (; i < length; i++)
+			out[outOffset + i] = a[aOffset + i] + b[bOffset + i];
+	}
+
+	@Override
+	void subtract(final double[] a, final int aOffset, final double[] b, final int bOffset, final double[] out,
+			final int outOffset, final int length) {
+		final int bound = SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.sub(DoubleVector.fromArray(SPECIES, b, bOffset + i))
+					.intoArray(out, outOffset + i);
+		for (; i < length; i++)
+			out[outOffset + i] = a[aOffset + i] - b[bOffset + i];
+	}
+
+	@Override
+	void axpy(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset,
+			final int length) {
+		final DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+		final int bound = SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length())
+			va.mul(DoubleVector.fromArray(SPECIES, x, xOffset + i))
+					.add(DoubleVector.fromArray(SPECIES, y, yOffset + i))
+					.intoArray(y, yOffset + i);
+		for (; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+
+	@Override
+	void axpyFused(final double alpha, final double[] x, final int xOffset, final double[] y, final int yOffset,
+			final int length) {
+		final DoubleVector va = DoubleVector.broadcast(SPECIES, alpha);
+		final int bound = SPECIES.loopBound(length);
+		int i = 0;
+		for (; i < bound; i += SPECIES.length())
+			va.fma(DoubleVector.fromArray(SPECIES, x, xOffset + i), DoubleVector.fromArray(SPECIES, y, yOffset + i))
+					.intoArray(y, yOffset + i);
+		for (; i < length; i++)
+			y[yOffset + i] = Math.fma(alpha, x[xOffset + i], y[yOffset + i]);
+	}
+
+	@Override
+	double dot(final double[] a, final int aOffset, final double[] b, final int bOffset, final int length) {
+		final int step = SPECIES.length();
+		// Independent accumulators let the additions overlap in the pipeline
+		DoubleVector acc0 = DoubleVector.zero(SPECIES);
+		DoubleVector acc1 = DoubleVector.zero(SPECIES);
+		DoubleVector acc2 = DoubleVector.zero(SPECIES);
+		DoubleVector acc3 = DoubleVector.zero(SPECIES);
+		int i = 0;
+		for (; i + 4 * step <= length; i += 4 * step) {
+			acc0 = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.mul(DoubleVector.fromArray(SPECIES, b, bOffset + i))
+					.add(acc0);
+			acc1 = DoubleVector.fromArray(SPECIES, a, aOffset + i + step)
+					.mul(DoubleVector.fromArray(SPECIES, b, bOffset + i + step))
+					.add(acc1);
+			acc2 = DoubleVector.fromArray(SPECIES, a, aOffset + i + 2 * step)
+					.mul(DoubleVector.fromArray(SPECIES, b, bOffset + i + 2 * step))
+					.add(acc2);
+			acc3 = DoubleVector.fromArray(SPECIES, a, aOffset + i + 3 * step)
+					.mul(DoubleVector.fromArray(SPECIES, b, bOffset + i + 3 * step))
+					.add(acc3);
+		}
+		final int bound = SPECIES.loopBound(length);
+		for (; i < bound; i += step)
+			acc0 = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.mul(DoubleVector.fromArray(SPECIES, b, bOffset + i))
+					.add(acc0);
+		double sum = acc0.add(acc1).add(acc2.add(acc3)).reduceLanes(VectorOperators.ADD);
+		for (; i < length; i++)
+			sum += a[aOffset + i] * b[bOffset + i];
+		return sum;
+	}
+
+	@Override
+	double dotFused(final double[] a, final int aOffset, final double[] b, final int bOffset, final int length) {
+		final int step = SPECIES.length();
+		DoubleVector acc0 = DoubleVector.zero(SPECIES);
+		DoubleVector acc1 = DoubleVector.zero(SPECIES);
+		DoubleVector acc2 = DoubleVector.zero(SPECIES);
+		DoubleVector acc3 = DoubleVector.zero(SPECIES);
+		int i = 0;
+		for (; i + 4 * step <= length; i += 4 * step) {
+			acc0 = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.fma(DoubleVector.fromArray(SPECIES, b, bOffset + i), acc0);
+			acc1 = DoubleVector.fromArray(SPECIES, a, aOffset + i + step)
+					.fma(DoubleVector.fromArray(SPECIES, b, bOffset + i + step), acc1);
+			acc2 = DoubleVector.fromArray(SPECIES, a, aOffset + i + 2 * step)
+					.fma(DoubleVector.fromArray(SPECIES, b, bOffset + i + 2 * step), acc2);
+			acc3 = DoubleVector.fromArray(SPECIES, a, aOffset + i + 3 * step)
+					.fma(DoubleVector.fromArray(SPECIES, b, bOffset + i + 3 * step), acc3);
+		}
+		final int bound = SPECIES.loopBound(length);
+		for (; i < bound; i += step)
+			acc0 = DoubleVector.fromArray(SPECIES, a, aOffset + i)
+					.fma(DoubleVector.fromArray(SPECIES, b, bOffset + i), acc0);
+		double sum = acc0.add(acc1).add(acc2.add(acc3)).reduceLanes(VectorOperators.ADD);
+		for (; i < length; i++)
+			sum = Math.fma(a[aOffset + i], b[bOffset + i], sum);
+		return sum;
+	}
+}
@@ -89,5 +89,38 @@ public final class LineSegment3D {
         public Point3D.Double getPointTo() {
             return this.to;
         }
+
+        /**
+         * Returns the length of the line segment.
+         *
+         * @return the distance between its end points
+         */
+        public double length() {
+            return this.from.distance(this.to);
+        }
+
+        /**
+         * Returns the distance between given point and the nearest point of the
+         * line segment. Dot products are computed by fused multiply-add.
+         *
+         * @param point the point
+         * @return the distance
+         */
+        public double distance(final Point3D.Double point) {
+            final double dx = this.to.getX() - this.from.getX();
+            final double dy = this.to.getY() - this.from.getY();
+            final double dz = this.to.getZ() - this.from.getZ();
+            final double px = point.getX() - this.from.getX();
+            final double py = point.getY() - this.from.getY();
+            final double pz = point.getZ() - this.from.getZ();
+            final double lengthSquared = Math.fma(dx, dx, Math.fma(dy, dy, dz * dz));
+            // Parameter of the orthogonal projection, clamped to the segment
+            double t = lengthSquared == .0 ? .0 : Math.fma(px, dx, Math.fma(py, dy, pz * dz)) / lengthSquared;
+            t = Math.max(.0, Math.min(1.0, t));
+            final double ex = Math.fma(-t, dx, px);
+            final double ey = Math.fma(-t, dy, py);
+            final double ez = Math.fma(-t, dz, pz);
+            return Math.sqrt(Math.fma(ex, ex, Math.fma(ey, ey, ez * ez)));
+        }
     }
 }
@@ -131,6 +131,21 @@ public final class Point3D {
 			return new Vector.Double(this.x, this.y, this.z);
 		}
 
+		/**
+		 * Returns the Euclidean distance between this and another point. Squares
+		 * of differences of coordinates are summed by fused multiply-add, which
+		 * rounds once per coordinate.
+		 *
+		 * @param point the other point
+		 * @return the distance
+		 */
+		public double distance(final Point3D.Double point) {
+			final double dx = point.x - this.x;
+			final double dy = point.y - this.y;
+			final double dz = point.z - this.z;
+			return Math.sqrt(Math.fma(dx, dx, Math.fma(dy, dy, dz * dz)));
+		}
+
 		/**
 		 * Constructs a 3D point using <var>x</var>, <var>y</var> and
 		 * <var>z</var>-coordinates.
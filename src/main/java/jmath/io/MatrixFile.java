@@ -0,0 +1,366 @@
+package jmath.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import jmath.Matrix;
+import jmath.OffHeapMatrix;
+
+/**
+ * <p>
+ * Reads and writes matrices in a compact binary format. Every file starts with
+ * a header of {@value #HEADER_SIZE} bytes, all numbers are little-endian:
+ * </p>
+ * <table>
+ * <caption>Header</caption>
+ * <tr><th>Offset</th><th>Size</th><th>Content</th></tr>
+ * <tr><td>0</td><td>4</td><td>ASCII characters {@code JMAT}</td></tr>
+ * <tr><td>4</td><td>4</td><td>version of the format, currently 1</td></tr>
+ * <tr><td>8</td><td>1</td><td>type of elements, 1 for {@code double}, 2 for
+ * {@link BigDecimal}</td></tr>
+ * <tr><td>9</td><td>1</td><td>layout, 0 for row-major, 1 for column-major</td></tr>
+ * <tr><td>12</td><td>4</td><td>count of rows</td></tr>
+ * <tr><td>16</td><td>4</td><td>count of columns</td></tr>
+ * </table>
+ * <p>
+ * Other bytes of the header are zero. A file written by {@link MatrixWriter}
+ * may contain no rows, such a file can only be read by {@link MatrixReader}.
+ * The header is followed by the elements
+ * in the given layout. A {@code double} is stored in its 8 bytes, so the whole
+ * payload can be mapped to memory. A {@link BigDecimal} is stored as its
+ * zigzag-encoded scale and length of its unscaled value, both as unsigned
+ * variable-length integers with 7 bits per byte and least significant bits
+ * first, followed by the unscaled value as a big-endian two's-complement
+ * number of that length. This is the same encoding as in serialized matrices.
+ * </p>
+ * <p>
+ * Files are always written in row-major layout. Mapping a file by
+ * {@link #map(Path, FileChannel.MapMode)} takes time independent of its size,
+ * pages are read from the disk only when the elements are accessed.
+ * </p>
+ */
+public final class MatrixFile {
+
+	/**
+	 * Size of the header in bytes. It keeps the payload aligned to 8 bytes.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	static final int VERSION = 1;
+
+	static final byte TYPE_DOUBLE = 1;
+
+	static final byte TYPE_DECIMAL = 2;
+
+	static final byte ROW_MAJOR = 0;
+
+	static final byte COLUMN_MAJOR = 1;
+
+	static final int ROWS_OFFSET = 12;
+
+	private static final byte[] MAGIC = { 'J', 'M', 'A', 'T' };
+
+	/**
+	 * Size of the buffers used for {@link BigDecimal} matrices.
+	 */
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	// Do not create any instances
+	private MatrixFile() {
+	}
+
+	/**
+	 * Writes a matrix of {@code double}s to a file, replacing its content.
+	 *
+	 * @param path   the file
+	 * @param matrix the matrix
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(final Path path, final Matrix.Double matrix) throws IOException {
+		try (MatrixWriter writer = MatrixWriter.binary(path, matrix.columns())) {
+			writer.write(matrix);
+		}
+	}
+
+	/**
+	 * Writes an off-heap matrix of {@code double}s to a file, replacing its
+	 * content.
+	 *
+	 * @param path   the file
+	 * @param matrix the matrix
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(final Path path, final OffHeapMatrix matrix) throws IOException {
+		try (MatrixWriter writer = MatrixWriter.binary(path, matrix.columns())) {
+			writer.write(matrix);
+		}
+	}
+
+	/**
+	 * Writes a matrix of {@link BigDecimal}s to a file, replacing its content.
+	 * Every element is stored exactly.
+	 *
+	 * @param path   the file
+	 * @param matrix the matrix
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static void write(final Path path, final Matrix matrix) throws IOException {
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+				BUFFER_SIZE))) {
+			out.write(MatrixFile.header(TYPE_DECIMAL, ROW_MAJOR, matrix.rows(), matrix.columns()).array());
+			for (int row = 0; row < matrix.rows(); row++)
+				for (int column = 0; column < matrix.columns(); column++)
+					MatrixFile.writeDecimal(out, matrix.get(row, column));
+		}
+	}
+
+	/**
+	 * Reads a matrix of {@code double}s from a file. The file is mapped to
+	 * memory and copied to the heap by bulk operations.
+	 *
+	 * @param path the file
+	 * @return the matrix
+	 * @throws IOException if an I/O error occurs or if the file does not
+	 *                     contain a non-empty matrix of {@code double}s
+	 */
+	public static Matrix.Double readDouble(final Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final Header header = MatrixFile.readHeader(channel, TYPE_DOUBLE).checkNotEmpty();
+			if (header.layout == ROW_MAJOR)
+				return OffHeapMatrix.map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, header.rows,
+						header.columns).toMatrix();
+			// Columns are rows of the transposed matrix
+			return OffHeapMatrix.map(channel, FileChannel.MapMode.READ_ONLY, HEADER_SIZE, header.columns,
+					header.rows).toMatrix().transpose();
+		}
+	}
+
+	/**
+	 * Maps a matrix of {@code double}s stored in row-major layout in a file to
+	 * memory. No elements are read. Changes of a matrix mapped in
+	 * {@link FileChannel.MapMode#READ_WRITE READ_WRITE} mode are written back
+	 * to the file.
+	 *
+	 * @param path the file
+	 * @param mode the mapping mode
+	 * @return the mapped matrix
+	 * @throws IOException if an I/O error occurs or if the file does not
+	 *                     contain a non-empty matrix of {@code double}s in
+	 *                     row-major layout
+	 * @see OffHeapMatrix#map(FileChannel, FileChannel.MapMode, long, int, int)
+	 */
+	public static OffHeapMatrix map(final Path path, final FileChannel.MapMode mode) throws IOException {
+		final StandardOpenOption[] options = mode == FileChannel.MapMode.READ_WRITE
+				? new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE }
+				: new StandardOpenOption[] { StandardOpenOption.READ };
+		try (FileChannel channel = FileChannel.open(path, options)) {
+			final Header header = MatrixFile.readHeader(channel, TYPE_DOUBLE).checkNotEmpty();
+			if (header.layout != ROW_MAJOR)
+				throw new IOException("Only matrices in row-major layout can be mapped");
+			// The mapping stays valid after the channel is closed
+			return OffHeapMatrix.map(channel, mode, HEADER_SIZE, header.rows, header.columns);
+		}
+	}
+
+	/**
+	 * Multiplies matrices of {@code double}s stored in files and writes the
+	 * product to another file, replacing its content. All files are mapped to
+	 * memory, so the matrices do not need to fit into it. The product is the
+	 * same as the one given by {@link Matrix.Double#multiply(Matrix.Double)}.
+	 *
+	 * @param left   file with the left operand
+	 * @param right  file with the right operand
+	 * @param result file to write the product to
+	 * @throws IOException              if an I/O error occurs or if an operand
+	 *                                  is not a non-empty matrix of
+	 *                                  {@code double}s in row-major layout
+	 * @throws IllegalArgumentException if the matrices cannot be multiplied or
+	 *                                  if {@code result} is one of the
+	 *                                  operands
+	 * @see OffHeapMatrix#multiply(OffHeapMatrix, OffHeapMatrix)
+	 */
+	public static void multiply(final Path left, final Path right, final Path result) throws IOException {
+		final OffHeapMatrix mtx1 = MatrixFile.map(left, FileChannel.MapMode.READ_ONLY);
+		final OffHeapMatrix mtx2 = MatrixFile.map(right, FileChannel.MapMode.READ_ONLY);
+		if (mtx1.columns() != mtx2.rows())
+			throw new IllegalArgumentException("Cannot multiply given matrices");
+		if (Files.exists(result) && (Files.isSameFile(result, left) || Files.isSameFile(result, right)))
+			throw new IllegalArgumentException("Result must not be an operand");
+		try (FileChannel channel = FileChannel.open(result, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			final Header header = new Header(TYPE_DOUBLE, ROW_MAJOR, mtx1.rows(), mtx2.columns());
+			MatrixFile.writeFully(channel, MatrixFile.header(TYPE_DOUBLE, ROW_MAJOR, header.rows, header.columns));
+			// Extend the file to its final size, so that the payload can be mapped
+			channel.write(ByteBuffer.allocate(1), HEADER_SIZE + header.payloadSize() - 1);
+			mtx1.multiply(mtx2, OffHeapMatrix.map(channel, FileChannel.MapMode.READ_WRITE, HEADER_SIZE,
+					header.rows, header.columns));
+		}
+	}
+
+	/**
+	 * Reads a matrix of {@link BigDecimal}s from a file.
+	 *
+	 * @param path the file
+	 * @return the matrix
+	 * @throws IOException if an I/O error occurs or if the file does not
+	 *                     contain a non-empty matrix of {@link BigDecimal}s
+	 */
+	public static Matrix readDecimal(final Path path) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path),
+				BUFFER_SIZE))) {
+			final byte[] bytes = new byte[HEADER_SIZE];
+			in.readFully(bytes);
+			final Header header = MatrixFile.parseHeader(ByteBuffer.wrap(bytes), TYPE_DECIMAL).checkNotEmpty();
+			final BigDecimal[][] data = new BigDecimal[header.rows][header.columns];
+			if (header.layout == ROW_MAJOR)
+				for (int row = 0; row < header.rows; row++)
+					for (int column = 0; column < header.columns; column++)
+						data[row][column] = MatrixFile.readDecimal(in);
+			else
+				for (int column = 0; column < header.columns; column++)
+					for (int row = 0; row < header.rows; row++)
+						data[row][column] = MatrixFile.readDecimal(in);
+			return new Matrix(data);
+		}
+	}
+
+	/**
+	 * Parsed header of a file.
+	 */
+	static final class Header {
+
+		final byte type;
+		final byte layout;
+		final int rows;
+		final int columns;
+
+		Header(final byte type, final byte layout, final int rows, final int columns) {
+			this.type = type;
+			this.layout = layout;
+			this.rows = rows;
+			this.columns = columns;
+		}
+
+		long payloadSize() {
+			return (long) this.rows * this.columns * java.lang.Double.BYTES;
+		}
+
+		/**
+		 * Rejects a file without rows, which cannot be read as a whole matrix.
+		 */
+		Header checkNotEmpty() throws IOException {
+			if (this.rows == 0)
+				throw new IOException("Matrix file contains no rows");
+			return this;
+		}
+	}
+
+	static ByteBuffer header(final byte type, final byte layout, final int rows, final int columns) {
+		final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		header.put(MAGIC).putInt(VERSION).put(type).put(layout).putShort((short) 0).putInt(rows).putInt(columns);
+		return header.position(0);
+	}
+
+	static Header parseHeader(final ByteBuffer buffer, final byte type) throws IOException {
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		final byte[] magic = new byte[MAGIC.length];
+		buffer.get(magic);
+		if (!Arrays.equals(magic, MAGIC))
+			throw new IOException("Not a matrix file");
+		final int version = buffer.getInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported version " + version);
+		final byte actualType = buffer.get();
+		if (actualType != type)
+			throw new IOException(type == TYPE_DOUBLE
+					? "File does not contain a matrix of doubles"
+					: "File does not contain a matrix of BigDecimals");
+		final byte layout = buffer.get();
+		if (layout != ROW_MAJOR && layout != COLUMN_MAJOR)
+			throw new IOException("Unknown layout " + layout);
+		buffer.getShort();
+		final int rows = buffer.getInt();
+		final int columns = buffer.getInt();
+		// Files written by MatrixWriter may contain no rows
+		if (rows < 0 || columns <= 0)
+			throw new IOException("Invalid matrix size");
+		return new Header(actualType, layout, rows, columns);
+	}
+
+	/**
+	 * Reads and checks the header of a file of given type.
+	 */
+	static Header readHeader(final FileChannel channel, final byte type) throws IOException {
+		final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+		while (buffer.hasRemaining())
+			if (channel.read(buffer, buffer.position()) < 0)
+				throw new IOException("Not a matrix file");
+		final Header header = MatrixFile.parseHeader(buffer.flip(), type);
+		if (type == TYPE_DOUBLE && channel.size() < HEADER_SIZE + header.payloadSize())
+			throw new IOException("Matrix file is truncated");
+		return header;
+	}
+
+	static FileChannel create(final Path path) throws IOException {
+		return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE);
+	}
+
+	static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+	}
+
+	private static void writeDecimal(final DataOutputStream out, final BigDecimal value) throws IOException {
+		final byte[] unscaled = value.unscaledValue().toByteArray();
+		// Zigzag encoding keeps small negative scales short
+		MatrixFile.writeVarint(out, (value.scale() << 1) ^ (value.scale() >> 31));
+		MatrixFile.writeVarint(out, unscaled.length);
+		out.write(unscaled);
+	}
+
+	private static BigDecimal readDecimal(final DataInputStream in) throws IOException {
+		final int zigzag = MatrixFile.readVarint(in);
+		final int length = MatrixFile.readVarint(in);
+		if (length <= 0)
+			throw new IOException("Invalid length of a number");
+		final byte[] unscaled = new byte[length];
+		in.readFully(unscaled);
+		return new BigDecimal(new BigInteger(unscaled), (zigzag >>> 1) ^ -(zigzag & 1));
+	}
+
+	private static void writeVarint(final DataOutputStream out, final int value) throws IOException {
+		int rest = value;
+		while ((rest & ~0x7F) != 0) {
+			out.writeByte((rest & 0x7F) | 0x80);
+			rest >>>= 7;
+		}
+		out.writeByte(rest);
+	}
+
+	/**
+	 * Reads a variable-length integer of up to 32 bits.
+	 */
+	private static int readVarint(final DataInputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+			final byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new IOException("Number is too long");
+	}
+}
@@ -0,0 +1,323 @@
+package jmath.io;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import jmath.Matrix;
+
+/**
+ * <p>
+ * Reads a matrix of {@code double}s row by row, so that matrices larger than
+ * the available memory can be processed in blocks. Memory used by a reader does
+ * not depend on the size of the matrix.
+ * </p>
+ * <p>
+ * Rows can be read from a CSV file with one row per line and values separated
+ * by commas, or from a file in the {@link MatrixFile binary format}. A source
+ * may contain no rows, like one written by a {@link MatrixWriter} that was
+ * closed without any rows. A CSV source without rows has no columns.
+ * </p>
+ *
+ * <pre>
+ * try (MatrixReader reader = MatrixReader.csv(path)) {
+ *     final double[] block = new double[1024 * reader.columns()];
+ *     int rows;
+ *     while ((rows = reader.readRows(block, 0, 1024)) &gt;= 0)
+ *         process(block, rows);
+ * }
+ * </pre>
+ *
+ * @see MatrixWriter
+ */
+public abstract class MatrixReader implements Closeable {
+
+	/**
+	 * Size of blocks used by {@link #readMatrix()}, in elements.
+	 */
+	private static final int BLOCK_SIZE = 1 << 16;
+
+	private final int columns;
+
+	MatrixReader(final int columns) {
+		this.columns = columns;
+	}
+
+	/**
+	 * Opens a CSV file. The first line that is not blank determines the count of
+	 * columns.
+	 *
+	 * @param path the file, encoded in UTF-8
+	 * @return the reader
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MatrixReader csv(final Path path) throws IOException {
+		return MatrixReader.csv(Files.newBufferedReader(path, StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads CSV from given reader. The first line that is not blank determines
+	 * the count of columns. The reader is closed when this reader is closed.
+	 *
+	 * @param reader the source
+	 * @return the reader
+	 * @throws IOException if an I/O error occurs
+	 */
+	public static MatrixReader csv(final Reader reader) throws IOException {
+		final BufferedReader in = reader instanceof BufferedReader
+				? (BufferedReader) reader
+				: new BufferedReader(reader);
+		try {
+			long line = 0;
+			String text;
+			while ((text = in.readLine()) != null) {
+				line++;
+				if (!text.isBlank())
+					return new Csv(in, Csv.parse(text, line), line);
+			}
+			return new Csv(in, null, line);
+		} catch (final IOException | RuntimeException e) {
+			in.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a file in the {@link MatrixFile binary format}. The file must
+	 * contain a matrix of {@code double}s in row-major layout.
+	 *
+	 * @param path the file
+	 * @return the reader
+	 * @throws IOException if an I/O error occurs or the file does not contain a
+	 *                     matrix of {@code double}s in row-major layout
+	 */
+	public static MatrixReader binary(final Path path) throws IOException {
+		final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+		try {
+			final MatrixFile.Header header = MatrixFile.readHeader(channel, MatrixFile.TYPE_DOUBLE);
+			if (header.layout != MatrixFile.ROW_MAJOR)
+				throw new IOException("Only matrices in row-major layout can be read by rows");
+			return new Binary(channel, header.rows, header.columns);
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the count of columns of the matrix.
+	 *
+	 * @return count of columns
+	 */
+	public final int columns() {
+		return this.columns;
+	}
+
+	/**
+	 * Reads at most {@code maxRows} rows into {@code block} in row-major order,
+	 * starting at {@code offset}. Blocks until at least one row is read or the
+	 * end of the matrix is reached.
+	 *
+	 * @param block   the destination
+	 * @param offset  index of the first element of the first row in
+	 *                {@code block}
+	 * @param maxRows maximal count of rows to read
+	 * @return count of rows read, or {@code -1} at the end of the matrix
+	 * @throws IOException               if an I/O error occurs or the source is
+	 *                                   malformed
+	 * @throws IndexOutOfBoundsException if {@code block} is too short
+	 */
+	public abstract int readRows(double[] block, int offset, int maxRows) throws IOException;
+
+	/**
+	 * Reads the next row.
+	 *
+	 * @param row the destination, its length must be equal to the count of
+	 *            columns
+	 * @return {@code false} at the end of the matrix
+	 * @throws IOException              if an I/O error occurs or the source is
+	 *                                  malformed
+	 * @throws IllegalArgumentException if length of {@code row} is not equal to
+	 *                                  the count of columns
+	 */
+	public final boolean readRow(final double[] row) throws IOException {
+		if (row.length != this.columns)
+			throw new IllegalArgumentException("Length of the row does not match the count of columns");
+		return this.readRows(row, 0, 1) > 0;
+	}
+
+	/**
+	 * Reads all remaining rows into a matrix.
+	 *
+	 * @return the matrix
+	 * @throws IOException              if an I/O error occurs or the source is
+	 *                                  malformed
+	 * @throws IllegalArgumentException if no rows remain
+	 */
+	public Matrix.Double readMatrix() throws IOException {
+		if (this.columns == 0)
+			throw new IllegalArgumentException("2D array is empty");
+		final Matrix.Double.Builder builder = new Matrix.Double.Builder(this.remainingRows(), this.columns);
+		final int blockRows = Math.max(1, BLOCK_SIZE / this.columns);
+		final double[] block = new double[blockRows * this.columns];
+		int rows;
+		while ((rows = this.readRows(block, 0, blockRows)) >= 0)
+			builder.addRows(block, 0, rows);
+		return builder.build();
+	}
+
+	/**
+	 * Returns the count of remaining rows if it is known, zero otherwise.
+	 */
+	int remainingRows() {
+		return 0;
+	}
+
+	final void checkBlock(final double[] block, final int offset, final int maxRows) {
+		if (maxRows < 0)
+			throw new IllegalArgumentException("Count of rows must not be negative");
+		Objects.checkFromIndexSize(offset, Math.multiplyExact(maxRows, this.columns), block.length);
+	}
+
+	/**
+	 * Reads lines of comma-separated values.
+	 */
+	private static final class Csv extends MatrixReader {
+
+		private final BufferedReader in;
+		private long line;
+		// Values of a line read ahead, or null
+		private double[] pending;
+
+		/**
+		 * Creates a reader of rows following {@code first}, which is
+		 * {@code null} if the source contains no rows.
+		 */
+		Csv(final BufferedReader in, final double[] first, final long line) {
+			super(first == null ? 0 : first.length);
+			this.in = in;
+			this.pending = first;
+			this.line = line;
+		}
+
+		@Override
+		public int readRows(final double[] block, final int offset, final int maxRows) throws IOException {
+			this.checkBlock(block, offset, maxRows);
+			final int columns = this.columns();
+			int rows = 0;
+			if (this.pending != null && maxRows > 0) {
+				System.arraycopy(this.pending, 0, block, offset, columns);
+				this.pending = null;
+				rows++;
+			}
+			String text;
+			while (rows < maxRows && (text = this.in.readLine()) != null) {
+				this.line++;
+				if (text.isBlank())
+					continue;
+				Csv.parse(text, this.line, columns, block, offset + rows * columns);
+				rows++;
+			}
+			return rows == 0 && maxRows > 0 ? -1 : rows;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.in.close();
+		}
+
+		/**
+		 * Parses a line with any count of values.
+		 */
+		static double[] parse(final String text, final long line) throws IOException {
+			int count = 1;
+			for (int i = 0; i < text.length(); i++)
+				if (text.charAt(i) == ',')
+					count++;
+			final double[] values = new double[count];
+			Csv.parse(text, line, count, values, 0);
+			return values;
+		}
+
+		private static void parse(final String text, final long line, final int columns, final double[] target,
+				final int offset) throws IOException {
+			int start = 0;
+			for (int column = 0; column < columns; column++) {
+				if (start > text.length())
+					throw new IOException("Line " + line + " has fewer than " + columns + " values");
+				int end = text.indexOf(',', start);
+				if (end < 0)
+					end = text.length();
+				try {
+					target[offset + column] = java.lang.Double.parseDouble(text.substring(start, end).strip());
+				} catch (final NumberFormatException e) {
+					throw new IOException("Invalid number at line " + line + ", column " + (column + 1), e);
+				}
+				start = end + 1;
+			}
+			if (start <= text.length())
+				throw new IOException("Line " + line + " has more than " + columns + " values");
+		}
+	}
+
+	/**
+	 * Reads the payload of a binary file through a small direct buffer.
+	 */
+	private static final class Binary extends MatrixReader {
+
+		private static final int BUFFER_SIZE = 1 << 16;
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private long position = MatrixFile.HEADER_SIZE;
+		private int rowsLeft;
+
+		Binary(final FileChannel channel, final int rows, final int columns) {
+			super(columns);
+			this.channel = channel;
+			this.rowsLeft = rows;
+		}
+
+		@Override
+		public int readRows(final double[] block, final int offset, final int maxRows) throws IOException {
+			this.checkBlock(block, offset, maxRows);
+			if (this.rowsLeft == 0)
+				return maxRows == 0 ? 0 : -1;
+			final int rows = Math.min(maxRows, this.rowsLeft);
+			final int length = rows * this.columns();
+			for (int done = 0; done < length;) {
+				final int count = Math.min(length - done, BUFFER_SIZE / java.lang.Double.BYTES);
+				this.buffer.clear().limit(count * java.lang.Double.BYTES);
+				while (this.buffer.hasRemaining()) {
+					final int read = this.channel.read(this.buffer, this.position);
+					if (read < 0)
+						throw new IOException("Matrix file is truncated");
+					this.position += read;
+				}
+				this.buffer.flip().asDoubleBuffer().get(block, offset + done, count);
+				done += count;
+			}
+			this.rowsLeft -= rows;
+			return rows;
+		}
+
+		@Override
+		int remainingRows() {
+			return this.rowsLeft;
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.channel.close();
+		}
+	}
+}
@@ -0,0 +1,281 @@
+package jmath.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+import jmath.Matrix;
+import jmath.OffHeapMatrix;
+
+/**
+ * <p>
+ * Writes a matrix of {@code double}s row by row, so that matrices larger than
+ * the available memory can be produced in blocks. Memory used by a writer does
+ * not depend on the size of the matrix.
+ * </p>
+ * <p>
+ * Rows can be written to a CSV file with one row per line and values separated
+ * by commas, or to a file in the {@link MatrixFile binary format}. Every value
+ * is written exactly, so it is read back unchanged by {@link MatrixReader}.
+ * </p>
+ *
+ * @see MatrixReader
+ */
+public abstract class MatrixWriter implements Closeable, Flushable {
+
+	private final int columns;
+	private int rows;
+
+	MatrixWriter(final int columns) {
+		if (columns <= 0)
+			throw new IllegalArgumentException("Count of columns must be positive");
+		this.columns = columns;
+	}
+
+	/**
+	 * Creates a CSV file, replacing its content.
+	 *
+	 * @param path    the file, encoded in UTF-8
+	 * @param columns count of columns of the matrix
+	 * @return the writer
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if {@code columns} is not positive
+	 */
+	public static MatrixWriter csv(final Path path, final int columns) throws IOException {
+		if (columns <= 0)
+			throw new IllegalArgumentException("Count of columns must be positive");
+		return new Csv(Files.newBufferedWriter(path, StandardCharsets.UTF_8), columns);
+	}
+
+	/**
+	 * Writes CSV to given writer. The writer is closed when this writer is
+	 * closed.
+	 *
+	 * @param writer  the destination
+	 * @param columns count of columns of the matrix
+	 * @return the writer
+	 * @throws IllegalArgumentException if {@code columns} is not positive
+	 */
+	public static MatrixWriter csv(final Writer writer, final int columns) {
+		Objects.requireNonNull(writer, "Cannot pass null as argument");
+		return new Csv(writer instanceof BufferedWriter ? (BufferedWriter) writer : new BufferedWriter(writer),
+				columns);
+	}
+
+	/**
+	 * Creates a file in the {@link MatrixFile binary format}, replacing its
+	 * content. The count of rows is stored when the writer is closed. A file
+	 * closed without any rows can be read only by {@link MatrixReader}.
+	 *
+	 * @param path    the file
+	 * @param columns count of columns of the matrix
+	 * @return the writer
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if {@code columns} is not positive
+	 */
+	public static MatrixWriter binary(final Path path, final int columns) throws IOException {
+		if (columns <= 0)
+			throw new IllegalArgumentException("Count of columns must be positive");
+		final FileChannel channel = MatrixFile.create(path);
+		try {
+			return new Binary(channel, columns);
+		} catch (final IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the count of columns of the matrix.
+	 *
+	 * @return count of columns
+	 */
+	public final int columns() {
+		return this.columns;
+	}
+
+	/**
+	 * Returns the count of rows written so far.
+	 *
+	 * @return count of rows
+	 */
+	public final int rows() {
+		return this.rows;
+	}
+
+	/**
+	 * Writes rows stored in row-major order in {@code block}, starting at
+	 * {@code offset}.
+	 *
+	 * @param block  elements of the rows
+	 * @param offset index of the first element of the first row
+	 * @param rows   count of rows
+	 * @throws IOException               if an I/O error occurs
+	 * @throws IndexOutOfBoundsException if {@code block} is too short
+	 * @throws IllegalStateException     if the matrix would have too many rows
+	 */
+	public final void writeRows(final double[] block, final int offset, final int rows) throws IOException {
+		if (rows < 0)
+			throw new IllegalArgumentException("Count of rows must not be negative");
+		Objects.checkFromIndexSize(offset, Math.multiplyExact(rows, this.columns), block.length);
+		if (this.rows + rows < 0)
+			throw new IllegalStateException("Too many rows");
+		this.write(block, offset, rows);
+		this.rows += rows;
+	}
+
+	/**
+	 * Writes a row.
+	 *
+	 * @param row elements of the row
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if length of {@code row} is not equal to
+	 *                                  the count of columns
+	 */
+	public final void writeRow(final double... row) throws IOException {
+		if (row.length != this.columns)
+			throw new IllegalArgumentException("Length of the row does not match the count of columns");
+		this.writeRows(row, 0, 1);
+	}
+
+	/**
+	 * Writes all rows of a matrix.
+	 *
+	 * @param matrix the matrix
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if the matrix has a different count of
+	 *                                  columns
+	 */
+	public final void write(final Matrix.Double matrix) throws IOException {
+		final double[] row = new double[this.columns];
+		if (matrix.columns() != this.columns)
+			throw new IllegalArgumentException("Count of columns does not match");
+		for (int r = 0; r < matrix.rows(); r++) {
+			for (int c = 0; c < this.columns; c++)
+				row[c] = matrix.get(r, c);
+			this.writeRows(row, 0, 1);
+		}
+	}
+
+	/**
+	 * Writes all rows of an off-heap matrix.
+	 *
+	 * @param matrix the matrix
+	 * @throws IOException              if an I/O error occurs
+	 * @throws IllegalArgumentException if the matrix has a different count of
+	 *                                  columns
+	 */
+	public final void write(final OffHeapMatrix matrix) throws IOException {
+		if (matrix.columns() != this.columns)
+			throw new IllegalArgumentException("Count of columns does not match");
+		for (int r = 0; r < matrix.rows(); r++)
+			this.writeRows(matrix.getRow(r), 0, 1);
+	}
+
+	/**
+	 * Writes checked rows.
+	 */
+	abstract void write(double[] block, int offset, int rows) throws IOException;
+
+	/**
+	 * Writes lines of comma-separated values.
+	 */
+	private static final class Csv extends MatrixWriter {
+
+		private final BufferedWriter out;
+
+		Csv(final BufferedWriter out, final int columns) {
+			super(columns);
+			this.out = out;
+		}
+
+		@Override
+		void write(final double[] block, final int offset, final int rows) throws IOException {
+			final int columns = this.columns();
+			for (int r = 0; r < rows; r++) {
+				final int start = offset + r * columns;
+				for (int c = 0; c < columns; c++) {
+					if (c > 0)
+						this.out.write(',');
+					// Shortest representation that parses back to the same value
+					this.out.write(java.lang.Double.toString(block[start + c]));
+				}
+				this.out.newLine();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.out.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.out.close();
+		}
+	}
+
+	/**
+	 * Writes the payload of a binary file through a direct buffer and updates
+	 * the count of rows in the header on close.
+	 */
+	private static final class Binary extends MatrixWriter {
+
+		private static final int BUFFER_SIZE = 1 << 20;
+
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		private final DoubleBuffer doubles = this.buffer.asDoubleBuffer();
+
+		Binary(final FileChannel channel, final int columns) throws IOException {
+			super(columns);
+			this.channel = channel;
+			// Count of rows is not known yet
+			MatrixFile.writeFully(channel, MatrixFile.header(MatrixFile.TYPE_DOUBLE, MatrixFile.ROW_MAJOR, 0, columns));
+		}
+
+		@Override
+		void write(final double[] block, final int offset, final int rows) throws IOException {
+			final int length = rows * this.columns();
+			for (int done = 0; done < length;) {
+				final int count = Math.min(length - done, this.doubles.remaining());
+				this.doubles.put(block, offset + done, count);
+				done += count;
+				if (!this.doubles.hasRemaining())
+					this.flush();
+			}
+		}
+
+		@Override
+		public void flush() throws IOException {
+			this.buffer.clear().limit(this.doubles.position() * java.lang.Double.BYTES);
+			MatrixFile.writeFully(this.channel, this.buffer);
+			this.doubles.clear();
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!this.channel.isOpen())
+				return;
+			try {
+				this.flush();
+				final ByteBuffer rows = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+				rows.putInt(this.rows()).flip();
+				while (rows.hasRemaining())
+					this.channel.write(rows, MatrixFile.ROWS_OFFSET + rows.position());
+			} finally {
+				this.channel.close();
+			}
+		}
+	}
+}
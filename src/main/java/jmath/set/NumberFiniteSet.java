@@ -4,9 +4,12 @@ package jmath.set;
 import jmath.Hypercomplex;
 import jmath.Matrix;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.TreeSet;
 import java.util.function.Consumer;
 
@@ -83,22 +86,101 @@ public class NumberFiniteSet extends NumberSet implements Iterable<Hypercomplex>
 		return elements.spliterator();
 	}
 
+	/**
+	 * <p>
+	 * A set with finite count of {@link Hypercomplex.Double}s.
+	 * </p>
+	 * <p>
+	 * Sets of real numbers, i.e. of numbers whose imaginary parts are all
+	 * positive zeros, are stored compactly in a single primitive array in
+	 * Eytzinger (breadth-first) order, 8 bytes per element. The first levels of
+	 * the implicit search tree share few cache lines, so membership tests touch
+	 * far less memory than walking a tree of objects. Sets with any non-real
+	 * member are stored in a {@link TreeSet}. Both representations order and
+	 * compare elements by {@link Hypercomplex.Double#compareTo(Hypercomplex.Double)}.
+	 * Real elements are iterated as numbers without imaginary parts.
+	 * </p>
+	 */
 	public static final class Double extends NumberSet.Double implements Iterable<Hypercomplex.Double> {
+		private static final long serialVersionUID = 0x0100L;
+
+		// Exactly one of them is not null
 		private final TreeSet<Hypercomplex.Double> elements;
+		/**
+		 * Keys of real elements in Eytzinger order, starting at index 1.
+		 */
+		private final long[] keys;
 
 		public Double(final Collection<Hypercomplex.Double> collection) {
-			elements = new TreeSet<>();
-			elements.addAll(collection);
+			boolean real = true;
+			for (final Hypercomplex.Double number : collection)
+				if (!isReal(number)) {
+					real = false;
+					break;
+				}
+			if (real) {
+				final double[] values = new double[collection.size()];
+				int i = 0;
+				for (final Hypercomplex.Double number : collection)
+					values[i++] = number.getRealPart();
+				elements = null;
+				keys = eytzinger(values);
+			} else {
+				elements = new TreeSet<>();
+				elements.addAll(collection);
+				keys = null;
+			}
+		}
+
+		/**
+		 * Creates a set of real numbers.
+		 *
+		 * @param values the numbers, duplicates are ignored
+		 */
+		public Double(final double... values) {
+			elements = null;
+			keys = eytzinger(values.clone());
 		}
 
 		@Override
 		public boolean contains(final Hypercomplex.Double number) {
-			return elements.contains(number);
+			if (keys == null)
+				return elements.contains(number);
+			return isReal(number) && contains(number.getRealPart());
+		}
+
+		/**
+		 * Returns, if the set contains particular real number. Numbers are compared
+		 * like by {@link java.lang.Double#compare(double, double)}.
+		 *
+		 * @param number the number to be tested if it is in the set
+		 * @return if {@code number} is found in the set
+		 */
+		public boolean contains(final double number) {
+			if (keys == null)
+				return elements.contains(new Hypercomplex.Double(number));
+			final long key = key(number);
+			// Descend to the first key not less than the searched one
+			int i = 1;
+			while (i < keys.length)
+				i = 2 * i + (keys[i] < key ? 1 : 0);
+			// Undo the right turns made after the last left turn
+			i >>>= Integer.numberOfTrailingZeros(~i) + 1;
+			return i != 0 && keys[i] == key;
+		}
+
+		/**
+		 * Returns count of elements of the set.
+		 *
+		 * @return count of elements
+		 */
+		public int size() {
+			return keys == null ? elements.size() : keys.length - 1;
 		}
 
 		@Override
 		public boolean isEmpty() {
-			return elements.isEmpty();
+			return size() == 0;
 		}
 
 		@Override
@@ -109,13 +191,14 @@ public class NumberFiniteSet extends NumberSet implements Iterable<Hypercomplex>
 			StringBuilder stringBuilder = new StringBuilder();
 			stringBuilder.append('{');
 
-			Iterator<Hypercomplex.Double> iterator = elements.iterator();
+			Iterator<Hypercomplex.Double> iterator = iterator();
 			while(iterator.hasNext()) {
 				Hypercomplex.Double next = iterator.next();
 				stringBuilder.append(next);
 				if (iterator.hasNext())
 					stringBuilder.append("; ");
 			}
+			stringBuilder.append('}');
 
 			return stringBuilder.toString();
 		}
@@ -124,7 +207,7 @@ public class NumberFiniteSet extends NumberSet implements Iterable<Hypercomplex>
 		public String toLaTeX() {
 			StringBuilder stringBuilder = new StringBuilder();
 			stringBuilder.append("\\left\\{");
-			Iterator<Hypercomplex.Double> iterator = elements.iterator();
+			Iterator<Hypercomplex.Double> iterator = iterator();
 			while (iterator.hasNext()) {
 				stringBuilder.append(iterator.next());
 				if (iterator.hasNext())
@@ -136,17 +219,108 @@ public class NumberFiniteSet extends NumberSet implements Iterable<Hypercomplex>
 
 		@Override
 		public Iterator<Hypercomplex.Double> iterator() {
-			return elements.iterator();
+			if (keys == null)
+				return elements.iterator();
+			return new Iterator<>() {
+				// Leftmost node, i.e. the smallest key
+				private int node = keys.length > 1 ? leftmost(1) : 0;
+
+				@Override
+				public boolean hasNext() {
+					return node != 0;
+				}
+
+				@Override
+				public Hypercomplex.Double next() {
+					if (node == 0)
+						throw new NoSuchElementException();
+					final double value = value(keys[node]);
+					if (2 * node + 1 < keys.length)
+						node = leftmost(2 * node + 1);
+					else {
+						// Climb while coming from a right child, then once more
+						node >>>= Integer.numberOfTrailingZeros(~node) + 1;
+					}
+					return new Hypercomplex.Double(value);
+				}
+			};
 		}
 
 		@Override
 		public void forEach(final Consumer<? super Hypercomplex.Double> action) {
-			elements.forEach(action);
+			if (keys == null)
+				elements.forEach(action);
+			else
+				Iterable.super.forEach(action);
 		}
 
 		@Override
 		public Spliterator<Hypercomplex.Double> spliterator() {
-			return elements.spliterator();
+			if (keys == null)
+				return elements.spliterator();
+			return Spliterators.spliterator(iterator(), size(),
+					Spliterator.DISTINCT | Spliterator.ORDERED | Spliterator.NONNULL);
+		}
+
+		private int leftmost(final int node) {
+			int i = node;
+			while (2 * i < keys.length)
+				i *= 2;
+			return i;
+		}
+
+		/**
+		 * Returns if all imaginary parts are positive zeros, i.e. if the number is
+		 * equal to its real part by {@code compareTo}.
+		 */
+		private static boolean isReal(final Hypercomplex.Double number) {
+			for (int i = 0; i < number.getImaginaryPartsCount(); i++)
+				if (java.lang.Double.doubleToRawLongBits(number.getImaginaryPart(i)) != 0L)
+					return false;
+			return true;
+		}
+
+		/**
+		 * Maps a number to a {@code long} ordered like
+		 * {@link java.lang.Double#compare(double, double)}.
+		 */
+		private static long key(final double value) {
+			final long bits = java.lang.Double.doubleToLongBits(value);
+			return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+		}
+
+		private static double value(final long key) {
+			return java.lang.Double.longBitsToDouble(key ^ ((key >> 63) & Long.MAX_VALUE));
+		}
+
+		/**
+		 * Sorts and deduplicates keys of given values and stores them in
+		 * Eytzinger order.
+		 */
+		private static long[] eytzinger(final double[] values) {
+			final long[] sorted = new long[values.length];
+			for (int i = 0; i < values.length; i++)
+				sorted[i] = key(values[i]);
+			Arrays.sort(sorted);
+			int size = 0;
+			for (int i = 0; i < sorted.length; i++)
+				if (i == 0 || sorted[i] != sorted[size - 1])
+					sorted[size++] = sorted[i];
+			final long[] keys = new long[size + 1];
+			fill(keys, sorted, 0, 1);
+			return keys;
+		}
+
+		/**
+		 * Fills the subtree rooted at {@code node} by in-order traversal, returns
+		 * index of the next sorted key.
+		 */
+		private static int fill(final long[] keys, final long[] sorted, final int next, final int node) {
+			if (node >= keys.length)
+				return next;
+			int i = fill(keys, sorted, next, 2 * node);
+			keys[node] = sorted[i++];
+			return fill(keys, sorted, i, 2 * node + 1);
 		}
 	}
 }
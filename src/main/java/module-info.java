@@ -1,7 +1,9 @@
 module jmath {
     requires java.base;
+    requires static jdk.incubator.vector;
 
     exports jmath;
     exports jmath.geom3d;
+    exports jmath.io;
     exports jmath.set;
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package jmath;
+
+import java.math.BigInteger;
+
+/**
+ * Operations whose fastest implementation depends on the version of Java.
+ * This is the implementation for Java 21 and newer, see the portable one in
+ * {@code src/main/java} for details.
+ */
+final class Platform {
+
+	// Do not create any instances
+	private Platform() {
+	}
+
+	/**
+	 * Multiplies two large numbers using {@link BigInteger#parallelMultiply},
+	 * which splits the Toom&ndash;Cook multiplication of numbers with tens of
+	 * thousands of bits into tasks of the common pool.
+	 */
+	static BigInteger multiply(final BigInteger a, final BigInteger b) {
+		return a.parallelMultiply(b);
+	}
+}
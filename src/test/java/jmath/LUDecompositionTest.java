@@ -0,0 +1,86 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LUDecompositionTest {
+
+	@Test
+	void exactDeterminant() {
+		final BigDecimal[][] data = LUDecompositionTest.decimals(new Random(5), 5);
+		// Forces a row swap in the first step
+		data[0][0] = BigDecimal.ZERO;
+		final Matrix matrix = new Matrix(data);
+		final BigDecimal expected = LUDecompositionTest.cofactorDeterminant(data);
+		final BigDecimal det = matrix.determinant(MathContext.UNLIMITED);
+		assertEquals(0, expected.compareTo(det), () -> det + " != " + expected);
+	}
+
+	@Test
+	void exactDeterminantOfSingularMatrix() {
+		final BigDecimal[][] data = LUDecompositionTest.decimals(new Random(6), 4);
+		for (int col = 0; col < 4; col++)
+			data[3][col] = data[0][col].subtract(data[1][col].multiply(new BigDecimal("2.5")));
+		final Matrix matrix = new Matrix(data);
+		assertTrue(matrix.lu(MathContext.UNLIMITED).isSingular());
+		assertEquals(0, matrix.determinant(MathContext.UNLIMITED).signum());
+	}
+
+	@Test
+	void determinantOfUnblockedAndBlockedDecomposition() {
+		for (final int n : new int[] { 100, 256 }) {
+			final Random random = new Random(n);
+			// det (L U) = product of the diagonal of U, as L has a unit diagonal.
+			// Small elements of L keep the product well-conditioned.
+			final double[] lower = new double[n * n];
+			final double[] upper = new double[n * n];
+			double expected = 1;
+			for (int row = 0; row < n; row++) {
+				lower[row * n + row] = 1;
+				for (int col = 0; col < row; col++)
+					lower[row * n + col] = (random.nextDouble() - 0.5) / n;
+				upper[row * n + row] = 0.5 + random.nextDouble();
+				expected *= upper[row * n + row];
+				for (int col = row + 1; col < n; col++)
+					upper[row * n + col] = random.nextDouble() - 0.5;
+			}
+			final Matrix.Double matrix = new Matrix.Double(n, n, lower)
+					.multiply(new Matrix.Double(n, n, upper));
+			assertEquals(expected, matrix.determinant(), Math.abs(expected) * 1e-9, "n = " + n);
+		}
+	}
+
+	static BigDecimal[][] decimals(final Random random, final int n) {
+		final BigDecimal[][] data = new BigDecimal[n][n];
+		for (int row = 0; row < n; row++)
+			for (int col = 0; col < n; col++)
+				data[row][col] = BigDecimal.valueOf(random.nextInt(20001) - 10000, random.nextInt(4));
+		return data;
+	}
+
+	/**
+	 * Computes the determinant exactly by expansion along the first row.
+	 */
+	private static BigDecimal cofactorDeterminant(final BigDecimal[][] data) {
+		final int n = data.length;
+		if (n == 1)
+			return data[0][0];
+		BigDecimal det = BigDecimal.ZERO;
+		for (int col = 0; col < n; col++) {
+			final BigDecimal[][] minor = new BigDecimal[n - 1][n - 1];
+			for (int row = 1; row < n; row++)
+				for (int c = 0, m = 0; c < n; c++)
+					if (c != col)
+						minor[row - 1][m++] = data[row][c];
+			final BigDecimal term = data[0][col].multiply(LUDecompositionTest.cofactorDeterminant(minor));
+			det = col % 2 == 0 ? det.add(term) : det.subtract(term);
+		}
+		return det;
+	}
+}
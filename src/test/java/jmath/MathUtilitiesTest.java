@@ -0,0 +1,164 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import org.junit.jupiter.api.Test;
+
+class MathUtilitiesTest {
+
+	private static final int[] PRECISIONS = { 16, 30, 100 };
+
+	/**
+	 * Digits added to compute the reference value.
+	 */
+	private static final int REFERENCE_DIGITS = 40;
+
+	private static final String[] ARGUMENTS = { "0.5", "-0.5", "1", "2.75", "-3.14159", "12.5", "-123.456",
+			"1E-40", "-3E-16", "1E-5", "0.99999999999", "1.00000000001" };
+
+	private static final RoundingMode[] DIRECTED_MODES = { RoundingMode.DOWN, RoundingMode.UP, RoundingMode.FLOOR,
+			RoundingMode.CEILING };
+
+	@Test
+	void exp() {
+		MathUtilitiesTest.assertCorrectlyRounded(MathUtilities::exp, MathUtilitiesTest.arguments());
+	}
+
+	@Test
+	void ln() {
+		final List<BigDecimal> arguments = new ArrayList<>();
+		for (final BigDecimal x : MathUtilitiesTest.arguments())
+			if (x.signum() > 0)
+				arguments.add(x);
+		arguments.add(new BigDecimal("1E+300"));
+		MathUtilitiesTest.assertCorrectlyRounded(MathUtilities::ln, arguments);
+	}
+
+	@Test
+	void sin() {
+		MathUtilitiesTest.assertCorrectlyRounded(MathUtilities::sin, MathUtilitiesTest.trigonometricArguments());
+	}
+
+	@Test
+	void cos() {
+		MathUtilitiesTest.assertCorrectlyRounded(MathUtilities::cos, MathUtilitiesTest.trigonometricArguments());
+	}
+
+	@Test
+	void cosOfRoundedHalfPi() {
+		final BigDecimal halfPi = MathConstants.pi(new MathContext(81)).multiply(new BigDecimal("0.5"))
+				.round(new MathContext(80));
+		assertEquals(new BigDecimal("-6.85982587328941466008925956743E-82"),
+				MathUtilities.cos(halfPi, new MathContext(30)));
+	}
+
+	@Test
+	void atan() {
+		final List<BigDecimal> arguments = MathUtilitiesTest.arguments();
+		arguments.add(new BigDecimal("1E+40"));
+		MathUtilitiesTest.assertCorrectlyRounded(MathUtilities::atan, arguments);
+		assertEquals(new BigDecimal("1.00000000000000000000000000000E-40"),
+				MathUtilities.atan(new BigDecimal("1E-40"), new MathContext(30)));
+	}
+
+	@Test
+	void atan2() {
+		for (final BigDecimal y : MathUtilitiesTest.arguments())
+			for (final String x : new String[] { "1", "-1", "1E-20", "-7.5" }) {
+				final BigDecimal abscissa = new BigDecimal(x);
+				MathUtilitiesTest.assertCorrectlyRounded((value, mc) -> MathUtilities.atan2(value, abscissa, mc),
+						List.of(y));
+			}
+	}
+
+	@Test
+	void realRootOfExactPowers() {
+		final Random random = new Random(1);
+		for (int i = 0; i < 200; i++) {
+			final BigDecimal root = new BigDecimal(BigInteger.valueOf(random.nextInt(99999999) + 1),
+					random.nextInt(20) - 10);
+			final int grade = 2 + random.nextInt(5);
+			final BigDecimal base = root.pow(grade);
+			for (final RoundingMode mode : DIRECTED_MODES)
+				assertEquals(0, root.compareTo(MathUtilities.realRoot(base, grade, new MathContext(8, mode))),
+						() -> "root of " + base + ", " + mode);
+			assertEquals(0, root.compareTo(MathUtilities.realRoot(base, grade, MathContext.UNLIMITED)));
+		}
+		assertThrows(ArithmeticException.class,
+				() -> MathUtilities.realRoot(BigDecimal.valueOf(2), 2, MathContext.UNLIMITED));
+	}
+
+	@Test
+	void realRootInDirectedModes() {
+		final Random random = new Random(2);
+		for (int i = 0; i < 200; i++) {
+			final BigDecimal root = new BigDecimal(BigInteger.valueOf(random.nextInt(90000000) + 10000000),
+					random.nextInt(20) - 10);
+			final int grade = 2 + random.nextInt(5);
+			final BigDecimal power = root.pow(grade);
+			// Bases just above and below an exact power, whose roots are just
+			// above and below a number of 8 digits
+			final BigDecimal tiny = power.ulp().movePointLeft(30);
+			for (final BigDecimal base : new BigDecimal[] { power.add(tiny), power.subtract(tiny) }) {
+				final BigDecimal floor = MathUtilities.realRoot(base, grade, new MathContext(8, RoundingMode.FLOOR));
+				final BigDecimal ceiling = MathUtilities.realRoot(base, grade,
+						new MathContext(8, RoundingMode.CEILING));
+				assertTrue(floor.pow(grade).compareTo(base) < 0, () -> "floor of root of " + base);
+				assertTrue(ceiling.pow(grade).compareTo(base) > 0, () -> "ceiling of root of " + base);
+				assertTrue(floor.precision() <= 8 && ceiling.precision() <= 8, () -> "digits of root of " + base);
+				assertEquals(0, floor.add(floor.ulp()).compareTo(ceiling), () -> "root of " + base);
+				assertEquals(0, floor.compareTo(base.compareTo(power) > 0 ? root : ceiling.subtract(ceiling.ulp())));
+				assertEquals(floor, MathUtilities.realRoot(base, grade, new MathContext(8, RoundingMode.DOWN)));
+				assertEquals(ceiling, MathUtilities.realRoot(base, grade, new MathContext(8, RoundingMode.UP)));
+			}
+		}
+	}
+
+	/**
+	 * Checks that results at every precision are equal to results computed
+	 * with more digits and rounded.
+	 */
+	private static void assertCorrectlyRounded(final BiFunction<BigDecimal, MathContext, BigDecimal> function,
+			final List<BigDecimal> arguments) {
+		for (final BigDecimal x : arguments)
+			for (final int precision : PRECISIONS) {
+				final MathContext mc = new MathContext(precision, RoundingMode.HALF_EVEN);
+				final BigDecimal reference = function
+						.apply(x, new MathContext(precision + REFERENCE_DIGITS, RoundingMode.HALF_EVEN)).round(mc);
+				final BigDecimal result = function.apply(x, mc);
+				assertEquals(0, reference.compareTo(result), () -> "x = " + x + ", precision " + precision
+						+ ": " + result + " != " + reference);
+			}
+	}
+
+	private static List<BigDecimal> arguments() {
+		final List<BigDecimal> arguments = new ArrayList<>();
+		for (final String argument : ARGUMENTS)
+			arguments.add(new BigDecimal(argument));
+		return arguments;
+	}
+
+	/**
+	 * Returns common arguments and multiples of pi/2 rounded to various
+	 * precisions, whose reduced arguments are tiny.
+	 */
+	private static List<BigDecimal> trigonometricArguments() {
+		final List<BigDecimal> arguments = MathUtilitiesTest.arguments();
+		final BigDecimal halfPi = MathConstants.pi(new MathContext(200)).multiply(new BigDecimal("0.5"));
+		for (final int k : new int[] { 1, 2, 3, -7, 1000 })
+			for (final int digits : new int[] { 20, 80, 150 })
+				arguments.add(halfPi.multiply(BigDecimal.valueOf(k)).round(new MathContext(digits)));
+		return arguments;
+	}
+}
@@ -0,0 +1,57 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapMatrixTest {
+
+	/**
+	 * Shapes of products as rows, inner size and columns. They cross the
+	 * boundaries of tiles, so the last tiles are partial.
+	 */
+	private static final int[][] SHAPES = { { 700, 530, 610 }, { 513, 2, 514 }, { 3, 1100, 2 } };
+
+	@Test
+	void multiplicationMatchesMatrixDouble() {
+		final Random random = new Random(1);
+		for (final int[] shape : SHAPES) {
+			final Matrix.Double left = SolverTest.random(random, shape[0], shape[1]);
+			final Matrix.Double right = SolverTest.random(random, shape[1], shape[2]);
+			final Matrix.Double expected = left.multiply(right);
+			final OffHeapMatrix mtx1 = new OffHeapMatrix(left);
+			final OffHeapMatrix mtx2 = new OffHeapMatrix(right);
+			final OffHeapMatrix result = new OffHeapMatrix(shape[0], shape[2]);
+			assertSame(result, mtx1.multiply(mtx2, result));
+			// Sums are compared bit by bit, the order of additions must not differ
+			OffHeapMatrixTest.assertMatrixEquals(expected, result);
+			OffHeapMatrixTest.assertMatrixEquals(expected, mtx1.multiply(mtx2));
+		}
+	}
+
+	@Test
+	void multiplicationRejectsInvalidResult() {
+		final OffHeapMatrix mtx1 = new OffHeapMatrix(3, 3);
+		final OffHeapMatrix mtx2 = new OffHeapMatrix(3, 2);
+		assertThrows(IllegalArgumentException.class, () -> mtx2.multiply(mtx1, new OffHeapMatrix(3, 3)));
+		assertThrows(IllegalArgumentException.class, () -> mtx1.multiply(mtx2, new OffHeapMatrix(3, 3)));
+		assertThrows(IllegalArgumentException.class, () -> mtx1.multiply(mtx1, mtx1));
+	}
+
+	private static void assertMatrixEquals(final Matrix.Double expected, final OffHeapMatrix actual) {
+		assertEquals(expected.rows(), actual.rows());
+		assertEquals(expected.columns(), actual.columns());
+		final double[] row = new double[expected.columns()];
+		for (int r = 0; r < expected.rows(); r++) {
+			for (int col = 0; col < row.length; col++)
+				row[col] = expected.get(r, col);
+			final int index = r;
+			assertArrayEquals(row, actual.getRow(r), () -> "row " + index);
+		}
+	}
+}
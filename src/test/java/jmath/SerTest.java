@@ -0,0 +1,174 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SerTest {
+
+	/**
+	 * Matrix.Double [[1, 2, 3], [4, 5, 6]] serialized by its former default
+	 * form with a {@code double[][]} field.
+	 */
+	private static final String DEFAULT_FORM_MATRIX_DOUBLE = "rO0ABXNyABNqbWF0aC5NYXRyaXgkRG91YmxlAAAAAAAAAQACAAFbAARkYXRhdAADW1tEeHB1cgADW1tEx60L/2Rn/0UCAAB4cAAAAAJ1cgACW0Q+powUq2NaHgIAAHhwAAAAAz/wAAAAAAAAQAAAAAAAAABACAAAAAAAAHVxAH4ABQAAAANAEAAAAAAAAEAUAAAAAAAAQBgAAAAAAAA=";
+
+	/**
+	 * The same form with rows of different lengths.
+	 */
+	private static final String DEFAULT_FORM_RAGGED_MATRIX_DOUBLE = "rO0ABXNyABNqbWF0aC5NYXRyaXgkRG91YmxlAAAAAAAAAQACAAFbAARkYXRhdAADW1tEeHB1cgADW1tEx60L/2Rn/0UCAAB4cAAAAAJ1cgACW0Q+powUq2NaHgIAAHhwAAAAAj/wAAAAAAAAQAAAAAAAAAB1cQB+AAUAAAABP/AAAAAAAAA=";
+
+	/**
+	 * Vector serialized by its default form with a {@code null} coordinate.
+	 */
+	private static final String DEFAULT_FORM_VECTOR_WITH_NULL = "rO0ABXNyAAxqbWF0aC5WZWN0b3IAAAAAAAABAAIAAVsAC2Nvb3JkaW5hdGVzdAAXW0xqYXZhL21hdGgvQmlnRGVjaW1hbDt4cHVyABdbTGphdmEubWF0aC5CaWdEZWNpbWFsO0jza3KLNwk8AgAAeHAAAAABcA==";
+
+	@Test
+	void hypercomplex() throws Exception {
+		final Hypercomplex number = new Hypercomplex(new BigDecimal("-1.25"), new BigDecimal("3E+10"),
+				new BigDecimal("0.000000000000000000000000000000001"), BigDecimal.ZERO);
+		assertEquals(number, SerTest.roundTrip(number));
+		// NaN is not equal to itself, so the parts are compared bit by bit
+		final Hypercomplex.Double doubleNumber = new Hypercomplex.Double(-0.0, Double.NaN, 1e300, 2);
+		final Hypercomplex.Double doubleCopy = SerTest.roundTrip(doubleNumber);
+		assertEquals(doubleNumber.getRealPart(), doubleCopy.getRealPart());
+		assertEquals(doubleNumber.getImaginaryPartsCount(), doubleCopy.getImaginaryPartsCount());
+		for (int i = 0; i < doubleNumber.getImaginaryPartsCount(); i++)
+			assertEquals(doubleNumber.getImaginaryPart(i), doubleCopy.getImaginaryPart(i));
+	}
+
+	@Test
+	void vector() throws Exception {
+		final Vector vector = new Vector(new BigDecimal("1.10"), new BigDecimal("-7E-5"));
+		final Vector copy = SerTest.roundTrip(vector);
+		assertEquals(vector.size(), copy.size());
+		for (int i = 0; i < vector.size(); i++)
+			assertEquals(vector.get(i), copy.get(i));
+		// More coordinates than allocated before reading
+		final double[] coordinates = new double[20000];
+		for (int i = 0; i < coordinates.length; i++)
+			coordinates[i] = Math.cos(i);
+		final Vector.Double doubleCopy = SerTest.roundTrip(new Vector.Double(coordinates));
+		assertEquals(coordinates.length, doubleCopy.coordinates());
+		for (int i = 0; i < coordinates.length; i++)
+			assertEquals(coordinates[i], doubleCopy.get(i));
+	}
+
+	@Test
+	void matrix() throws Exception {
+		final Matrix matrix = new Matrix(LUDecompositionTest.decimals(new Random(1), 3));
+		final Matrix copy = SerTest.roundTrip(matrix);
+		for (int row = 0; row < 3; row++)
+			for (int col = 0; col < 3; col++)
+				assertEquals(matrix.get(row, col), copy.get(row, col));
+	}
+
+	@Test
+	void matrixDouble() throws Exception {
+		final Matrix.Double matrix = new Matrix.Double(3, 4, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12);
+		// A transposed matrix is a strided view of the same array
+		for (final Matrix.Double source : new Matrix.Double[] { matrix, matrix.transpose() }) {
+			final Matrix.Double copy = SerTest.roundTrip(source);
+			assertEquals(source.rows(), copy.rows());
+			assertEquals(source.columns(), copy.columns());
+			for (int row = 0; row < source.rows(); row++)
+				for (int col = 0; col < source.columns(); col++)
+					assertEquals(source.get(row, col), copy.get(row, col));
+		}
+	}
+
+	@Test
+	void onlyProxyIsDescribed() throws IOException {
+		final String stream = new String(SerTest.serialize(new Matrix.Double(2, 2, 1, 2, 3, 4)),
+				StandardCharsets.ISO_8859_1);
+		assertTrue(stream.contains("jmath.Ser"));
+		assertFalse(stream.contains("jmath.Matrix"));
+	}
+
+	@Test
+	void defaultFormIsStillRead() throws Exception {
+		final Matrix.Double matrix = (Matrix.Double) SerTest.deserialize(Base64.getDecoder()
+				.decode(DEFAULT_FORM_MATRIX_DOUBLE));
+		assertEquals(2, matrix.rows());
+		assertArrayEquals(new double[] { 1, 2, 3 }, new double[] { matrix.get(0, 0), matrix.get(0, 1),
+				matrix.get(0, 2) });
+		assertArrayEquals(new double[] { 4, 5, 6 }, new double[] { matrix.get(1, 0), matrix.get(1, 1),
+				matrix.get(1, 2) });
+	}
+
+	@Test
+	void invalidDefaultFormIsRejected() {
+		for (final String stream : new String[] { DEFAULT_FORM_RAGGED_MATRIX_DOUBLE, DEFAULT_FORM_VECTOR_WITH_NULL })
+			assertThrows(InvalidObjectException.class,
+					() -> SerTest.deserialize(Base64.getDecoder().decode(stream)));
+	}
+
+	@Test
+	void forgedSizesDoNotAllocate() {
+		// A size of Integer.MAX_VALUE followed by a few elements only
+		final byte[] size = { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 };
+		final byte[] decimals = { 0, 1, 1, 0, 1, 2 };
+		final byte[] doubles = new byte[24];
+		assertThrows(EOFException.class, () -> Ser.readDecimal(SerTest.input(new byte[] { 0 }, size, decimals)));
+		assertThrows(EOFException.class, () -> Vector.readExternal(SerTest.input(size, decimals)));
+		assertThrows(EOFException.class, () -> Vector.Double.readExternal(SerTest.input(size, doubles)));
+		assertThrows(EOFException.class, () -> Hypercomplex.readExternal(SerTest.input(size, decimals)));
+		assertThrows(EOFException.class, () -> Hypercomplex.Double.readExternal(SerTest.input(size, doubles)));
+		// 40000 x 40000 elements
+		final byte[] shape = { (byte) 0xC0, (byte) 0xB8, 0x02, (byte) 0xC0, (byte) 0xB8, 0x02 };
+		assertThrows(EOFException.class, () -> Matrix.readExternal(SerTest.input(shape, decimals)));
+		assertThrows(EOFException.class, () -> Matrix.Double.readExternal(SerTest.input(shape, doubles)));
+	}
+
+	@Test
+	void invalidShapesAreRejected() {
+		for (final byte[] shape : new byte[][] { { 1, 1 }, { 0, 2 }, { 3, 0 } }) {
+			assertThrows(InvalidObjectException.class,
+					() -> Matrix.readExternal(SerTest.input(shape, new byte[] { 0, 1, 1 })));
+			assertThrows(InvalidObjectException.class,
+					() -> Matrix.Double.readExternal(SerTest.input(shape, new byte[8])));
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T roundTrip(final T object) throws IOException, ClassNotFoundException {
+		return (T) SerTest.deserialize(SerTest.serialize(object));
+	}
+
+	private static byte[] serialize(final Object object) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+			out.writeObject(object);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static Object deserialize(final byte[] bytes) throws IOException, ClassNotFoundException {
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+			return in.readObject();
+		}
+	}
+
+	private static DataInputStream input(final byte[]... parts) throws IOException {
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		for (final byte[] part : parts)
+			bytes.write(part);
+		return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+	}
+}
@@ -0,0 +1,129 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class SolverTest {
+
+	/**
+	 * Sizes solved by the unblocked and by the blocked LU decomposition.
+	 */
+	private static final int[] SIZES = { 50, 191, 192, 300 };
+
+	@Test
+	void luResiduals() {
+		for (final int n : SIZES) {
+			final Matrix.Double a = SolverTest.random(new Random(n), n, n);
+			final Matrix.Double b = SolverTest.random(new Random(-n), n, 3);
+			SolverTest.assertSmallResidual(a, new LUDecomposition.Double(a).solve(b), b, "n = " + n);
+		}
+	}
+
+	@Test
+	void luSolvesVectorAsMatrixColumn() {
+		for (final int n : SIZES) {
+			final Matrix.Double a = SolverTest.random(new Random(n), n, n);
+			final Matrix.Double b = SolverTest.random(new Random(-n), n, 1);
+			final double[] column = new double[n];
+			for (int i = 0; i < n; i++)
+				column[i] = b.get(i, 0);
+			final Vector.Double x = a.solve(new Vector.Double(column));
+			final Matrix.Double expected = a.solve(b);
+			for (int i = 0; i < n; i++)
+				assertEquals(expected.get(i, 0), x.get(i), "n = " + n);
+		}
+	}
+
+	@Test
+	void luInverse() {
+		final int n = 200;
+		final Matrix.Double a = SolverTest.random(new Random(n), n, n);
+		final Matrix.Double product = a.multiply(a.lu().inverse());
+		for (int row = 0; row < n; row++)
+			for (int col = 0; col < n; col++)
+				assertEquals(row == col ? 1 : 0, product.get(row, col), 1e-10);
+	}
+
+	@Test
+	void choleskyResiduals() {
+		final int n = 120;
+		final Matrix.Double m = SolverTest.random(new Random(n), n, n);
+		// M^T M + n I is symmetric positive definite
+		final Matrix.Double a = m.transpose().multiply(m).add(SolverTest.diagonal(n, n));
+		final Matrix.Double b = SolverTest.random(new Random(-n), n, 4);
+		SolverTest.assertSmallResidual(a, new CholeskyDecomposition.Double(a).solve(b), b, "Cholesky");
+	}
+
+	@Test
+	void qrLeastSquares() {
+		final Matrix.Double a = SolverTest.random(new Random(7), 80, 30);
+		final Matrix.Double b = SolverTest.random(new Random(8), 80, 1);
+		final Matrix.Double x = new QRDecomposition.Double(a).solve(b);
+		// The residual of the least squares solution is orthogonal to columns of A
+		final Matrix.Double normal = a.transpose().multiply(a.multiply(x).subtract(b));
+		for (int row = 0; row < normal.rows(); row++)
+			assertEquals(0, normal.get(row, 0), 1e-10);
+	}
+
+	@Test
+	void exactSolution() {
+		final Matrix a = new Matrix(LUDecompositionTest.decimals(new Random(9), 4));
+		final BigDecimal[][] data = new BigDecimal[4][2];
+		for (int row = 0; row < 4; row++)
+			for (int col = 0; col < 2; col++)
+				data[row][col] = BigDecimal.valueOf(row - 2L * col, 1);
+		final Matrix x = new Matrix(data);
+		final Matrix b = a.multiply(x, MathContext.UNLIMITED);
+		final LUDecomposition lu = a.lu(MathContext.UNLIMITED);
+		assertTrue(!lu.isSingular());
+		final Matrix solution = lu.solve(b);
+		for (int row = 0; row < 4; row++)
+			for (int col = 0; col < 2; col++)
+				assertEquals(0, x.get(row, col).compareTo(solution.get(row, col)));
+	}
+
+	static Matrix.Double random(final Random random, final int rows, final int columns) {
+		final double[] data = new double[rows * columns];
+		for (int i = 0; i < data.length; i++)
+			data[i] = random.nextDouble() - 0.5;
+		return new Matrix.Double(rows, columns, data);
+	}
+
+	private static Matrix.Double diagonal(final int n, final double value) {
+		final double[] data = new double[n * n];
+		for (int i = 0; i < n; i++)
+			data[i * n + i] = value;
+		return new Matrix.Double(n, n, data);
+	}
+
+	/**
+	 * Checks that the normwise backward error of {@code x} is a small multiple
+	 * of the machine epsilon.
+	 */
+	private static void assertSmallResidual(final Matrix.Double a, final Matrix.Double x, final Matrix.Double b,
+			final String message) {
+		final Matrix.Double residual = a.multiply(x).subtract(b);
+		final double error = SolverTest.norm(residual) / (SolverTest.norm(a) * SolverTest.norm(x) + SolverTest.norm(b));
+		assertTrue(error < a.rows() * Math.ulp(1.0), () -> message + ": backward error " + error);
+	}
+
+	/**
+	 * Returns the maximum absolute row sum.
+	 */
+	private static double norm(final Matrix.Double matrix) {
+		double norm = 0;
+		for (int row = 0; row < matrix.rows(); row++) {
+			double sum = 0;
+			for (int col = 0; col < matrix.columns(); col++)
+				sum += Math.abs(matrix.get(row, col));
+			norm = Math.max(norm, sum);
+		}
+		return norm;
+	}
+}
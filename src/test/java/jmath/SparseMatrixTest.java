@@ -0,0 +1,127 @@
+package jmath;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import jmath.SparseMatrix.Layout;
+
+class SparseMatrixTest {
+
+	@Test
+	void fromTripletsSumsDuplicates() {
+		final int[] rows = { 2, 0, 2, 1, 0, 2, 0 };
+		final int[] columns = { 1, 3, 1, 0, 3, 1, 0 };
+		final double[] values = { 1, 2, 3, 4, 5, 6, 7 };
+		for (final Layout layout : Layout.values()) {
+			final SparseMatrix matrix = SparseMatrix.fromTriplets(3, 4, layout, rows, columns, values);
+			assertEquals(layout, matrix.layout());
+			assertEquals(4, matrix.nonZeros());
+			assertEquals(7, matrix.get(0, 0));
+			assertEquals(7, matrix.get(0, 3));
+			assertEquals(4, matrix.get(1, 0));
+			assertEquals(10, matrix.get(2, 1));
+			assertEquals(0, matrix.get(1, 1));
+		}
+	}
+
+	@Test
+	void fromTripletsMatchesDenseMatrix() {
+		final Random random = new Random(1);
+		final int count = 500;
+		final int[] rows = new int[count];
+		final int[] columns = new int[count];
+		final double[] values = new double[count];
+		final double[] dense = new double[30 * 20];
+		for (int i = 0; i < count; i++) {
+			rows[i] = random.nextInt(30);
+			columns[i] = random.nextInt(20);
+			// Integers are summed exactly in any order
+			values[i] = random.nextInt(100) + 1;
+			dense[rows[i] * 20 + columns[i]] += values[i];
+		}
+		final Matrix.Double expected = new Matrix.Double(30, 20, dense);
+		for (final Layout layout : Layout.values()) {
+			final SparseMatrix matrix = SparseMatrix.fromTriplets(30, 20, layout, rows, columns, values);
+			SparseMatrixTest.assertMatrixEquals(expected, matrix.toDense());
+			SparseMatrixTest.assertMatrixEquals(expected, new SparseMatrix(expected, layout).toDense());
+		}
+	}
+
+	@Test
+	void fromTripletsRejectsInvalidPositions() {
+		final int[] indices = { 0, 3 };
+		final double[] values = { 1, 2 };
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> SparseMatrix.fromTriplets(3, 3, Layout.CSR, indices, new int[] { 0, 0 }, values));
+		assertThrows(IndexOutOfBoundsException.class,
+				() -> SparseMatrix.fromTriplets(3, 3, Layout.CSC, new int[] { 0, 0 }, indices, values));
+		assertThrows(IllegalArgumentException.class,
+				() -> SparseMatrix.fromTriplets(3, 3, Layout.CSR, indices, indices, new double[1]));
+	}
+
+	@Test
+	void toLayoutRoundTrip() {
+		final Matrix.Double dense = SparseMatrixTest.randomSparse(new Random(2), 40, 25);
+		for (final Layout layout : Layout.values()) {
+			final SparseMatrix matrix = new SparseMatrix(dense, layout);
+			final Layout other = layout == Layout.CSR ? Layout.CSC : Layout.CSR;
+			final SparseMatrix converted = matrix.toLayout(other);
+			assertSame(matrix, matrix.toLayout(layout));
+			assertEquals(other, converted.layout());
+			assertEquals(matrix.nonZeros(), converted.nonZeros());
+			SparseMatrixTest.assertMatrixEquals(dense, converted.toDense());
+			SparseMatrixTest.assertMatrixEquals(dense, converted.toLayout(layout).toDense());
+			SparseMatrixTest.assertMatrixEquals(dense.transpose(), matrix.transpose().toDense());
+		}
+	}
+
+	@Test
+	void multiplicationMatchesDenseMatrix() {
+		final Random random = new Random(3);
+		final Matrix.Double left = SparseMatrixTest.randomSparse(random, 30, 40);
+		final Matrix.Double right = SparseMatrixTest.randomSparse(random, 40, 20);
+		final Matrix.Double expected = left.multiply(right);
+		for (final Layout layout1 : Layout.values())
+			for (final Layout layout2 : Layout.values()) {
+				final SparseMatrix sparse = new SparseMatrix(left, layout1);
+				SparseMatrixTest.assertMatrixEquals(expected, sparse.multiply(right));
+				SparseMatrixTest.assertMatrixEquals(expected,
+						sparse.multiply(new SparseMatrix(right, layout2)).toDense());
+			}
+	}
+
+	/**
+	 * Returns a matrix with about a fifth of small integer elements non-zero, so
+	 * that products are exact.
+	 */
+	private static Matrix.Double randomSparse(final Random random, final int rows, final int columns) {
+		final double[] data = new double[rows * columns];
+		for (int i = 0; i < data.length; i++)
+			if (random.nextInt(5) == 0)
+				data[i] = random.nextInt(19) - 9;
+		return new Matrix.Double(rows, columns, data);
+	}
+
+	private static void assertMatrixEquals(final Matrix.Double expected, final Matrix.Double actual) {
+		assertEquals(expected.rows(), actual.rows());
+		assertEquals(expected.columns(), actual.columns());
+		for (int row = 0; row < expected.rows(); row++) {
+			final int r = row;
+			assertArrayEquals(SparseMatrixTest.row(expected, row), SparseMatrixTest.row(actual, row),
+					() -> "row " + r);
+		}
+	}
+
+	private static double[] row(final Matrix.Double matrix, final int row) {
+		final double[] values = new double[matrix.columns()];
+		for (int col = 0; col < values.length; col++)
+			values[col] = matrix.get(row, col);
+		return values;
+	}
+}
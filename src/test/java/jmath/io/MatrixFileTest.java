@@ -0,0 +1,111 @@
+package jmath.io;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jmath.Matrix;
+import jmath.OffHeapMatrix;
+
+class MatrixFileTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void decimalRoundTrip() throws IOException {
+		final BigDecimal[][] data = {
+				{ new BigDecimal("1.5"), new BigDecimal("-1E+40"), BigDecimal.ZERO },
+				{ new BigDecimal("123456789012345678901234567890.0001"), new BigDecimal("-3.25E-300"),
+						new BigDecimal(BigInteger.TEN, Integer.MIN_VALUE) },
+				{ new BigDecimal(BigInteger.ONE.negate(), Integer.MAX_VALUE), new BigDecimal("-128"),
+						new BigDecimal("0.00") } };
+		final Path path = this.directory.resolve("decimal.jmat");
+		MatrixFile.write(path, new Matrix(data));
+		final Matrix matrix = MatrixFile.readDecimal(path);
+		for (int row = 0; row < 3; row++)
+			for (int col = 0; col < 3; col++)
+				// Scales must be kept as well
+				assertEquals(data[row][col], matrix.get(row, col));
+	}
+
+	@Test
+	void smallDecimalsTakeFewBytes() throws IOException {
+		final BigDecimal[][] data = new BigDecimal[10][10];
+		for (int row = 0; row < 10; row++)
+			for (int col = 0; col < 10; col++)
+				data[row][col] = BigDecimal.valueOf(row * 10 + col, 2);
+		final Path path = this.directory.resolve("decimal.jmat");
+		MatrixFile.write(path, new Matrix(data));
+		// Scale, length and unscaled value take one byte each
+		assertEquals(MatrixFile.HEADER_SIZE + 3 * 100, Files.size(path));
+	}
+
+	@Test
+	void doubleRoundTrip() throws IOException {
+		final double[] data = new double[20 * 30];
+		for (int i = 0; i < data.length; i++)
+			data[i] = Math.sin(i) * 1e-3;
+		final Matrix.Double expected = new Matrix.Double(20, 30, data);
+		final Path path = this.directory.resolve("double.jmat");
+		MatrixFile.write(path, expected);
+		assertEquals(MatrixFile.HEADER_SIZE + 8L * data.length, Files.size(path));
+		final Matrix.Double matrix = MatrixFile.readDouble(path);
+		final OffHeapMatrix mapped = MatrixFile.map(path, FileChannel.MapMode.READ_ONLY);
+		for (int row = 0; row < 20; row++)
+			for (int col = 0; col < 30; col++) {
+				assertEquals(expected.get(row, col), matrix.get(row, col));
+				assertEquals(expected.get(row, col), mapped.get(row, col));
+			}
+	}
+
+	@Test
+	void multiplicationMatchesMatrixDouble() throws IOException {
+		final Random random = new Random(1);
+		// Shapes cross the boundaries of tiles, so the last tiles are partial
+		for (final int[] shape : new int[][] { { 700, 530, 610 }, { 513, 2, 514 } }) {
+			final Matrix.Double left = MatrixFileTest.random(random, shape[0], shape[1]);
+			final Matrix.Double right = MatrixFileTest.random(random, shape[1], shape[2]);
+			final Path leftPath = this.directory.resolve("left.jmat");
+			final Path rightPath = this.directory.resolve("right.jmat");
+			final Path resultPath = this.directory.resolve("result.jmat");
+			MatrixFile.write(leftPath, left);
+			MatrixFile.write(rightPath, right);
+			MatrixFile.multiply(leftPath, rightPath, resultPath);
+			final Matrix.Double expected = left.multiply(right);
+			final Matrix.Double product = MatrixFile.readDouble(resultPath);
+			assertEquals(expected.rows(), product.rows());
+			assertEquals(expected.columns(), product.columns());
+			// Sums are compared bit by bit, the order of additions must not differ
+			for (int row = 0; row < expected.rows(); row++)
+				for (int col = 0; col < expected.columns(); col++)
+					assertEquals(expected.get(row, col), product.get(row, col));
+		}
+	}
+
+	@Test
+	void wrongType() throws IOException {
+		final Path path = this.directory.resolve("double.jmat");
+		MatrixFile.write(path, new Matrix.Double(2, 2, 1, 2, 3, 4));
+		assertThrows(IOException.class, () -> MatrixFile.readDecimal(path));
+		Files.write(path, new byte[] { 'J', 'M', 'A', 'T' });
+		assertThrows(IOException.class, () -> MatrixFile.readDouble(path));
+	}
+
+	private static Matrix.Double random(final Random random, final int rows, final int columns) {
+		final double[] data = new double[rows * columns];
+		for (int i = 0; i < data.length; i++)
+			data[i] = random.nextGaussian();
+		return new Matrix.Double(rows, columns, data);
+	}
+}
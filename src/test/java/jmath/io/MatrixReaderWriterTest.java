@@ -0,0 +1,149 @@
+package jmath.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jmath.Matrix;
+
+class MatrixReaderWriterTest {
+
+	private static final double[] SPECIAL = { -0.0, Double.NaN, Double.POSITIVE_INFINITY, Double.MIN_VALUE,
+			Double.MAX_VALUE, 0.1 };
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void binaryRoundTrip() throws IOException {
+		final Path path = this.directory.resolve("matrix.jmat");
+		final double[] data = MatrixReaderWriterTest.data(1000, 7);
+		try (MatrixWriter writer = MatrixWriter.binary(path, 7)) {
+			writer.writeRows(data, 0, 400);
+			writer.writeRows(data, 400 * 7, 600);
+			assertEquals(1000, writer.rows());
+		}
+		MatrixReaderWriterTest.assertRows(data, 7, MatrixReader.binary(path));
+		MatrixReaderWriterTest.assertMatrix(data, 7, MatrixFile.readDouble(path));
+	}
+
+	@Test
+	void csvRoundTrip() throws IOException {
+		final Path path = this.directory.resolve("matrix.csv");
+		final double[] data = MatrixReaderWriterTest.data(300, 5);
+		try (MatrixWriter writer = MatrixWriter.csv(path, 5)) {
+			writer.writeRows(data, 0, 300);
+		}
+		MatrixReaderWriterTest.assertRows(data, 5, MatrixReader.csv(path));
+	}
+
+	@Test
+	void readMatrix() throws IOException {
+		final double[] data = MatrixReaderWriterTest.data(50, 3);
+		final StringWriter csv = new StringWriter();
+		try (MatrixWriter writer = MatrixWriter.csv(csv, 3)) {
+			writer.writeRows(data, 0, 50);
+		}
+		try (MatrixReader reader = MatrixReader.csv(new StringReader(csv.toString()))) {
+			MatrixReaderWriterTest.assertMatrix(data, 3, reader.readMatrix());
+		}
+	}
+
+	@Test
+	void binaryWithoutRows() throws IOException {
+		final Path path = this.directory.resolve("empty.jmat");
+		MatrixWriter.binary(path, 4).close();
+		try (MatrixReader reader = MatrixReader.binary(path)) {
+			assertEquals(4, reader.columns());
+			assertEquals(-1, reader.readRows(new double[4], 0, 1));
+			assertFalse(reader.readRow(new double[4]));
+			assertThrows(IllegalArgumentException.class, reader::readMatrix);
+		}
+		assertThrows(IOException.class, () -> MatrixFile.readDouble(path));
+	}
+
+	@Test
+	void csvWithoutRows() throws IOException {
+		final StringWriter csv = new StringWriter();
+		MatrixWriter.csv(csv, 4).close();
+		try (MatrixReader reader = MatrixReader.csv(new StringReader(csv.toString()))) {
+			assertEquals(0, reader.columns());
+			assertEquals(-1, reader.readRows(new double[0], 0, 1));
+			assertThrows(IllegalArgumentException.class, reader::readMatrix);
+		}
+		try (MatrixReader reader = MatrixReader.csv(new StringReader("\n  \n"))) {
+			assertEquals(-1, reader.readRows(new double[0], 0, 1));
+		}
+	}
+
+	@Test
+	void malformedCsv() throws IOException {
+		for (final String csv : new String[] { "1,2\n3\n", "1,2\n3,4,5\n", "1,2\n3,x\n" })
+			try (MatrixReader reader = MatrixReader.csv(new StringReader(csv))) {
+				final double[] block = new double[4];
+				assertThrows(IOException.class, () -> reader.readRows(block, 0, 2), csv);
+			}
+	}
+
+	@Test
+	void invalidRows() throws IOException {
+		try (MatrixWriter writer = MatrixWriter.csv(new StringWriter(), 3)) {
+			assertThrows(IllegalArgumentException.class, () -> writer.writeRow(1, 2));
+			assertThrows(IndexOutOfBoundsException.class, () -> writer.writeRows(new double[5], 0, 2));
+			assertEquals(0, writer.rows());
+		}
+	}
+
+	/**
+	 * Returns random elements mixed with values which are easy to corrupt.
+	 */
+	private static double[] data(final int rows, final int columns) {
+		final Random random = new Random((long) rows * columns);
+		final double[] data = new double[rows * columns];
+		for (int i = 0; i < data.length; i++)
+			data[i] = i % 11 < SPECIAL.length ? SPECIAL[i % 11] : random.nextGaussian() * 1e10;
+		return data;
+	}
+
+	/**
+	 * Reads all rows in blocks of a size which does not divide the count of
+	 * rows and closes the reader.
+	 */
+	private static void assertRows(final double[] expected, final int columns, final MatrixReader reader)
+			throws IOException {
+		try (reader) {
+			assertEquals(columns, reader.columns());
+			final double[] block = new double[2 + 33 * columns];
+			int done = 0;
+			int rows;
+			while ((rows = reader.readRows(block, 2, 33)) >= 0) {
+				assertTrue(rows > 0);
+				for (int i = 0; i < rows * columns; i++)
+					assertEquals(expected[done * columns + i], block[2 + i]);
+				done += rows;
+			}
+			assertEquals(expected.length / columns, done);
+		}
+	}
+
+	private static void assertMatrix(final double[] expected, final int columns, final Matrix.Double matrix) {
+		assertEquals(expected.length / columns, matrix.rows());
+		assertEquals(columns, matrix.columns());
+		final double[] actual = new double[expected.length];
+		for (int row = 0; row < matrix.rows(); row++)
+			for (int col = 0; col < columns; col++)
+				actual[row * columns + col] = matrix.get(row, col);
+		assertArrayEquals(expected, actual);
+	}
+}